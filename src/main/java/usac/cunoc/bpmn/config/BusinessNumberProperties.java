@@ -0,0 +1,28 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Order, payment and invoice number settings
+ * Binds app.numbers.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.numbers")
+@Validated
+public class BusinessNumberProperties {
+
+    /**
+     * ID of this instance, part of every generated number. Instances sharing a
+     * database must use different node IDs
+     */
+    @Min(0)
+    @Max(1023)
+    private int nodeId = 0;
+}
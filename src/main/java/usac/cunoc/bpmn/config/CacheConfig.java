@@ -0,0 +1,24 @@
+package usac.cunoc.bpmn.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache configuration - enables Spring's cache abstraction and centralizes
+ * cache names so producers and evictors reference the same keys
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Catalog facet block (genres, artists, types, price range) shown on the
+     * public catalog listing
+     */
+    public static final String CATALOG_FACETS = "catalogFacets";
+
+    /**
+     * Article detail (product page) keyed by article ID
+     */
+    public static final String ARTICLE_DETAIL = "articleDetail";
+}
@@ -0,0 +1,49 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Shopping cart store settings
+ * Binds app.cart.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cart")
+@Validated
+public class CartStoreProperties {
+
+    /**
+     * Where live carts are kept: "database" writes every change to
+     * shopping_cart_item, "memory" keeps carts in this instance and writes them
+     * behind (needs sticky routing when several instances serve the API)
+     */
+    @Pattern(regexp = "database|memory")
+    private String store = "database";
+
+    /**
+     * Maximum carts kept in memory; the periodic flush drops least recently
+     * used carts beyond this
+     */
+    @Positive
+    private int maxCarts = 10000;
+
+    /**
+     * Idle time after which an in-memory cart is flushed and dropped
+     */
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * Interval between write-behind flushes of changed in-memory carts
+     */
+    @NotNull
+    private Duration flushInterval = Duration.ofMinutes(1);
+}
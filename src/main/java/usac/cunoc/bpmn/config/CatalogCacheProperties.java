@@ -0,0 +1,27 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Catalog cache settings
+ * Binds app.catalog.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.catalog")
+@Validated
+public class CatalogCacheProperties {
+
+    /**
+     * Longest time cached facets are served; bounds staleness from changes
+     * made outside the application (triggers, manual SQL)
+     */
+    @NotNull
+    private Duration facetsTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,31 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Limits applied when loading article comment threads
+ * Binds app.comments.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.comments")
+@Validated
+public class CommentThreadProperties {
+
+    /**
+     * Maximum reply levels loaded below each top-level comment
+     */
+    @Positive
+    private int maxDepth = 5;
+
+    /**
+     * Maximum replies loaded per comment (oldest first)
+     */
+    @Positive
+    private int maxRepliesPerComment = 20;
+}
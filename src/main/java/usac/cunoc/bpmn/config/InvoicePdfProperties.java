@@ -0,0 +1,33 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Invoice PDF settings
+ * Binds app.invoices.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.invoices")
+@Validated
+public class InvoicePdfProperties {
+
+    /**
+     * Local directory where rendered invoice PDFs are kept, one file per
+     * invoice number
+     */
+    @NotBlank
+    private String cacheDir = System.getProperty("java.io.tmpdir") + "/bpmn-invoices";
+
+    /**
+     * Threads rendering invoices for the bulk admin export
+     */
+    @Positive
+    private int exportThreads = 4;
+}
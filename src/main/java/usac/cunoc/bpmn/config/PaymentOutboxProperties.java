@@ -0,0 +1,51 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Payment settlement settings
+ * Binds app.payments.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.payments")
+@Validated
+public class PaymentOutboxProperties {
+
+    /**
+     * Interval between polls of the payment outbox
+     */
+    @NotNull
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Settlement worker threads
+     */
+    @Positive
+    private int workers = 4;
+
+    /**
+     * Payments a worker settles per poll, each in its own transaction
+     */
+    @Positive
+    private int batchSize = 20;
+
+    /**
+     * Attempts before a payment is marked as failed
+     */
+    @Positive
+    private int maxAttempts = 5;
+
+    /**
+     * Wait before retrying a failed settlement, multiplied by the attempt number
+     */
+    @NotNull
+    private Duration retryBackoff = Duration.ofSeconds(30);
+}
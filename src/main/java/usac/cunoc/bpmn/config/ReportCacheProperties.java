@@ -0,0 +1,60 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import usac.cunoc.bpmn.enums.ReportType;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admin report cache settings
+ * Binds app.reports.cache.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.reports.cache")
+@Validated
+public class ReportCacheProperties {
+
+    /**
+     * Time a report is served as is, by report type
+     */
+    @NotNull
+    private Map<ReportType, Duration> ttl = new EnumMap<>(ReportType.class);
+
+    /**
+     * TTL of report types missing from ttl
+     */
+    @NotNull
+    private Duration defaultTtl = Duration.ofMinutes(5);
+
+    /**
+     * Time after the TTL during which the old report is still returned while
+     * it is refreshed in the background; older reports are recomputed before
+     * answering
+     */
+    @NotNull
+    private Duration maxStale = Duration.ofHours(1);
+
+    /**
+     * Threads computing reports
+     */
+    @Positive
+    private int refreshThreads = 2;
+
+    /**
+     * Cached reports kept across all types and parameters
+     */
+    @Positive
+    private int maxEntries = 500;
+
+    public Duration ttlOf(ReportType type) {
+        return ttl.getOrDefault(type, defaultTtl);
+    }
+}
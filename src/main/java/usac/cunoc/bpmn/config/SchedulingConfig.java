@@ -0,0 +1,14 @@
+package usac.cunoc.bpmn.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration - enables @Scheduled background jobs
+ * The scheduler pool size is spring.task.scheduling.pool.size; the payment
+ * outbox poll waits for its workers, so jobs must not share a single thread
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
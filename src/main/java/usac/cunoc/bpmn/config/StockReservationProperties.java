@@ -0,0 +1,32 @@
+package usac.cunoc.bpmn.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Stock reservation settings
+ * Binds app.stock.* from application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.stock")
+@Validated
+public class StockReservationProperties {
+
+    /**
+     * How long checkout holds an order's stock while it waits for payment
+     */
+    @NotNull
+    private Duration reservationTtl = Duration.ofMinutes(15);
+
+    /**
+     * Interval between sweeps that release expired reservations
+     */
+    @NotNull
+    private Duration releaseInterval = Duration.ofMinutes(1);
+}
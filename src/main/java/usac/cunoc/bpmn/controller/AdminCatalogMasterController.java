@@ -17,6 +17,8 @@ import usac.cunoc.bpmn.dto.common.ApiResponseDto;
 import usac.cunoc.bpmn.entity.User;
 import usac.cunoc.bpmn.repository.UserRepository;
 import usac.cunoc.bpmn.service.AdminCatalogMasterService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
+import java.time.LocalDateTime;
 
 /**
  * Admin catalog master controller for administrative catalog master operations
@@ -31,6 +33,7 @@ import usac.cunoc.bpmn.service.AdminCatalogMasterService;
 public class AdminCatalogMasterController {
 
     private final AdminCatalogMasterService adminCatalogMasterService;
+    private final ReferenceDataRegistry referenceDataRegistry;
     private final UserRepository userRepository;
 
     @PostMapping("/artists")
@@ -129,6 +132,21 @@ public class AdminCatalogMasterController {
                 .body(ApiResponseDto.success("Edición especial de vinilo creada exitosamente", response));
     }
 
+    @PostMapping("/reference-data/reload")
+    @Operation(summary = "Reload reference data", description = "Reload statuses, payment methods, types, currencies and countries from the database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reference data reloaded successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    public ResponseEntity<ApiResponseDto<ReloadReferenceDataResponseDto>> reloadReferenceData() {
+        int entriesLoaded = referenceDataRegistry.reload();
+        ReloadReferenceDataResponseDto response = new ReloadReferenceDataResponseDto(entriesLoaded,
+                LocalDateTime.now());
+
+        return ResponseEntity.ok(ApiResponseDto.success("Datos de referencia recargados exitosamente", response));
+    }
+
     /**
      * Get current user ID from authentication
      */
@@ -0,0 +1,57 @@
+package usac.cunoc.bpmn.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import usac.cunoc.bpmn.service.InvoicePdfService;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Admin invoice controller for bulk invoice exports
+ */
+@RestController
+@RequestMapping("/api/v1/admin/orders/invoices")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMINISTRADOR')")
+@Tag(name = "Admin Invoices", description = "Administrative invoice operations")
+public class AdminInvoiceController {
+
+        private final InvoicePdfService invoicePdfService;
+
+        @GetMapping("/export")
+        @Operation(summary = "Export invoice PDFs", description = "Stream a ZIP with the PDF of every invoice issued in the given period")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Invoice ZIP streamed successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+        })
+        public void exportInvoices(
+                        @Parameter(description = "First issue date", example = "2024-01-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+                        @Parameter(description = "Last issue date", example = "2024-01-31") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+                        HttpServletResponse response) throws IOException {
+
+                if (startDate.isAfter(endDate)) {
+                        throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+                }
+
+                response.setContentType("application/zip");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("facturas_" + startDate + "_" + endDate + ".zip")
+                                .build()
+                                .toString());
+                invoicePdfService.writeInvoicesZip(startDate, endDate, response.getOutputStream());
+        }
+}
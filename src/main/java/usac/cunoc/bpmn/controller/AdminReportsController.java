@@ -142,4 +142,21 @@ public class AdminReportsController {
                 return ResponseEntity.ok(
                                 ApiResponseDto.success("Reporte de alertas de stock generado exitosamente", response));
         }
+
+        @PostMapping("/sales/rollup")
+        @Operation(summary = "Rebuild daily sales rollup", description = "Recompute the daily sales rollup behind the sales report from the delivered orders of the given period")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Daily sales rollup rebuilt successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+        })
+        public ResponseEntity<ApiResponseDto<Integer>> refreshDailySales(
+                        @Parameter(description = "First day to rebuild", example = "2024-01-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+                        @Parameter(description = "Last day to rebuild", example = "2024-12-31") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+                int rows = adminReportsService.refreshDailySales(startDate, endDate);
+                return ResponseEntity.ok(ApiResponseDto.success("Resumen diario de ventas reconstruido exitosamente", rows));
+        }
 }
\ No newline at end of file
@@ -90,6 +90,24 @@ public class CartController {
                 return ResponseEntity.ok(ApiResponseDto.success("Cantidad actualizada exitosamente", response));
         }
 
+        @Operation(summary = "Batch update cart items", description = "Apply several add, update and remove operations to the cart atomically")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Cart updated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid operation or insufficient stock"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @ApiResponse(responseCode = "404", description = "Article not found")
+        })
+        @PatchMapping("/items")
+        public ResponseEntity<ApiResponseDto<CartResponseDto>> batchUpdateCartItems(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @Valid @RequestBody BatchCartItemsRequestDto request) {
+
+                Integer userId = getUserIdFromUserDetails(userDetails);
+                CartResponseDto response = cartService.applyCartItemsBatch(userId, request);
+
+                return ResponseEntity.ok(ApiResponseDto.success("Carrito actualizado exitosamente", response));
+        }
+
         @Operation(summary = "Remove item from cart", description = "Remove an item from the shopping cart")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Item removed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))),
@@ -123,6 +141,21 @@ public class CartController {
                 return ResponseEntity.ok(ApiResponseDto.success("Carrito vaciado exitosamente"));
         }
 
+        @Operation(summary = "Preview best CD promotion", description = "Find the CD promotion that lowers the cart total the most, without applying it")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Preview generated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        @GetMapping("/cd-promotion-preview")
+        public ResponseEntity<ApiResponseDto<PromotionPreviewResponseDto>> previewBestCdPromotion(
+                        @AuthenticationPrincipal UserDetails userDetails) {
+
+                Integer userId = getUserIdFromUserDetails(userDetails);
+                PromotionPreviewResponseDto response = cartService.previewBestCdPromotion(userId);
+
+                return ResponseEntity.ok(ApiResponseDto.success("Vista previa de promoción generada", response));
+        }
+
         @Operation(summary = "Apply CD promotion", description = "Apply a CD promotion to selected cart items")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Promotion applied successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))),
@@ -1,7 +1,10 @@
 package usac.cunoc.bpmn.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -36,7 +39,7 @@ public class CatalogController {
 
                         @Parameter(description = "Items per page (use 0 for all)", example = "12") @RequestParam(defaultValue = "12") Integer limit,
 
-                        @Parameter(description = "Search term for title or artist name", example = "Beatles") @RequestParam(required = false) String search,
+                        @Parameter(description = "Search term matched against title, artist, genre and description (prefix and typo tolerant)", example = "Beatles") @RequestParam(required = false) String search,
 
                         @Parameter(description = "Filter by music genre ID", example = "1") @RequestParam(required = false) Integer genreId,
 
@@ -48,9 +51,11 @@ public class CatalogController {
 
                         @Parameter(description = "Filter by article type: vinyl, cassette, or cd", example = "vinyl") @RequestParam(required = false) String type,
 
-                        @Parameter(description = "Sort criteria: price_asc, price_desc, rating, popular, name_asc, name_desc", example = "price_asc") @RequestParam(required = false) String sortBy,
+                        @Parameter(description = "Sort criteria: relevance (default when searching), price_asc, price_desc, rating, popular, name_asc, name_desc", example = "price_asc") @RequestParam(required = false) String sortBy,
 
-                        @Parameter(description = "Filter by availability status", example = "true") @RequestParam(required = false) Boolean availability) {
+                        @Parameter(description = "Only articles in stock when true", example = "true") @RequestParam(required = false) Boolean availability,
+
+                        @Parameter(description = "Keyset pagination cursor (send empty for the first page, then pagination.next_cursor). Supports newest, price_asc, price_desc and popular sorting; page is ignored") @RequestParam(required = false) String cursor) {
 
                 // Validate article type parameter
                 if (type != null && !type.trim().isEmpty() && !ArticleType.isValidCode(type)) {
@@ -60,7 +65,8 @@ public class CatalogController {
                 }
 
                 CatalogArticlesResponseDto articles = catalogService.getArticles(
-                                page, limit, search, genreId, artistId, minPrice, maxPrice, type, sortBy, availability);
+                                page, limit, search, genreId, artistId, minPrice, maxPrice, type, sortBy, availability,
+                                cursor);
 
                 return ResponseEntity.ok(ApiResponseDto.success(articles));
         }
@@ -68,13 +74,14 @@ public class CatalogController {
         @GetMapping("/articles/{id}")
         @Operation(summary = "Get article details", description = "Get detailed information about a specific article including type-specific details")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Article details retrieved successfully"),
+                        @ApiResponse(responseCode = "200", description = "Article details retrieved successfully", content = @Content(schema = @Schema(implementation = ArticleDetailResponseDto.class))),
                         @ApiResponse(responseCode = "404", description = "Article not found")
         })
-        public ResponseEntity<ApiResponseDto<ArticleDetailResponseDto>> getArticleById(
+        public ResponseEntity<ApiResponseDto<RawValue>> getArticleById(
                         @Parameter(description = "Article ID", example = "1") @PathVariable Integer id) {
 
-                ArticleDetailResponseDto article = catalogService.getArticleById(id);
+                // Served from pre-serialized JSON so hot product pages skip mapping and serialization
+                RawValue article = catalogService.getArticleDetailJson(id);
                 return ResponseEntity.ok(ApiResponseDto.success(article));
         }
 
@@ -116,10 +116,11 @@ public class EventController {
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             @Parameter(description = "Get messages since this timestamp") LocalDateTime since,
+            @RequestParam(required = false) @Parameter(description = "Keyset pagination cursor (send empty for the first page, then pagination.next_cursor); page is ignored") String cursor,
             Authentication authentication) {
 
         Integer userId = getCurrentUserId(authentication);
-        EventChatResponseDto chat = eventService.getEventChat(id, page, limit, since, userId);
+        EventChatResponseDto chat = eventService.getEventChat(id, page, limit, since, userId, cursor);
         return ResponseEntity.ok(ApiResponseDto.success(chat));
     }
 
@@ -46,10 +46,12 @@ public class NotificationController {
 
             @Parameter(description = "Filter by unread status (true=unread only, false=read only, null=all)", example = "true") @RequestParam(required = false) Boolean unread,
 
+            @Parameter(description = "Keyset pagination cursor (send empty for the first page, then pagination.next_cursor); page is ignored") @RequestParam(required = false) String cursor,
+
             Authentication authentication) {
 
         Integer userId = getCurrentUserId(authentication);
-        NotificationListResponseDto response = notificationService.getUserNotifications(userId, page, limit, unread);
+        NotificationListResponseDto response = notificationService.getUserNotifications(userId, page, limit, unread, cursor);
 
         return ResponseEntity.ok(ApiResponseDto.success(response));
     }
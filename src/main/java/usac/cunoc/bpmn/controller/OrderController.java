@@ -5,9 +5,13 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,7 +20,9 @@ import usac.cunoc.bpmn.dto.common.ApiResponseDto;
 import usac.cunoc.bpmn.dto.order.*;
 import usac.cunoc.bpmn.entity.User;
 import usac.cunoc.bpmn.repository.UserRepository;
+import usac.cunoc.bpmn.service.InvoicePdfService;
 import usac.cunoc.bpmn.service.OrderService;
+import java.io.IOException;
 
 /**
  * Order controller for order operations - matches PDF specification exactly
@@ -28,6 +34,7 @@ import usac.cunoc.bpmn.service.OrderService;
 public class OrderController {
 
     private final OrderService orderService;
+    private final InvoicePdfService invoicePdfService;
     private final UserRepository userRepository;
 
     @PostMapping
@@ -40,10 +47,11 @@ public class OrderController {
     })
     public ResponseEntity<ApiResponseDto<CreateOrderResponseDto>> createOrder(
             @Valid @RequestBody CreateOrderRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) @Parameter(description = "Client key of the checkout attempt; retries with the same key return the same order") String idempotencyKey,
             Authentication authentication) {
 
         Integer userId = getCurrentUserId(authentication);
-        CreateOrderResponseDto response = orderService.createOrder(request, userId);
+        CreateOrderResponseDto response = orderService.createOrder(request, userId, idempotencyKey);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponseDto.success("Orden creada exitosamente", response));
@@ -60,10 +68,11 @@ public class OrderController {
             @RequestParam(defaultValue = "1") @Parameter(description = "Page number") Integer page,
             @RequestParam(defaultValue = "10") @Parameter(description = "Items per page") Integer limit,
             @RequestParam(required = false) @Parameter(description = "Filter by order status") String status,
+            @RequestParam(required = false) @Parameter(description = "Keyset pagination cursor (send empty for the first page, then pagination.next_cursor); page is ignored") String cursor,
             Authentication authentication) {
 
         Integer userId = getCurrentUserId(authentication);
-        OrderListResponseDto response = orderService.getUserOrders(page, limit, status, userId);
+        OrderListResponseDto response = orderService.getUserOrders(page, limit, status, userId, cursor);
 
         return ResponseEntity.ok(ApiResponseDto.success(response));
     }
@@ -122,6 +131,29 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponseDto.success(response));
     }
 
+    @GetMapping("/{id}/invoice.pdf")
+    @Operation(summary = "Download order invoice PDF", description = "Stream the invoice of an order as a PDF document")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoice PDF streamed successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Order not found or access denied")
+    })
+    public void downloadOrderInvoicePdf(
+            @PathVariable @Parameter(description = "Order ID") Integer id,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+
+        Integer userId = getCurrentUserId(authentication);
+        OrderInvoiceResponseDto invoice = orderService.getOrderInvoice(id, userId);
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(invoice.getInvoice_number() + ".pdf")
+                .build()
+                .toString());
+        invoicePdfService.writeInvoicePdf(invoice.getId(), response.getOutputStream());
+    }
+
     /**
      * Get current user ID from authentication
      */
@@ -1,18 +1,20 @@
 package usac.cunoc.bpmn.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import usac.cunoc.bpmn.dto.common.ApiResponseDto;
+import usac.cunoc.bpmn.dto.payment.PaymentStatusResponseDto;
 import usac.cunoc.bpmn.dto.payment.ProcessPaymentRequestDto;
-import usac.cunoc.bpmn.dto.payment.ProcessPaymentResponseDto;
 import usac.cunoc.bpmn.entity.User;
 import usac.cunoc.bpmn.repository.UserRepository;
 import usac.cunoc.bpmn.service.PaymentService;
@@ -30,22 +32,40 @@ public class PaymentController {
     private final UserRepository userRepository;
 
     @PostMapping("/process")
-    @Operation(summary = "Process payment", description = "Process payment for an order and generate invoice")
+    @Operation(summary = "Process payment", description = "Accept payment for an order; it is charged and invoiced asynchronously, poll status_url for the result")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Payment processed successfully"),
+            @ApiResponse(responseCode = "202", description = "Payment accepted for processing"),
             @ApiResponse(responseCode = "400", description = "Invalid payment data"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "404", description = "Order or payment method not found"),
             @ApiResponse(responseCode = "409", description = "Payment already processed")
     })
-    public ResponseEntity<ApiResponseDto<ProcessPaymentResponseDto>> processPayment(
+    public ResponseEntity<ApiResponseDto<PaymentStatusResponseDto>> processPayment(
             @Valid @RequestBody ProcessPaymentRequestDto request,
             Authentication authentication) {
 
         Integer userId = getCurrentUserId(authentication);
-        ProcessPaymentResponseDto response = paymentService.processPayment(request, userId);
+        PaymentStatusResponseDto response = paymentService.processPayment(request, userId);
 
-        return ResponseEntity.ok(ApiResponseDto.success("Pago procesado exitosamente", response));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponseDto.success("Pago recibido, en proceso", response));
+    }
+
+    @GetMapping("/{paymentNumber}")
+    @Operation(summary = "Get payment status", description = "Get the processing state of a payment, with its invoice once settled")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment status retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Payment not found or access denied")
+    })
+    public ResponseEntity<ApiResponseDto<PaymentStatusResponseDto>> getPaymentStatus(
+            @PathVariable @Parameter(description = "Payment number") String paymentNumber,
+            Authentication authentication) {
+
+        Integer userId = getCurrentUserId(authentication);
+        PaymentStatusResponseDto response = paymentService.getPaymentStatus(paymentNumber, userId);
+
+        return ResponseEntity.ok(ApiResponseDto.success(response));
     }
 
     /**
@@ -0,0 +1,25 @@
+package usac.cunoc.bpmn.dto.admin.catalog.master;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Reload reference data response DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response when reloading the reference data registry")
+public class ReloadReferenceDataResponseDto {
+
+    @Schema(description = "Number of reference entries loaded", example = "42")
+    private Integer entries_loaded;
+
+    @Schema(description = "Reload timestamp", example = "2025-01-15T10:30:00")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime reloaded_at;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,6 +26,9 @@ public class InventoryResponseDto {
     @Schema(description = "Inventory breakdown by music genre")
     private List<GenreInventoryDto> by_genre;
 
+    @Schema(description = "Time the report was computed; cached reports keep their original time", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -29,6 +30,9 @@ public class SalesReportResponseDto {
     @Schema(description = "Sales breakdown by article type")
     private List<TypeSalesDto> sales_by_type;
 
+    @Schema(description = "Time the report was computed; cached reports keep their original time", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
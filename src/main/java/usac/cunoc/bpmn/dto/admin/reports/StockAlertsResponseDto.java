@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,6 +19,9 @@ public class StockAlertsResponseDto {
     @Schema(description = "List of articles with low stock or out of stock")
     private List<StockAlertDto> alerts;
 
+    @Schema(description = "Time the report was computed; cached reports keep their original time", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,6 +23,9 @@ public class TopArticlesResponseDto {
     @Schema(description = "List of top selling articles")
     private List<TopArticleDto> topArticles;
 
+    @Schema(description = "Time the report was computed; cached reports keep their original time", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -23,6 +23,9 @@ public class TopCustomersResponseDto {
     @Schema(description = "List of top customers")
     private List<TopCustomerDto> topCustomers;
 
+    @Schema(description = "Time the report was computed; cached reports keep their original time", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,50 @@
+package usac.cunoc.bpmn.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Request DTO for applying several cart item changes in a single atomic batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of cart item operations applied atomically and in order")
+public class BatchCartItemsRequestDto {
+
+    @Valid
+    @NotEmpty(message = "Operations list cannot be empty")
+    @Size(max = 100, message = "A batch can contain at most 100 operations")
+    @Schema(description = "Operations to apply, in order", required = true)
+    private List<CartItemOperationDto> operations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Single cart item operation")
+    public static class CartItemOperationDto {
+
+        @NotNull(message = "Action is required")
+        @Pattern(regexp = "add|update|remove", message = "Action must be add, update or remove")
+        @Schema(description = "Operation: add increments the quantity, update sets it, remove deletes the item", example = "add", allowableValues = {
+                "add", "update", "remove" }, required = true)
+        private String action;
+
+        @NotNull(message = "Article ID is required")
+        @Schema(description = "Article ID", example = "1", required = true)
+        private Integer article_id;
+
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Schema(description = "Quantity to add or set (ignored for remove)", example = "2")
+        private Integer quantity;
+    }
+}
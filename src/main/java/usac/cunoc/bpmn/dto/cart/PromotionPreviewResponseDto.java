@@ -0,0 +1,36 @@
+package usac.cunoc.bpmn.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for the best CD promotion preview - nothing is applied to the cart
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Best CD promotion for the cart, without applying it")
+public class PromotionPreviewResponseDto {
+
+    @Schema(description = "Best promotion ID, null if no promotion improves the cart", example = "2")
+    private Integer promotion_id;
+
+    @Schema(description = "Best promotion name", example = "Liquidación Aleatoria")
+    private String promotion_name;
+
+    @Schema(description = "Article IDs to send to apply-cd-promotion", example = "[8, 9]")
+    private List<Integer> article_ids;
+
+    @Schema(description = "Cart item IDs the promotion would apply to", example = "[15, 16]")
+    private List<Integer> applied_to_items;
+
+    @Schema(description = "Total discount of those items with the promotion", example = "8.99")
+    private BigDecimal total_discount;
+
+    @Schema(description = "Cart total after applying the promotion", example = "80.98")
+    private BigDecimal new_cart_total;
+}
@@ -38,6 +38,9 @@ public class ArticleCommentDto {
     @Schema(description = "List of replies")
     private List<ArticleCommentDto> replies;
 
+    @Schema(description = "Total visible direct replies (replies may be truncated by depth/reply limits)", example = "3")
+    private Integer total_replies;
+
     @Schema(description = "Comment creation date")
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime created_at;
@@ -81,7 +81,7 @@ public class ArticleDetailResponseDto {
     private LocalDate pre_order_end_date;
 
     @Schema(description = "Type-specific details")
-    private Object type_details;
+    private ArticleTypeDetailsDto type_details;
 
     @Data
     @NoArgsConstructor
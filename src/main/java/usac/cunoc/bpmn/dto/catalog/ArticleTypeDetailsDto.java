@@ -0,0 +1,65 @@
+package usac.cunoc.bpmn.dto.catalog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+
+/**
+ * Format-specific article details. One record per article format; property
+ * names match the public type_details contract of the article detail endpoint
+ */
+@Schema(description = "Type-specific details", oneOf = {
+        ArticleTypeDetailsDto.VinylDetails.class,
+        ArticleTypeDetailsDto.CassetteDetails.class,
+        ArticleTypeDetailsDto.CdDetails.class })
+public sealed interface ArticleTypeDetailsDto {
+
+    @Schema(description = "Vinyl details")
+    record VinylDetails(
+            @Schema(description = "Revolutions per minute", example = "33") Integer rpm,
+            @Schema(description = "Is limited edition", example = "false") Boolean isLimitedEdition,
+            @Schema(description = "Remaining limited edition stock", example = "50") Integer remainingLimitedStock,
+            @JsonInclude(JsonInclude.Include.NON_NULL) VinylCategoryInfo category,
+            @JsonInclude(JsonInclude.Include.NON_NULL) SpecialEditionInfo specialEdition)
+            implements ArticleTypeDetailsDto {
+    }
+
+    @Schema(description = "Vinyl category")
+    record VinylCategoryInfo(
+            @Schema(description = "Category ID", example = "3") Integer id,
+            @Schema(description = "Vinyl size", example = "12 pulgadas") String size,
+            @Schema(description = "Category description") String description) {
+    }
+
+    @Schema(description = "Vinyl special edition")
+    record SpecialEditionInfo(
+            @Schema(description = "Special edition ID", example = "1") Integer id,
+            @Schema(description = "Special edition name", example = "Edicion Estandar") String name,
+            @Schema(description = "Vinyl color", example = "Negro") String color,
+            @Schema(description = "Material description") String materialDescription) {
+    }
+
+    @Schema(description = "Cassette details")
+    record CassetteDetails(
+            @Schema(description = "Tape brand", example = "TDK") String brand,
+            @Schema(description = "Is chrome tape", example = "false") Boolean isChromeTape,
+            @JsonInclude(JsonInclude.Include.NON_NULL) CassetteCategoryInfo category)
+            implements ArticleTypeDetailsDto {
+    }
+
+    @Schema(description = "Cassette category")
+    record CassetteCategoryInfo(
+            @Schema(description = "Category ID", example = "1") Integer id,
+            @Schema(description = "Category name", example = "Nuevo") String name,
+            @Schema(description = "Discount percentage", example = "0.00") BigDecimal discountPercentage,
+            @Schema(description = "Category description") String description) {
+    }
+
+    @Schema(description = "CD details")
+    record CdDetails(
+            @Schema(description = "Number of discs", example = "1") Integer discCount,
+            @Schema(description = "Has bonus content", example = "true") Boolean hasBonusContent,
+            @Schema(description = "Is remastered", example = "true") Boolean isRemastered)
+            implements ArticleTypeDetailsDto {
+    }
+}
@@ -37,6 +37,9 @@ public class CatalogArticlesResponseDto {
         @Schema(description = "Available artists")
         private List<ArtistFilterDto> artists;
 
+        @Schema(description = "Available article types")
+        private List<TypeFilterDto> types;
+
         @Schema(description = "Price range")
         private PriceRangeDto price_range;
     }
@@ -51,6 +54,9 @@ public class CatalogArticlesResponseDto {
 
         @Schema(description = "Genre name", example = "Rock")
         private String name;
+
+        @Schema(description = "Available articles in this genre", example = "12")
+        private Long article_count;
     }
 
     @Data
@@ -63,6 +69,24 @@ public class CatalogArticlesResponseDto {
 
         @Schema(description = "Artist name", example = "The Beatles")
         private String name;
+
+        @Schema(description = "Available articles by this artist", example = "4")
+        private Long article_count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Article type filter option")
+    public static class TypeFilterDto {
+        @Schema(description = "Type code", example = "vinyl")
+        private String code;
+
+        @Schema(description = "Type name", example = "Vinilo")
+        private String name;
+
+        @Schema(description = "Available articles of this type", example = "20")
+        private Long article_count;
     }
 
     @Data
@@ -1,5 +1,6 @@
 package usac.cunoc.bpmn.dto.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,22 +8,42 @@ import lombok.NoArgsConstructor;
 
 /**
  * Common pagination DTO - reusable across all paginated responses
+ * Offset mode fills page/total fields; cursor mode fills next_cursor/has_more
+ * and skips the total count
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Pagination information")
 public class PaginationDto {
 
-    @Schema(description = "Current page number", example = "1")
+    @Schema(description = "Current page number (offset mode)", example = "1")
     private Integer current_page;
 
-    @Schema(description = "Total number of pages", example = "10")
+    @Schema(description = "Total number of pages (offset mode)", example = "10")
     private Integer total_pages;
 
-    @Schema(description = "Total number of items", example = "95")
+    @Schema(description = "Total number of items (offset mode)", example = "95")
     private Integer total_items;
 
     @Schema(description = "Items per page", example = "10")
     private Integer items_per_page;
-}
\ No newline at end of file
+
+    @Schema(description = "Opaque cursor for the next page (cursor mode, null on the last page)", example = "bmV3ZXN0fDIwMjUtMDEtMTVUMTA6MzA6MDB8NDI")
+    private String next_cursor;
+
+    @Schema(description = "Whether more items are available (cursor mode)", example = "true")
+    private Boolean has_more;
+
+    public PaginationDto(Integer current_page, Integer total_pages, Integer total_items, Integer items_per_page) {
+        this(current_page, total_pages, total_items, items_per_page, null, null);
+    }
+
+    /**
+     * Build pagination info for a keyset (cursor) page
+     */
+    public static PaginationDto ofCursor(Integer itemsPerPage, String nextCursor) {
+        return new PaginationDto(null, null, null, itemsPerPage, nextCursor, nextCursor != null);
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import usac.cunoc.bpmn.dto.common.PaginationDto;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -57,22 +58,4 @@ public class EventChatResponseDto {
         @Schema(description = "Username", example = "johndoe")
         private String username;
     }
-
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Schema(description = "Pagination information")
-    public static class PaginationDto {
-        @Schema(description = "Current page number", example = "1")
-        private Integer current_page;
-
-        @Schema(description = "Total number of pages", example = "3")
-        private Integer total_pages;
-
-        @Schema(description = "Total number of items", example = "25")
-        private Integer total_items;
-
-        @Schema(description = "Items per page", example = "10")
-        private Integer items_per_page;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package usac.cunoc.bpmn.dto.payment;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import usac.cunoc.bpmn.dto.common.CurrencyDto;
+import usac.cunoc.bpmn.dto.common.StatusDto;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the state of an accepted payment - returned when the payment is
+ * accepted and by the status endpoint while it is settled
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Payment processing state")
+public class PaymentStatusResponseDto {
+
+    @Schema(description = "Payment number", example = "PAY-20250908142530-ABC123")
+    private String payment_number;
+
+    @Schema(description = "Order ID", example = "1")
+    private Integer order_id;
+
+    @Schema(description = "Order number", example = "ORD-20250908142530-DEF456")
+    private String order_number;
+
+    @Schema(description = "Payment status")
+    private StatusDto status;
+
+    @Schema(description = "Settlement state", example = "pendiente", allowableValues = { "pendiente", "completado", "fallido" })
+    private String processing_status;
+
+    @Schema(description = "Payment amount", example = "150.75")
+    private BigDecimal amount;
+
+    @Schema(description = "Currency information")
+    private CurrencyDto currency;
+
+    @Schema(description = "Reason of the last settlement failure", example = "No hay stock suficiente")
+    private String failure_reason;
+
+    @Schema(description = "Settlement timestamp")
+    private LocalDateTime processed_at;
+
+    @Schema(description = "URL to poll for the payment state", example = "/api/v1/payments/PAY-20250908142530-ABC123")
+    private String status_url;
+
+    @Schema(description = "Invoice details, present once the payment is settled")
+    private ProcessPaymentResponseDto invoice;
+}
@@ -88,6 +88,25 @@ public class AnalogArticle {
     @Column(name = "total_ratings")
     private Integer totalRatings = 0;
 
+    // Rating counters maintained by the update_article_rating trigger (read-only here)
+    @Column(name = "rating_sum", insertable = false, updatable = false)
+    private Integer ratingSum;
+
+    @Column(name = "rating_count_1", insertable = false, updatable = false)
+    private Integer ratingCount1;
+
+    @Column(name = "rating_count_2", insertable = false, updatable = false)
+    private Integer ratingCount2;
+
+    @Column(name = "rating_count_3", insertable = false, updatable = false)
+    private Integer ratingCount3;
+
+    @Column(name = "rating_count_4", insertable = false, updatable = false)
+    private Integer ratingCount4;
+
+    @Column(name = "rating_count_5", insertable = false, updatable = false)
+    private Integer ratingCount5;
+
     @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
 
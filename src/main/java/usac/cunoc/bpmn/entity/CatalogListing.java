@@ -0,0 +1,86 @@
+package usac.cunoc.bpmn.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Catalog listing read model - one flat row per article for public browsing.
+ * Maintained by database triggers, never written by the application
+ */
+@Entity
+@Immutable
+@Table(name = "catalog_listing")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogListing {
+
+    @Id
+    @Column(name = "article_id")
+    private Integer id;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    @Column(name = "artist_id", nullable = false)
+    private Integer artistId;
+
+    @Column(name = "artist_name", length = 255)
+    private String artistName;
+
+    @Column(name = "music_genre_id", nullable = false)
+    private Integer genreId;
+
+    @Column(name = "genre_name", length = 100)
+    private String genreName;
+
+    @Column(name = "currency_id", nullable = false)
+    private Integer currencyId;
+
+    @Column(name = "currency_code", length = 3)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String currencyCode;
+
+    @Column(name = "currency_symbol", length = 10)
+    private String currencySymbol;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Column(name = "stock_quantity", nullable = false)
+    private Integer stockQuantity;
+
+    @Column(name = "is_available")
+    private Boolean isAvailable;
+
+    @Column(name = "is_preorder")
+    private Boolean isPreorder;
+
+    @Column(name = "average_rating", precision = 3, scale = 2)
+    private BigDecimal averageRating;
+
+    @Column(name = "total_ratings")
+    private Integer totalRatings;
+
+    @Column(name = "total_sold")
+    private Integer totalSold;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,19 @@
+package usac.cunoc.bpmn.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Settlement status of an accepted payment in the payment outbox
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PaymentOutboxStatus {
+
+    PENDING("pendiente", "Waiting for a settlement worker"),
+    DONE("completado", "Charged, invoiced and order moved to processing"),
+    FAILED("fallido", "Settlement gave up after its last attempt");
+
+    private final String code;
+    private final String description;
+}
@@ -0,0 +1,22 @@
+package usac.cunoc.bpmn.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admin reports served through the report cache
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ReportType {
+
+    SALES("sales", "Sales summary with period and type breakdowns"),
+    TOP_ARTICLES("top-articles", "Best selling articles of a period"),
+    TOP_CUSTOMERS("top-customers", "Customers with the highest spending"),
+    TOP_RATED("top-rated", "Articles with the highest average rating"),
+    INVENTORY("inventory", "Inventory status by type and genre"),
+    STOCK_ALERTS("stock-alerts", "Articles with low or no stock");
+
+    private final String code;
+    private final String description;
+}
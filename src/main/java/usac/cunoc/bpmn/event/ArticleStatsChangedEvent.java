@@ -0,0 +1,17 @@
+package usac.cunoc.bpmn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when trigger-maintained article figures change (stock through
+ * stock movements, rating stats through article ratings). Unlike
+ * {@link CatalogChangedEvent} it only affects the cached detail of one article
+ * and the catalog facets.
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleStatsChangedEvent {
+
+    private final Integer articleId;
+}
@@ -0,0 +1,20 @@
+package usac.cunoc.bpmn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever catalog data visible to customers changes (articles,
+ * artists or genres). Listeners use it to invalidate derived caches once the
+ * surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogChangedEvent {
+
+    /**
+     * Affected article ID, or null when the change is not tied to a single
+     * article (e.g. an artist or genre was modified)
+     */
+    private final Integer articleId;
+}
@@ -0,0 +1,19 @@
+package usac.cunoc.bpmn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a CD promotion or its article list is created, updated
+ * or deleted. Listeners rebuild promotion-derived data once the surrounding
+ * transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class PromotionChangedEvent {
+
+    /**
+     * Affected promotion ID
+     */
+    private final Integer promotionId;
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.AnalogArticle;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,50 +16,40 @@ import java.util.List;
 public interface AdminReportsRepository extends JpaRepository<AnalogArticle, Integer> {
 
     /**
-     * Get sales report summary for a period
+     * Get sales report summary for a period, from the daily sales rollup
      */
     @Query(value = """
             SELECT
-                COALESCE(SUM(o.total_amount), 0) as totalSales,
-                COALESCE(COUNT(DISTINCT o.id), 0) as totalOrders,
+                COALESCE(SUM(f.order_total), 0) as totalSales,
+                COALESCE(SUM(f.order_count), 0) as totalOrders,
                 CASE
-                    WHEN COUNT(DISTINCT o.id) > 0 THEN COALESCE(SUM(o.total_amount), 0) / COUNT(DISTINCT o.id)
+                    WHEN SUM(f.order_count) > 0 THEN SUM(f.order_total) / SUM(f.order_count)
                     ELSE 0
                 END as averageOrderValue,
-                COALESCE(SUM(oi.quantity), 0) as totalItems
-            FROM "order" o
-            LEFT JOIN order_item oi ON o.id = oi.order_id
-            WHERE o.order_status_id = 4
-            AND o.created_at BETWEEN :startDate AND :endDate
+                COALESCE(SUM(f.items_sold), 0) as totalItems
+            FROM daily_sales_fact f
+            WHERE f.sale_date BETWEEN CAST(:startDate AS DATE) AND CAST(:endDate AS DATE)
             """, nativeQuery = true)
     Object[] getSalesReportSummary(@Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Get sales by period (daily, weekly, monthly)
+     * Get sales by period (daily, weekly, monthly), from the daily sales rollup
      */
     @Query(value = """
             SELECT
                 CASE
-                    WHEN :groupBy = 'daily' THEN TO_CHAR(o.created_at, 'YYYY-MM-DD')
-                    WHEN :groupBy = 'weekly' THEN TO_CHAR(DATE_TRUNC('week', o.created_at), 'YYYY-MM-DD')
-                    WHEN :groupBy = 'monthly' THEN TO_CHAR(DATE_TRUNC('month', o.created_at), 'YYYY-MM-DD')
-                    ELSE TO_CHAR(o.created_at, 'YYYY-MM-DD')
+                    WHEN :groupBy = 'daily' THEN TO_CHAR(f.sale_date, 'YYYY-MM-DD')
+                    WHEN :groupBy = 'weekly' THEN TO_CHAR(DATE_TRUNC('week', f.sale_date), 'YYYY-MM-DD')
+                    WHEN :groupBy = 'monthly' THEN TO_CHAR(DATE_TRUNC('month', f.sale_date), 'YYYY-MM-DD')
+                    ELSE TO_CHAR(f.sale_date, 'YYYY-MM-DD')
                 END as period,
-                COALESCE(SUM(o.total_amount), 0) as totalSales,
-                COALESCE(COUNT(DISTINCT o.id), 0) as totalOrders,
-                COALESCE(SUM(oi.quantity), 0) as totalItems
-            FROM "order" o
-            LEFT JOIN order_item oi ON o.id = oi.order_id
-            WHERE o.order_status_id = 4
-            AND o.created_at BETWEEN :startDate AND :endDate
-            GROUP BY
-                CASE
-                    WHEN :groupBy = 'daily' THEN TO_CHAR(o.created_at, 'YYYY-MM-DD')
-                    WHEN :groupBy = 'weekly' THEN TO_CHAR(DATE_TRUNC('week', o.created_at), 'YYYY-MM-DD')
-                    WHEN :groupBy = 'monthly' THEN TO_CHAR(DATE_TRUNC('month', o.created_at), 'YYYY-MM-DD')
-                    ELSE TO_CHAR(o.created_at, 'YYYY-MM-DD')
-                END
+                COALESCE(SUM(f.order_total), 0) as totalSales,
+                COALESCE(SUM(f.order_count), 0) as totalOrders,
+                COALESCE(SUM(f.items_sold), 0) as totalItems
+            FROM daily_sales_fact f
+            WHERE f.sale_date BETWEEN CAST(:startDate AS DATE) AND CAST(:endDate AS DATE)
+            GROUP BY period
             ORDER BY period
             """, nativeQuery = true)
     List<Object[]> getSalesByPeriod(@Param("startDate") LocalDateTime startDate,
@@ -66,48 +57,38 @@ public interface AdminReportsRepository extends JpaRepository<AnalogArticle, Int
             @Param("groupBy") String groupBy);
 
     /**
-     * Get sales by article type
+     * Get sales by article type, from the daily sales rollup. The percentage
+     * is taken over the order totals of the period
      */
     @Query(value = """
             SELECT
-                CASE
-                    WHEN v.id IS NOT NULL THEN 'vinyl'
-                    WHEN c.id IS NOT NULL THEN 'cassette'
-                    WHEN cd.id IS NOT NULL THEN 'cd'
-                    ELSE 'unknown'
-                END as type,
-                COALESCE(SUM(oi.total_price), 0) as totalSales,
-                COALESCE(COUNT(DISTINCT o.id), 0) as totalOrders,
+                f.article_type as type,
+                COALESCE(SUM(f.item_sales), 0) as totalSales,
+                COALESCE(SUM(f.type_order_count), 0) as totalOrders,
                 ROUND(
                     CASE
-                        WHEN (SELECT SUM(o2.total_amount) FROM "order" o2 WHERE o2.order_status_id = 4
-                              AND o2.created_at BETWEEN :startDate AND :endDate) > 0
-                        THEN (COALESCE(SUM(oi.total_price), 0) * 100.0 /
-                              (SELECT SUM(o2.total_amount) FROM "order" o2 WHERE o2.order_status_id = 4
-                               AND o2.created_at BETWEEN :startDate AND :endDate))
+                        WHEN SUM(SUM(f.order_total)) OVER () > 0
+                        THEN SUM(f.item_sales) * 100.0 / SUM(SUM(f.order_total)) OVER ()
                         ELSE 0
                     END, 2
                 ) as percentage
-            FROM "order" o
-            JOIN order_item oi ON o.id = oi.order_id
-            JOIN analog_article aa ON oi.analog_article_id = aa.id
-            LEFT JOIN vinyl v ON aa.id = v.analog_article_id
-            LEFT JOIN cassette c ON aa.id = c.analog_article_id
-            LEFT JOIN cd ON aa.id = cd.analog_article_id
-            WHERE o.order_status_id = 4
-            AND o.created_at BETWEEN :startDate AND :endDate
-            GROUP BY
-                CASE
-                    WHEN v.id IS NOT NULL THEN 'vinyl'
-                    WHEN c.id IS NOT NULL THEN 'cassette'
-                    WHEN cd.id IS NOT NULL THEN 'cd'
-                    ELSE 'unknown'
-                END
+            FROM daily_sales_fact f
+            WHERE f.sale_date BETWEEN CAST(:startDate AS DATE) AND CAST(:endDate AS DATE)
+            GROUP BY f.article_type
+            HAVING SUM(f.items_sold) > 0
             ORDER BY totalSales DESC
             """, nativeQuery = true)
     List<Object[]> getSalesByType(@Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Rebuild the daily sales rollup for a range of days
+     *
+     * @return Number of rollup rows written
+     */
+    @Query(value = "SELECT refresh_daily_sales_fact(:fromDate, :toDate)", nativeQuery = true)
+    Integer refreshDailySalesFact(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
     /**
      * Get top selling articles
      */
@@ -134,7 +115,7 @@ public interface AdminReportsRepository extends JpaRepository<AnalogArticle, Int
             JOIN order_item oi ON aa.id = oi.analog_article_id
             JOIN "order" o ON oi.order_id = o.id
             WHERE o.order_status_id = 4
-            AND o.created_at >= CURRENT_DATE - INTERVAL ':periodDays days'
+            AND o.created_at >= CURRENT_DATE - :periodDays * INTERVAL '1 day'
             GROUP BY aa.id, aa.title, ar.name, aa.image_url, aa.average_rating, v.id, c.id, cd.id
             HAVING SUM(oi.quantity) > 0
             ORDER BY SUM(oi.quantity) DESC, SUM(oi.total_price) DESC
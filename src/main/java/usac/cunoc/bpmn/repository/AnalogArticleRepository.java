@@ -8,6 +8,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.AnalogArticle;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -100,6 +102,62 @@ public interface AnalogArticleRepository extends JpaRepository<AnalogArticle, In
                         @Param("maxPrice") BigDecimal maxPrice,
                         Pageable pageable);
 
+        /**
+         * Ranked full-text search over the indexed article search document
+         * (title, artist, genre, description) with prefix and typo-tolerant
+         * matching. Ordering follows sortKey, with relevance as tie-breaker
+         */
+        @Query(value = """
+                        SELECT aa.* FROM analog_article aa
+                        WHERE aa.is_available = true
+                        AND (aa.search_vector @@ to_tsquery('simple', :tsQuery)
+                             OR aa.search_text %> :searchLower)
+                        AND (CAST(:genreId AS INTEGER) IS NULL OR aa.music_genre_id = :genreId)
+                        AND (CAST(:artistId AS INTEGER) IS NULL OR aa.artist_id = :artistId)
+                        AND (CAST(:minPrice AS NUMERIC) IS NULL OR aa.price >= :minPrice)
+                        AND (CAST(:maxPrice AS NUMERIC) IS NULL OR aa.price <= :maxPrice)
+                        AND (CAST(:type AS VARCHAR) IS NULL
+                             OR (:type = 'vinyl' AND EXISTS (SELECT 1 FROM vinyl v WHERE v.analog_article_id = aa.id))
+                             OR (:type = 'cassette' AND EXISTS (SELECT 1 FROM cassette c WHERE c.analog_article_id = aa.id))
+                             OR (:type = 'cd' AND EXISTS (SELECT 1 FROM cd WHERE cd.analog_article_id = aa.id)))
+                        AND (CAST(:inStockOnly AS BOOLEAN) IS NULL OR aa.stock_quantity > 0)
+                        ORDER BY
+                            CASE WHEN :sortKey = 'price_asc' THEN aa.price END ASC,
+                            CASE WHEN :sortKey = 'price_desc' THEN aa.price END DESC,
+                            CASE WHEN :sortKey = 'rating' THEN aa.average_rating END DESC,
+                            CASE WHEN :sortKey = 'popular' THEN aa.total_sold END DESC,
+                            CASE WHEN :sortKey = 'name_asc' THEN aa.title END ASC,
+                            CASE WHEN :sortKey = 'name_desc' THEN aa.title END DESC,
+                            ts_rank_cd(aa.search_vector, to_tsquery('simple', :tsQuery))
+                                + word_similarity(:searchLower, aa.search_text) DESC,
+                            aa.id DESC
+                        """, countQuery = """
+                        SELECT COUNT(*) FROM analog_article aa
+                        WHERE aa.is_available = true
+                        AND (aa.search_vector @@ to_tsquery('simple', :tsQuery)
+                             OR aa.search_text %> :searchLower)
+                        AND (CAST(:genreId AS INTEGER) IS NULL OR aa.music_genre_id = :genreId)
+                        AND (CAST(:artistId AS INTEGER) IS NULL OR aa.artist_id = :artistId)
+                        AND (CAST(:minPrice AS NUMERIC) IS NULL OR aa.price >= :minPrice)
+                        AND (CAST(:maxPrice AS NUMERIC) IS NULL OR aa.price <= :maxPrice)
+                        AND (CAST(:type AS VARCHAR) IS NULL
+                             OR (:type = 'vinyl' AND EXISTS (SELECT 1 FROM vinyl v WHERE v.analog_article_id = aa.id))
+                             OR (:type = 'cassette' AND EXISTS (SELECT 1 FROM cassette c WHERE c.analog_article_id = aa.id))
+                             OR (:type = 'cd' AND EXISTS (SELECT 1 FROM cd WHERE cd.analog_article_id = aa.id)))
+                        AND (CAST(:inStockOnly AS BOOLEAN) IS NULL OR aa.stock_quantity > 0)
+                        """, nativeQuery = true)
+        Page<AnalogArticle> searchArticles(
+                        @Param("tsQuery") String tsQuery,
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        @Param("sortKey") String sortKey,
+                        Pageable pageable);
+
         /**
          * Get all available articles (no filters)
          */
@@ -170,4 +228,51 @@ public interface AnalogArticleRepository extends JpaRepository<AnalogArticle, In
                         "LEFT JOIN FETCH aa.currency " +
                         "WHERE aa.id = :id")
         Optional<AnalogArticle> findByIdWithDetails(@Param("id") Integer id);
+
+        /**
+         * Load the full detail graph of an article in a single round trip:
+         * artist, genre, currency and whichever format subtype exists with its
+         * categories. Returns at most one row of [article, vinyl, cassette, cd]
+         * where the subtypes that don't apply are null
+         */
+        @Query("SELECT aa, v, c, cd FROM AnalogArticle aa " +
+                        "LEFT JOIN FETCH aa.artist " +
+                        "LEFT JOIN FETCH aa.musicGenre " +
+                        "LEFT JOIN FETCH aa.currency " +
+                        "LEFT JOIN Vinyl v ON v.analogArticle.id = aa.id " +
+                        "LEFT JOIN FETCH v.vinylCategory " +
+                        "LEFT JOIN FETCH v.vinylSpecialEdition " +
+                        "LEFT JOIN Cassette c ON c.analogArticle.id = aa.id " +
+                        "LEFT JOIN FETCH c.cassetteCategory " +
+                        "LEFT JOIN Cd cd ON cd.analogArticle.id = aa.id " +
+                        "WHERE aa.id = :id")
+        List<Object[]> findDetailGraphById(@Param("id") Integer id);
+
+        /**
+         * Resolve the format type (vinyl, cassette, cd) for a batch of articles
+         * Returns rows of [articleId, typeCode] in a single round trip
+         */
+        @Query("SELECT aa.id, " +
+                        "CASE WHEN v.id IS NOT NULL THEN 'vinyl' " +
+                        "     WHEN c.id IS NOT NULL THEN 'cassette' " +
+                        "     WHEN cd.id IS NOT NULL THEN 'cd' " +
+                        "     ELSE 'unknown' END " +
+                        "FROM AnalogArticle aa " +
+                        "LEFT JOIN Vinyl v ON v.analogArticle.id = aa.id " +
+                        "LEFT JOIN Cassette c ON c.analogArticle.id = aa.id " +
+                        "LEFT JOIN Cd cd ON cd.analogArticle.id = aa.id " +
+                        "WHERE aa.id IN :articleIds")
+        List<Object[]> findArticleTypesByIds(@Param("articleIds") Collection<Integer> articleIds);
+
+        /**
+         * Facet summary for available articles in a single row:
+         * [vinylCount, cassetteCount, cdCount, minPrice, maxPrice]
+         */
+        @Query("SELECT COUNT(v.id), COUNT(c.id), COUNT(cd.id), MIN(aa.price), MAX(aa.price) " +
+                        "FROM AnalogArticle aa " +
+                        "LEFT JOIN Vinyl v ON v.analogArticle.id = aa.id " +
+                        "LEFT JOIN Cassette c ON c.analogArticle.id = aa.id " +
+                        "LEFT JOIN Cd cd ON cd.analogArticle.id = aa.id " +
+                        "WHERE aa.isAvailable = true")
+        List<Object[]> findAvailableFacetSummary();
 }
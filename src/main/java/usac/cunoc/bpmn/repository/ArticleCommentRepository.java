@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.ArticleComment;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,6 +39,56 @@ public interface ArticleCommentRepository extends JpaRepository<ArticleComment,
                         "ORDER BY ac.createdAt ASC")
         List<ArticleComment> findRepliesByParentCommentId(@Param("parentCommentId") Integer parentCommentId);
 
+        /**
+         * Collect the visible reply tree under the given root comments in a single
+         * recursive query. Each level keeps at most maxReplies replies per comment
+         * (oldest first) and recursion stops at maxDepth levels below the roots
+         */
+        @Query(value = """
+                        WITH RECURSIVE thread AS (
+                            SELECT ac.id, 0 AS depth
+                            FROM article_comment ac
+                            WHERE ac.id IN (:rootIds)
+                            UNION ALL
+                            SELECT reply.id, thread.depth + 1
+                            FROM thread
+                            CROSS JOIN LATERAL (
+                                SELECT c.id
+                                FROM article_comment c
+                                JOIN comment_status cs ON cs.id = c.comment_status_id
+                                WHERE c.parent_comment_id = thread.id
+                                  AND cs.is_visible = true
+                                ORDER BY c.created_at ASC, c.id ASC
+                                LIMIT :maxReplies
+                            ) reply
+                            WHERE thread.depth < :maxDepth
+                        )
+                        SELECT id FROM thread WHERE depth > 0
+                        """, nativeQuery = true)
+        List<Integer> findThreadReplyIds(@Param("rootIds") Collection<Integer> rootIds,
+                        @Param("maxDepth") int maxDepth,
+                        @Param("maxReplies") int maxReplies);
+
+        /**
+         * Load comments by IDs with user and status (used to materialize a thread)
+         */
+        @Query("SELECT ac FROM ArticleComment ac " +
+                        "LEFT JOIN FETCH ac.user " +
+                        "LEFT JOIN FETCH ac.commentStatus " +
+                        "WHERE ac.id IN :commentIds " +
+                        "ORDER BY ac.createdAt ASC, ac.id ASC")
+        List<ArticleComment> findWithDetailsByIds(@Param("commentIds") Collection<Integer> commentIds);
+
+        /**
+         * Count visible direct replies for a batch of comments
+         * Returns rows of [parentCommentId, replyCount]
+         */
+        @Query("SELECT ac.parentComment.id, COUNT(ac) FROM ArticleComment ac " +
+                        "WHERE ac.parentComment.id IN :parentIds " +
+                        "AND ac.commentStatus.isVisible = true " +
+                        "GROUP BY ac.parentComment.id")
+        List<Object[]> countVisibleRepliesByParentIds(@Param("parentIds") Collection<Integer> parentIds);
+
         /**
          * Count total comments for an article (visible comments only)
          */
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.ArticleRating;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,6 +26,15 @@ public interface ArticleRatingRepository extends JpaRepository<ArticleRating, In
             "ORDER BY ar.createdAt DESC")
     Page<ArticleRating> findRatingsByArticleId(@Param("articleId") Integer articleId, Pageable pageable);
 
+    /**
+     * Find a page of ratings for an article without a count query
+     * (ordering comes from the pageable sort; totals are read from the article counters)
+     */
+    @Query("SELECT ar FROM ArticleRating ar " +
+            "LEFT JOIN FETCH ar.user " +
+            "WHERE ar.analogArticle.id = :articleId")
+    List<ArticleRating> findRatingPageByArticleId(@Param("articleId") Integer articleId, Pageable pageable);
+
     /**
      * Find rating by article and user (unique constraint)
      */
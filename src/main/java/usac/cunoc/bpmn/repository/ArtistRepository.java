@@ -37,6 +37,17 @@ public interface ArtistRepository extends JpaRepository<Artist, Integer> {
             "ORDER BY a.name ASC")
     List<Artist> findArtistsWithAvailableArticles();
 
+    /**
+     * Get artists that have available articles with their available article count
+     * Returns rows of [id, name, articleCount] ordered by name
+     */
+    @Query("SELECT a.id, a.name, COUNT(aa.id) FROM Artist a " +
+            "JOIN AnalogArticle aa ON a.id = aa.artist.id " +
+            "WHERE aa.isAvailable = true " +
+            "GROUP BY a.id, a.name " +
+            "ORDER BY a.name ASC")
+    List<Object[]> findArtistsWithAvailableArticleCount();
+
     /**
      * Search artists by name containing
      */
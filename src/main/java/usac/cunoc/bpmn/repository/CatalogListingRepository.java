@@ -0,0 +1,134 @@
+package usac.cunoc.bpmn.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import usac.cunoc.bpmn.entity.CatalogListing;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the catalog listing read model - every catalog browse query
+ * is a single-table scan over catalog_listing, with no joins
+ */
+@Repository
+public interface CatalogListingRepository extends JpaRepository<CatalogListing, Integer> {
+
+        /**
+         * Shared filter block for catalog browse queries. Only available articles
+         * are listed, matching the partial indexes on catalog_listing; inStockOnly
+         * further drops articles without stock
+         */
+        String LISTING_FILTERS = "WHERE cl.isAvailable = true " +
+                        "AND (:searchLower IS NULL OR LOWER(cl.title) LIKE CONCAT('%', CAST(:searchLower AS String), '%') " +
+                        "     OR LOWER(cl.artistName) LIKE CONCAT('%', CAST(:searchLower AS String), '%')) " +
+                        "AND (:genreId IS NULL OR cl.genreId = :genreId) " +
+                        "AND (:artistId IS NULL OR cl.artistId = :artistId) " +
+                        "AND (:minPrice IS NULL OR cl.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR cl.price <= :maxPrice) " +
+                        "AND (:type IS NULL OR cl.type = :type) " +
+                        "AND (:inStockOnly IS NULL OR cl.stockQuantity > 0) ";
+
+        /**
+         * Page of available articles with optional filters; ordering comes from the Pageable
+         */
+        @Query("SELECT cl FROM CatalogListing cl " + LISTING_FILTERS)
+        Page<CatalogListing> findWithFilters(
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        Pageable pageable);
+
+        /**
+         * Keyset page of available articles, newest first (seeks past the cursor row, no count query).
+         * Listings without a creation date sort first, as in the newest index; a cursor
+         * taken on one of them continues within that group before the dated rows
+         */
+        @Query("SELECT cl FROM CatalogListing cl " +
+                        LISTING_FILTERS +
+                        "AND (:cursorId IS NULL " +
+                        "     OR (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL AND (cl.createdAt IS NOT NULL OR cl.id < :cursorId)) " +
+                        "     OR cl.createdAt < :cursorCreatedAt " +
+                        "     OR (cl.createdAt = :cursorCreatedAt AND cl.id < :cursorId)) " +
+                        "ORDER BY cl.createdAt DESC NULLS FIRST, cl.id DESC")
+        List<CatalogListing> findKeysetByNewest(
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+
+        /**
+         * Keyset page of available articles, cheapest first (price is NOT NULL)
+         */
+        @Query("SELECT cl FROM CatalogListing cl " +
+                        LISTING_FILTERS +
+                        "AND (:cursorId IS NULL OR cl.price > :cursorPrice OR (cl.price = :cursorPrice AND cl.id > :cursorId)) " +
+                        "ORDER BY cl.price ASC, cl.id ASC")
+        List<CatalogListing> findKeysetByPriceAsc(
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        @Param("cursorPrice") BigDecimal cursorPrice,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+
+        /**
+         * Keyset page of available articles, most expensive first
+         */
+        @Query("SELECT cl FROM CatalogListing cl " +
+                        LISTING_FILTERS +
+                        "AND (:cursorId IS NULL OR cl.price < :cursorPrice OR (cl.price = :cursorPrice AND cl.id < :cursorId)) " +
+                        "ORDER BY cl.price DESC, cl.id DESC")
+        List<CatalogListing> findKeysetByPriceDesc(
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        @Param("cursorPrice") BigDecimal cursorPrice,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+
+        /**
+         * Keyset page of available articles, best sellers first; listings without
+         * a sales count sort first, like in the newest query
+         */
+        @Query("SELECT cl FROM CatalogListing cl " +
+                        LISTING_FILTERS +
+                        "AND (:cursorId IS NULL " +
+                        "     OR (CAST(:cursorTotalSold AS Integer) IS NULL AND (cl.totalSold IS NOT NULL OR cl.id < :cursorId)) " +
+                        "     OR cl.totalSold < :cursorTotalSold " +
+                        "     OR (cl.totalSold = :cursorTotalSold AND cl.id < :cursorId)) " +
+                        "ORDER BY cl.totalSold DESC NULLS FIRST, cl.id DESC")
+        List<CatalogListing> findKeysetByTotalSold(
+                        @Param("searchLower") String searchLower,
+                        @Param("genreId") Integer genreId,
+                        @Param("artistId") Integer artistId,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice,
+                        @Param("type") String type,
+                        @Param("inStockOnly") Boolean inStockOnly,
+                        @Param("cursorTotalSold") Integer cursorTotalSold,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+}
@@ -47,4 +47,15 @@ public interface CdPromotionArticleRepository extends JpaRepository<CdPromotionA
      */
     @Query("SELECT COUNT(cpa) FROM CdPromotionArticle cpa WHERE cpa.cdPromotion.id = :promotionId")
     long countByPromotionId(@Param("promotionId") Integer promotionId);
-}
\ No newline at end of file
+
+    /**
+     * Find every CD article of every promotion with the promotion's activity
+     * window: promotion ID, is active, end date, catalog listing
+     */
+    @Query("SELECT cp.id, cp.isActive, cp.endDate, cl FROM CdPromotionArticle cpa " +
+            "JOIN cpa.cdPromotion cp " +
+            "JOIN CatalogListing cl ON cl.id = cpa.analogArticle.id " +
+            "WHERE cl.type = 'cd' " +
+            "ORDER BY cp.id, cl.id")
+    List<Object[]> findEligibilityRows();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.CdPromotion;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,4 +52,24 @@ public interface CdPromotionRepository extends JpaRepository<CdPromotion, Intege
             "AND (cp.endDate IS NULL OR cp.endDate > :currentDate)")
     Optional<CdPromotion> findActivePromotionById(@Param("promotionId") Integer promotionId,
             @Param("currentDate") LocalDateTime currentDate);
-}
\ No newline at end of file
+
+    /**
+     * Find promotions by IDs with their type and genre
+     */
+    @Query("SELECT cp FROM CdPromotion cp " +
+            "JOIN FETCH cp.cdPromotionType " +
+            "LEFT JOIN FETCH cp.musicGenre " +
+            "WHERE cp.id IN :promotionIds")
+    List<CdPromotion> findAllWithDetailsByIdIn(@Param("promotionIds") Collection<Integer> promotionIds);
+
+    /**
+     * Find active promotions with their type and genre
+     */
+    @Query("SELECT cp FROM CdPromotion cp " +
+            "JOIN FETCH cp.cdPromotionType " +
+            "LEFT JOIN FETCH cp.musicGenre " +
+            "WHERE cp.isActive = true " +
+            "AND (cp.endDate IS NULL OR cp.endDate > :currentDate) " +
+            "ORDER BY cp.id")
+    List<CdPromotion> findActiveWithDetails(@Param("currentDate") LocalDateTime currentDate);
+}
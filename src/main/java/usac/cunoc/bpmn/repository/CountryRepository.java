@@ -1,8 +1,10 @@
 package usac.cunoc.bpmn.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.Country;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,4 +32,10 @@ public interface CountryRepository extends JpaRepository<Country, Integer> {
      * Check if country code exists
      */
     boolean existsByCountryCode(String countryCode);
-}
\ No newline at end of file
+
+    /**
+     * Find all countries with their currency
+     */
+    @Query("SELECT c FROM Country c LEFT JOIN FETCH c.currency ORDER BY c.id")
+    List<Country> findAllWithCurrency();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.EventChatMessage;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repository interface for EventChatMessage entity operations
@@ -27,6 +28,26 @@ public interface EventChatMessageRepository extends JpaRepository<EventChatMessa
                                                       @Param("since") LocalDateTime since,
                                                       Pageable pageable);
 
+    /**
+     * Keyset page of chat messages for an event (newest first).
+     * Seeks past the cursor row instead of using OFFSET and skips the count query;
+     * messages without a timestamp come first
+     */
+    @Query("SELECT ecm FROM EventChatMessage ecm " +
+           "LEFT JOIN FETCH ecm.user u " +
+           "WHERE ecm.event.id = :eventId " +
+           "AND (CAST(:since AS LocalDateTime) IS NULL OR ecm.sentAt >= :since) " +
+           "AND (:cursorId IS NULL " +
+           "     OR (CAST(:cursorSentAt AS LocalDateTime) IS NULL AND (ecm.sentAt IS NOT NULL OR ecm.id < :cursorId)) " +
+           "     OR ecm.sentAt < :cursorSentAt " +
+           "     OR (ecm.sentAt = :cursorSentAt AND ecm.id < :cursorId)) " +
+           "ORDER BY ecm.sentAt DESC NULLS FIRST, ecm.id DESC")
+    List<EventChatMessage> findChatMessagesByEventIdAfterCursor(@Param("eventId") Integer eventId,
+                                                                 @Param("since") LocalDateTime since,
+                                                                 @Param("cursorSentAt") LocalDateTime cursorSentAt,
+                                                                 @Param("cursorId") Integer cursorId,
+                                                                 Pageable pageable);
+
     /**
      * Count total messages for an event
      */
@@ -1,8 +1,12 @@
 package usac.cunoc.bpmn.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.Invoice;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,4 +34,26 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Integer> {
      * Check if invoice exists for order
      */
     boolean existsByOrderId(Integer orderId);
+
+    /**
+     * Find invoice by ID with everything printed on it: currency, order,
+     * customer and billing address with its country
+     */
+    @Query("SELECT i FROM Invoice i " +
+            "JOIN FETCH i.currency " +
+            "JOIN FETCH i.order o " +
+            "JOIN FETCH o.user " +
+            "LEFT JOIN FETCH o.billingAddress ba " +
+            "LEFT JOIN FETCH ba.country " +
+            "WHERE i.id = :invoiceId")
+    Optional<Invoice> findWithDetailsById(@Param("invoiceId") Integer invoiceId);
+
+    /**
+     * IDs of the invoices issued in a date range, oldest first
+     */
+    @Query("SELECT i.id FROM Invoice i " +
+            "WHERE i.issueDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY i.issueDate ASC, i.id ASC")
+    List<Integer> findIdsByIssueDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
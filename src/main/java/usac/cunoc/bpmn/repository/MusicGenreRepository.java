@@ -37,6 +37,17 @@ public interface MusicGenreRepository extends JpaRepository<MusicGenre, Integer>
             "ORDER BY mg.name ASC")
     List<MusicGenre> findGenresWithAvailableArticles();
 
+    /**
+     * Get genres that have available articles with their available article count
+     * Returns rows of [id, name, articleCount] ordered by name
+     */
+    @Query("SELECT mg.id, mg.name, COUNT(aa.id) FROM MusicGenre mg " +
+            "JOIN AnalogArticle aa ON mg.id = aa.musicGenre.id " +
+            "WHERE aa.isAvailable = true " +
+            "GROUP BY mg.id, mg.name " +
+            "ORDER BY mg.name ASC")
+    List<Object[]> findGenresWithAvailableArticleCount();
+
     /**
      * Find all genres ordered by name
      */
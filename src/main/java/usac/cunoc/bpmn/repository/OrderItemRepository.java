@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.OrderItem;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -36,6 +37,23 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
                         "ORDER BY oi.createdAt ASC")
         List<OrderItem> findOrderItemsWithDetailsByOrderId(@Param("orderId") Integer orderId);
 
+        /**
+         * Find the item rows of an order detail in one statement - article data
+         * and promotion name joined in, format type taken from catalog_listing
+         */
+        @Query("SELECT oi.id AS id, aa.id AS articleId, aa.title AS title, ar.name AS artistName, " +
+                        "cl.type AS type, aa.imageUrl AS imageUrl, oi.quantity AS quantity, " +
+                        "oi.unitPrice AS unitPrice, oi.discountAmount AS discountAmount, " +
+                        "oi.totalPrice AS totalPrice, cp.name AS promotionName " +
+                        "FROM OrderItem oi " +
+                        "JOIN oi.analogArticle aa " +
+                        "JOIN aa.artist ar " +
+                        "LEFT JOIN oi.cdPromotion cp " +
+                        "LEFT JOIN CatalogListing cl ON cl.id = aa.id " +
+                        "WHERE oi.order.id = :orderId " +
+                        "ORDER BY oi.createdAt ASC, oi.id ASC")
+        List<OrderItemView> findOrderItemViewsByOrderId(@Param("orderId") Integer orderId);
+
         /**
          * Check if user has purchased an article and order was delivered
          * Used for verified purchase validation in ratings
@@ -48,4 +66,31 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
         boolean existsByUserIdAndArticleIdAndDelivered(@Param("userId") Integer userId,
                         @Param("articleId") Integer articleId);
 
+        /**
+         * Item row of the order detail
+         */
+        interface OrderItemView {
+
+                Integer getId();
+
+                Integer getArticleId();
+
+                String getTitle();
+
+                String getArtistName();
+
+                String getType();
+
+                String getImageUrl();
+
+                Integer getQuantity();
+
+                BigDecimal getUnitPrice();
+
+                BigDecimal getDiscountAmount();
+
+                BigDecimal getTotalPrice();
+
+                String getPromotionName();
+        }
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package usac.cunoc.bpmn.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.Order;
 import usac.cunoc.bpmn.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,24 +22,69 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     /**
-     * Find orders by user with pagination
+     * Select list of the order summary projection - order columns plus status
+     * and currency, no entities loaded
      */
-    @Query("SELECT o FROM Order o " +
-            "LEFT JOIN FETCH o.orderStatus " +
-            "LEFT JOIN FETCH o.currency " +
-            "WHERE o.user = :user " +
-            "ORDER BY o.createdAt DESC")
-    Page<Order> findOrdersByUser(@Param("user") User user, Pageable pageable);
+    String ORDER_SUMMARY_SELECT = "SELECT o.id AS id, o.orderNumber AS orderNumber, " +
+            "os.id AS statusId, os.name AS statusName, o.totalAmount AS totalAmount, " +
+            "c.code AS currencyCode, c.symbol AS currencySymbol, o.totalItems AS totalItems, " +
+            "o.createdAt AS createdAt, o.shippedAt AS shippedAt, o.deliveredAt AS deliveredAt " +
+            "FROM Order o " +
+            "JOIN o.orderStatus os " +
+            "JOIN o.currency c ";
+
+    /**
+     * Page of user order summaries (newest first) with optional status filter
+     */
+    @Query(value = ORDER_SUMMARY_SELECT +
+            "WHERE o.user.id = :userId " +
+            "AND (:status IS NULL OR os.name = :status) " +
+            "ORDER BY o.createdAt DESC, o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o " +
+                    "WHERE o.user.id = :userId " +
+                    "AND (:status IS NULL OR o.orderStatus.name = :status)")
+    Page<OrderSummaryView> findOrderSummariesByUserId(@Param("userId") Integer userId,
+            @Param("status") String status,
+            Pageable pageable);
 
     /**
-     * Find orders by user and status with pagination
+     * Keyset page of user order summaries (newest first) with optional status filter.
+     * Seeks past the cursor row instead of using OFFSET and skips the count query;
+     * orders without a date come first and a NULL cursor date continues among them
+     */
+    @Query(ORDER_SUMMARY_SELECT +
+            "WHERE o.user.id = :userId " +
+            "AND (:status IS NULL OR os.name = :status) " +
+            "AND (:cursorId IS NULL " +
+            "     OR (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL AND (o.createdAt IS NOT NULL OR o.id < :cursorId)) " +
+            "     OR o.createdAt < :cursorCreatedAt " +
+            "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderSummaryView> findOrderSummariesByUserIdAfterCursor(@Param("userId") Integer userId,
+            @Param("status") String status,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    /**
+     * Find an order of a user with everything the order detail shows except
+     * its items: status, currency, both addresses with their country and the
+     * payments with method, status and currency
      */
     @Query("SELECT o FROM Order o " +
-            "LEFT JOIN FETCH o.orderStatus " +
-            "LEFT JOIN FETCH o.currency " +
-            "WHERE o.user = :user AND o.orderStatus.name = :status " +
-            "ORDER BY o.createdAt DESC")
-    Page<Order> findOrdersByUserAndStatus(@Param("user") User user, @Param("status") String status, Pageable pageable);
+            "JOIN FETCH o.orderStatus " +
+            "JOIN FETCH o.currency " +
+            "LEFT JOIN FETCH o.shippingAddress sa " +
+            "LEFT JOIN FETCH sa.country " +
+            "LEFT JOIN FETCH o.billingAddress ba " +
+            "LEFT JOIN FETCH ba.country " +
+            "LEFT JOIN FETCH o.payments p " +
+            "LEFT JOIN FETCH p.paymentMethod " +
+            "LEFT JOIN FETCH p.paymentStatus " +
+            "LEFT JOIN FETCH p.currency " +
+            "WHERE o.id = :orderId AND o.user.id = :userId")
+    Optional<Order> findOrderDetailByIdAndUserId(@Param("orderId") Integer orderId,
+            @Param("userId") Integer userId);
 
     /**
      * Find order by ID and user (security constraint)
@@ -47,6 +97,31 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
             "WHERE o.id = :orderId AND o.user = :user")
     Optional<Order> findOrderByIdAndUser(@Param("orderId") Integer orderId, @Param("user") User user);
 
+    /**
+     * Find an order of a user and lock its row until the transaction ends,
+     * serializing payment acceptance, settlement and cancellation
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :orderId AND o.user.id = :userId")
+    Optional<Order> findByIdAndUserIdForUpdate(@Param("orderId") Integer orderId, @Param("userId") Integer userId);
+
+    /**
+     * Find an order by ID and lock its row until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Integer orderId);
+
+    /**
+     * Find the order a user's checkout request created, by its idempotency key
+     */
+    @Query("SELECT o FROM Order o " +
+            "LEFT JOIN FETCH o.orderStatus " +
+            "LEFT JOIN FETCH o.currency " +
+            "WHERE o.user.id = :userId AND o.idempotencyKey = :idempotencyKey")
+    Optional<Order> findByUserIdAndIdempotencyKey(@Param("userId") Integer userId,
+            @Param("idempotencyKey") String idempotencyKey);
+
     /**
      * Find order by order number
      */
@@ -66,4 +141,32 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      * Count orders by user and status
      */
     long countByUserAndOrderStatusName(User user, String status);
+
+    /**
+     * Order summary row of the order history
+     */
+    interface OrderSummaryView {
+
+        Integer getId();
+
+        String getOrderNumber();
+
+        Integer getStatusId();
+
+        String getStatusName();
+
+        BigDecimal getTotalAmount();
+
+        String getCurrencyCode();
+
+        String getCurrencySymbol();
+
+        Integer getTotalItems();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getShippedAt();
+
+        LocalDateTime getDeliveredAt();
+    }
 }
\ No newline at end of file
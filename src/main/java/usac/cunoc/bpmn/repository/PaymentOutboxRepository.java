@@ -0,0 +1,56 @@
+package usac.cunoc.bpmn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import usac.cunoc.bpmn.entity.PaymentOutbox;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Payment outbox repository interface
+ */
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Integer> {
+
+    /**
+     * Claim the oldest due entry, locking its row until the transaction ends.
+     * Rows locked by other workers are skipped, so workers never wait on each
+     * other and never settle the same payment twice
+     */
+    @Query(value = """
+            SELECT * FROM payment_outbox
+            WHERE status = 'PENDING' AND available_at <= :now
+            ORDER BY available_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<PaymentOutbox> claimNextDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Lock an entry by ID, waiting for a worker that holds it
+     */
+    @Query(value = "SELECT * FROM payment_outbox WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<PaymentOutbox> findByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * Count entries due for settlement
+     */
+    @Query("SELECT COUNT(po) FROM PaymentOutbox po " +
+            "WHERE po.status = usac.cunoc.bpmn.enums.PaymentOutboxStatus.PENDING AND po.availableAt <= :now")
+    long countDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Find the entry of an order still waiting for settlement, with its payment
+     */
+    @Query("SELECT po FROM PaymentOutbox po " +
+            "JOIN FETCH po.payment " +
+            "WHERE po.order.id = :orderId AND po.status = usac.cunoc.bpmn.enums.PaymentOutboxStatus.PENDING")
+    Optional<PaymentOutbox> findPendingByOrderId(@Param("orderId") Integer orderId);
+
+    /**
+     * Find the latest outbox entry of a payment
+     */
+    Optional<PaymentOutbox> findFirstByPaymentIdOrderByIdDesc(Integer paymentId);
+}
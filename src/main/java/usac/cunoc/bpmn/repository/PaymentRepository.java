@@ -25,6 +25,16 @@ public interface PaymentRepository extends JpaRepository<Payment, Integer> {
             "ORDER BY p.createdAt DESC")
     List<Payment> findPaymentsByOrderId(@Param("orderId") Integer orderId);
 
+    /**
+     * Find payment by payment number with its order, status and currency
+     */
+    @Query("SELECT p FROM Payment p " +
+            "JOIN FETCH p.order o " +
+            "JOIN FETCH p.paymentStatus " +
+            "JOIN FETCH p.currency " +
+            "WHERE p.paymentNumber = :paymentNumber")
+    Optional<Payment> findWithOrderByPaymentNumber(@Param("paymentNumber") String paymentNumber);
+
     /**
      * Find payment by payment number
      */
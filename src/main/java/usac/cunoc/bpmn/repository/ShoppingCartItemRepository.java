@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.ShoppingCartItem;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +36,14 @@ public interface ShoppingCartItemRepository extends JpaRepository<ShoppingCartIt
             "ORDER BY sci.createdAt DESC")
     List<ShoppingCartItem> findByCartIdWithDetails(@Param("cartId") Integer cartId);
 
+    /**
+     * Find all items by shopping cart ID without fetching associations
+     */
+    @Query("SELECT sci FROM ShoppingCartItem sci " +
+            "WHERE sci.shoppingCart.id = :cartId " +
+            "ORDER BY sci.createdAt DESC, sci.id DESC")
+    List<ShoppingCartItem> findByCartId(@Param("cartId") Integer cartId);
+
     /**
      * Delete all items by shopping cart ID
      */
@@ -61,4 +71,47 @@ public interface ShoppingCartItemRepository extends JpaRepository<ShoppingCartIt
     @Query("SELECT COUNT(sci) > 0 FROM ShoppingCartItem sci " +
             "WHERE sci.shoppingCart.id = :cartId AND sci.analogArticle.id = :articleId")
     boolean existsByCartIdAndArticleId(@Param("cartId") Integer cartId, @Param("articleId") Integer articleId);
-}
\ No newline at end of file
+
+    /**
+     * Reserve item IDs from the shopping_cart_item sequence so cart lines get
+     * their final ID before the row is written
+     */
+    @Query(value = "SELECT nextval('shopping_cart_item_id_seq') FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> allocateItemIds(@Param("count") int count);
+
+    /**
+     * Delete the cart's items that are no longer part of the cart
+     */
+    @Modifying
+    @Query("DELETE FROM ShoppingCartItem sci WHERE sci.shoppingCart.id = :cartId AND sci.id NOT IN :keepIds")
+    void deleteByShoppingCartIdAndIdNotIn(@Param("cartId") Integer cartId, @Param("keepIds") Collection<Integer> keepIds);
+
+    /**
+     * Insert a cart item with a pre-allocated ID, or update it when it already
+     * exists; unchanged rows are not rewritten
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO shopping_cart_item (id, shopping_cart_id, analog_article_id, quantity, unit_price,
+                    discount_applied, cd_promotion_id)
+            VALUES (:id, :cartId, :articleId, :quantity, :unitPrice, :discountApplied,
+                    CAST(:promotionId AS INTEGER))
+            ON CONFLICT (id) DO UPDATE
+            SET quantity = EXCLUDED.quantity,
+                unit_price = EXCLUDED.unit_price,
+                discount_applied = EXCLUDED.discount_applied,
+                cd_promotion_id = EXCLUDED.cd_promotion_id,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE (shopping_cart_item.quantity, shopping_cart_item.unit_price,
+                    shopping_cart_item.discount_applied, shopping_cart_item.cd_promotion_id)
+                IS DISTINCT FROM (EXCLUDED.quantity, EXCLUDED.unit_price,
+                    EXCLUDED.discount_applied, EXCLUDED.cd_promotion_id)
+            """, nativeQuery = true)
+    void upsertItem(@Param("id") Integer id,
+            @Param("cartId") Integer cartId,
+            @Param("articleId") Integer articleId,
+            @Param("quantity") Integer quantity,
+            @Param("unitPrice") BigDecimal unitPrice,
+            @Param("discountApplied") BigDecimal discountApplied,
+            @Param("promotionId") Integer promotionId);
+}
@@ -1,6 +1,9 @@
 package usac.cunoc.bpmn.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +23,14 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Inte
         @Query("SELECT sc FROM ShoppingCart sc WHERE sc.user.id = :userId")
         Optional<ShoppingCart> findByUserId(@Param("userId") Integer userId);
 
+        /**
+         * Find shopping cart by user ID and lock its row until the transaction
+         * ends, serializing checkouts of the same cart
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT sc FROM ShoppingCart sc WHERE sc.user.id = :userId")
+        Optional<ShoppingCart> findByUserIdForUpdate(@Param("userId") Integer userId);
+
         /**
          * Find shopping cart by user entity
          */
@@ -46,4 +57,26 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Inte
                         "LEFT JOIN FETCH aa.currency " +
                         "WHERE sc.user.id = :userId")
         Optional<ShoppingCart> findByUserIdWithItems(@Param("userId") Integer userId);
-}
\ No newline at end of file
+
+        /**
+         * Suspend the per-row cart totals trigger for the current transaction
+         */
+        @Query(value = "SELECT set_config('bpmn.defer_cart_totals', :value, true)", nativeQuery = true)
+        String setDeferCartTotals(@Param("value") String value);
+
+        /**
+         * Recompute total_items and subtotal of a cart in one statement; pending
+         * item changes are flushed first and the persistence context is cleared so
+         * the cart is re-read with the new totals
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(value = "CALL refresh_cart_totals(:cartId)", nativeQuery = true)
+        void refreshCartTotals(@Param("cartId") Integer cartId);
+
+        /**
+         * Delete every item of a cart and reset its totals in one call
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(value = "CALL clear_cart(:cartId)", nativeQuery = true)
+        void clearCart(@Param("cartId") Integer cartId);
+}
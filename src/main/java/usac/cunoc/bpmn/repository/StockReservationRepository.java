@@ -0,0 +1,45 @@
+package usac.cunoc.bpmn.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import usac.cunoc.bpmn.entity.StockReservation;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock reservation repository interface
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Integer> {
+
+    /**
+     * Find reservations held by an order
+     */
+    @Query("SELECT sr FROM StockReservation sr WHERE sr.order.id = :orderId")
+    List<StockReservation> findByOrderId(@Param("orderId") Integer orderId);
+
+    /**
+     * Find reservations that expired before the given date
+     */
+    @Query("SELECT sr FROM StockReservation sr WHERE sr.expiresAt <= :now")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Reserved quantity per article over active reservations
+     * Returns: [articleId, reservedQuantity]
+     */
+    @Query("SELECT sr.analogArticle.id, SUM(sr.quantity) FROM StockReservation sr " +
+            "WHERE sr.expiresAt > :now " +
+            "GROUP BY sr.analogArticle.id")
+    List<Object[]> sumActiveReservationsByArticle(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete a reservation; returns 0 when it was already released elsewhere
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation sr WHERE sr.id = :id")
+    int deleteReservationById(@Param("id") Integer id);
+}
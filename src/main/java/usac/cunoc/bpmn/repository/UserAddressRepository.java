@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.entity.User;
 import usac.cunoc.bpmn.entity.UserAddress;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +43,12 @@ public interface UserAddressRepository extends JpaRepository<UserAddress, Intege
      */
     Optional<UserAddress> findByIdAndUser(Integer id, User user);
 
+    /**
+     * Find the user's addresses among the given IDs
+     */
+    @Query("SELECT ua FROM UserAddress ua WHERE ua.user.id = :userId AND ua.id IN :ids")
+    List<UserAddress> findByUserIdAndIdIn(@Param("userId") Integer userId, @Param("ids") Collection<Integer> ids);
+
     /**
      * Clear all default flags for user before setting new default
      */
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.entity.User;
 import usac.cunoc.bpmn.entity.UserNotification;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,6 +33,26 @@ public interface UserNotificationRepository extends JpaRepository<UserNotificati
             @Param("unread") Boolean unread,
             Pageable pageable);
 
+    /**
+     * Keyset page of user notifications (newest first) with read status filter.
+     * Seeks past the cursor row instead of using OFFSET and skips the count query;
+     * notifications without a date come first, as in the order keyset query
+     */
+    @Query("SELECT un FROM UserNotification un " +
+            "LEFT JOIN FETCH un.notificationType nt " +
+            "WHERE un.user = :user " +
+            "AND (:unread IS NULL OR un.isRead = :unread) " +
+            "AND (:cursorId IS NULL " +
+            "     OR (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL AND (un.createdAt IS NOT NULL OR un.id < :cursorId)) " +
+            "     OR un.createdAt < :cursorCreatedAt " +
+            "     OR (un.createdAt = :cursorCreatedAt AND un.id < :cursorId)) " +
+            "ORDER BY un.createdAt DESC NULLS FIRST, un.id DESC")
+    List<UserNotification> findByUserWithFilterAfterCursor(@Param("user") User user,
+            @Param("unread") Boolean unread,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
     /**
      * Find notification by ID and user for security validation
      */
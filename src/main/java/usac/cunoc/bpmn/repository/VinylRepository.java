@@ -1,10 +1,13 @@
 package usac.cunoc.bpmn.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import usac.cunoc.bpmn.entity.Vinyl;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,4 +35,21 @@ public interface VinylRepository extends JpaRepository<Vinyl, Integer> {
      * Check if vinyl exists for article
      */
     boolean existsByAnalogArticleId(Integer analogArticleId);
+
+    /**
+     * Units left of the limited edition vinyls among the given articles
+     * Returns: [articleId, remainingLimitedStock]
+     */
+    @Query("SELECT v.analogArticle.id, v.remainingLimitedStock FROM Vinyl v " +
+            "WHERE v.analogArticle.id IN :articleIds AND v.isLimitedEdition = true")
+    List<Object[]> findLimitedStockByArticleIds(@Param("articleIds") Collection<Integer> articleIds);
+
+    /**
+     * Take sold units from a limited edition. trigger_validate_limited_vinyl_stock
+     * rejects a negative remainder and marks the article unavailable at zero
+     */
+    @Modifying
+    @Query("UPDATE Vinyl v SET v.remainingLimitedStock = v.remainingLimitedStock - :quantity " +
+            "WHERE v.analogArticle.id = :articleId AND v.isLimitedEdition = true")
+    int consumeLimitedStock(@Param("articleId") Integer articleId, @Param("quantity") int quantity);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package usac.cunoc.bpmn.service;
 
 import usac.cunoc.bpmn.dto.admin.reports.*;
+import java.time.LocalDate;
 
 /**
  * Admin reports service interface for generating business reports
@@ -36,4 +37,12 @@ public interface AdminReportsService {
      * Get stock alerts report
      */
     StockAlertsResponseDto getStockAlerts();
+
+    /**
+     * Rebuild the daily sales rollup used by the sales report for a range of
+     * days, e.g. after loading historical orders
+     *
+     * @return Number of rollup rows written
+     */
+    int refreshDailySales(LocalDate startDate, LocalDate endDate);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package usac.cunoc.bpmn.service;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import usac.cunoc.bpmn.dto.catalog.ArticleDetailResponseDto;
+
+/**
+ * Article detail service interface - loads the full product detail (article,
+ * artist, genre, currency and format-specific data) in a single query
+ */
+public interface ArticleDetailService {
+
+    /**
+     * Load article detail straight from the database
+     */
+    ArticleDetailResponseDto getArticleDetail(Integer articleId);
+
+    /**
+     * Get article detail as pre-serialized JSON from the per-article cache,
+     * loading and serializing it on a miss
+     */
+    RawValue getArticleDetailJson(Integer articleId);
+}
@@ -0,0 +1,21 @@
+package usac.cunoc.bpmn.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Service interface for resolving the format type (vinyl, cassette, cd) of
+ * analog articles
+ */
+public interface ArticleTypeService {
+
+    /**
+     * Resolve the type code of a single article
+     */
+    String resolveType(Integer articleId);
+
+    /**
+     * Resolve the type codes of a batch of articles in a single query
+     */
+    Map<Integer, String> resolveTypes(Collection<Integer> articleIds);
+}
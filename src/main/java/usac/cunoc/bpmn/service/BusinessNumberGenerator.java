@@ -0,0 +1,29 @@
+package usac.cunoc.bpmn.service;
+
+/**
+ * Business number generator - order, payment and invoice numbers in the form
+ * PREFIX-yyyyMMddHHmmss-XXXXXXXX. Numbers are unique across instances with
+ * distinct node IDs and increase within an instance
+ */
+public interface BusinessNumberGenerator {
+
+    /**
+     * Next order number (ORD-...)
+     */
+    String nextOrderNumber();
+
+    /**
+     * Next payment number (PAY-...)
+     */
+    String nextPaymentNumber();
+
+    /**
+     * Next pre-order payment number (PREORDER-...)
+     */
+    String nextPreorderNumber();
+
+    /**
+     * Next invoice number (INV-...)
+     */
+    String nextInvoiceNumber();
+}
@@ -44,6 +44,16 @@ public interface CartService {
      */
     RemoveCartItemResponseDto removeItemFromCart(Integer userId, Integer itemId);
 
+    /**
+     * Apply several add/update/remove operations to the cart atomically; stock is
+     * validated for all articles at once and cart totals are recomputed once
+     * 
+     * @param userId  User ID
+     * @param request Batch of item operations
+     * @return Cart with items after the batch
+     */
+    CartResponseDto applyCartItemsBatch(Integer userId, BatchCartItemsRequestDto request);
+
     /**
      * Clear all items from cart
      * 
@@ -59,4 +69,13 @@ public interface CartService {
      * @return Promotion application response
      */
     ApplyPromotionResponseDto applyCdPromotion(Integer userId, ApplyPromotionRequestDto request);
-}
\ No newline at end of file
+
+    /**
+     * Find the CD promotion that lowers the cart total the most, without
+     * applying it
+     * 
+     * @param userId User ID
+     * @return Best promotion preview
+     */
+    PromotionPreviewResponseDto previewBestCdPromotion(Integer userId);
+}
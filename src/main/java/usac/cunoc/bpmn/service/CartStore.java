@@ -0,0 +1,110 @@
+package usac.cunoc.bpmn.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Cart store - holds the live state of users' shopping carts behind
+ * CartService. Implementations decide when cart changes reach
+ * shopping_cart_item (immediately, or write-behind)
+ */
+public interface CartStore {
+
+    /**
+     * Get a copy of the user's cart, creating the cart if the user has none
+     *
+     * @param userId User ID
+     * @return Cart state copy
+     */
+    CartState read(Integer userId);
+
+    /**
+     * Apply a change to the user's cart atomically. If the change throws, the
+     * cart is left untouched
+     *
+     * @param userId User ID
+     * @param change Change to apply
+     * @return Copy of the cart after the change, new lines with their item IDs
+     */
+    CartState modify(Integer userId, Consumer<CartState> change);
+
+    /**
+     * Make sure pending changes of the user's cart are written to Postgres as
+     * part of the current transaction
+     *
+     * @param userId User ID
+     */
+    void flush(Integer userId);
+
+    /**
+     * Drop any state held for the user's cart once the current transaction
+     * commits, so the next access reads it from Postgres again
+     *
+     * @param userId User ID
+     */
+    void evict(Integer userId);
+
+    /**
+     * Cart contents with totals computed the same way as refresh_cart_totals
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    class CartState {
+
+        private Integer cartId;
+        private List<CartLine> lines = new ArrayList<>();
+
+        public Optional<CartLine> findLine(Integer itemId) {
+            return lines.stream().filter(line -> itemId.equals(line.getId())).findFirst();
+        }
+
+        public Optional<CartLine> findLineByArticle(Integer articleId) {
+            return lines.stream().filter(line -> articleId.equals(line.getArticleId())).findFirst();
+        }
+
+        public Integer getTotalItems() {
+            return lines.stream().mapToInt(CartLine::getQuantity).sum();
+        }
+
+        public BigDecimal getSubtotal() {
+            return lines.stream().map(CartLine::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        public CartState copy() {
+            List<CartLine> copies = new ArrayList<>(lines.size());
+            lines.forEach(line -> copies.add(line.copy()));
+            return new CartState(cartId, copies);
+        }
+    }
+
+    /**
+     * Single cart line - mirrors a shopping_cart_item row
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    class CartLine {
+
+        private Integer id;
+        private Integer articleId;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal discountApplied = BigDecimal.ZERO;
+        private Integer promotionId;
+
+        public BigDecimal getTotalPrice() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity)).subtract(discountApplied);
+        }
+
+        public CartLine copy() {
+            return new CartLine(id, articleId, quantity, unitPrice, discountApplied, promotionId);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package usac.cunoc.bpmn.service;
+
+import usac.cunoc.bpmn.dto.catalog.CatalogArticlesResponseDto;
+
+/**
+ * Catalog facet service interface - builds the filter block (genres, artists,
+ * types and price range with article counts) for the public catalog
+ */
+public interface CatalogFacetService {
+
+    /**
+     * Get catalog facets. The result is cached and only recomputed after the
+     * catalog changes.
+     */
+    CatalogArticlesResponseDto.FiltersDto getFacets();
+}
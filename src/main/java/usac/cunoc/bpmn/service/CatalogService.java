@@ -1,5 +1,6 @@
 package usac.cunoc.bpmn.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import usac.cunoc.bpmn.dto.catalog.*;
 
 /**
@@ -8,7 +9,9 @@ import usac.cunoc.bpmn.dto.catalog.*;
 public interface CatalogService {
 
     /**
-     * Get paginated list of articles with filters
+     * Get paginated list of articles with filters. When cursor is not null
+     * (empty string for the first page) keyset pagination is used instead of
+     * page numbers
      */
     CatalogArticlesResponseDto getArticles(
             Integer page,
@@ -20,13 +23,19 @@ public interface CatalogService {
             String maxPrice,
             String type,
             String sortBy,
-            Boolean availability);
+            Boolean availability,
+            String cursor);
 
     /**
      * Get article details by ID
      */
     ArticleDetailResponseDto getArticleById(Integer articleId);
 
+    /**
+     * Get article details by ID as cached, pre-serialized JSON
+     */
+    RawValue getArticleDetailJson(Integer articleId);
+
     /**
      * Get article comments with pagination
      */
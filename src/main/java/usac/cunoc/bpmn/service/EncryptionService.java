@@ -15,6 +15,17 @@ public interface EncryptionService {
      */
     String decrypt(String encryptedData);
 
+    /**
+     * Decrypt several values with the same cipher, in order
+     */
+    java.util.List<String> decryptAll(java.util.List<String> encryptedData);
+
+    /**
+     * Whether a value is stored in an older format and should be encrypted
+     * again with encrypt
+     */
+    boolean needsReencryption(String encryptedData);
+
     /**
      * Generate backup codes for 2FA
      */
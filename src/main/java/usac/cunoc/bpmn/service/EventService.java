@@ -30,10 +30,11 @@ public interface EventService {
     EventUnregistrationResponseDto unregisterFromEvent(Integer eventId, Integer userId);
 
     /**
-     * Get chat messages for an event
+     * Get chat messages for an event.
+     * A non-null cursor (empty for the first page) switches to keyset pagination
      */
     EventChatResponseDto getEventChat(Integer eventId, Integer page, Integer limit, 
-                                      LocalDateTime since, Integer userId);
+                                      LocalDateTime since, Integer userId, String cursor);
 
     /**
      * Send chat message to an event
@@ -0,0 +1,31 @@
+package usac.cunoc.bpmn.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Invoice PDF service - renders invoices to PDF and streams them, keeping
+ * rendered files on local disk keyed by invoice number
+ */
+public interface InvoicePdfService {
+
+    /**
+     * Write the PDF of an invoice to a stream, rendering it on first request
+     *
+     * @param invoiceId Invoice ID
+     * @param out       Stream the PDF is written to; left open
+     */
+    void writeInvoicePdf(Integer invoiceId, OutputStream out) throws IOException;
+
+    /**
+     * Write a ZIP with the PDFs of every invoice issued in a date range.
+     * Missing PDFs are rendered in parallel on a bounded pool
+     *
+     * @param startDate First issue date, inclusive
+     * @param endDate   Last issue date, inclusive
+     * @param out       Stream the ZIP is written to; left open
+     * @return Number of invoices in the ZIP
+     */
+    int writeInvoicesZip(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException;
+}
@@ -17,9 +17,12 @@ public interface NotificationService {
      * @param limit  Items per page
      * @param unread Filter by read status (null for all, true for unread only,
      *               false for read only)
+     * @param cursor Keyset cursor (null for page-number mode, empty for the
+     *               first cursor page)
      * @return Paginated notifications response
      */
-    NotificationListResponseDto getUserNotifications(Integer userId, Integer page, Integer limit, Boolean unread);
+    NotificationListResponseDto getUserNotifications(Integer userId, Integer page, Integer limit, Boolean unread,
+            String cursor);
 
     /**
      * Mark specific notification as read
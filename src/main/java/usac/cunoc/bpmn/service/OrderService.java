@@ -8,14 +8,16 @@ import usac.cunoc.bpmn.dto.order.*;
 public interface OrderService {
 
     /**
-     * Create a new order from user's shopping cart
+     * Create a new order from user's shopping cart. Requests repeated with the
+     * same idempotency key return the order created by the first one
      */
-    CreateOrderResponseDto createOrder(CreateOrderRequestDto request, Integer userId);
+    CreateOrderResponseDto createOrder(CreateOrderRequestDto request, Integer userId, String idempotencyKey);
 
     /**
-     * Get paginated list of user orders with optional status filter
+     * Get paginated list of user orders with optional status filter.
+     * A non-null cursor (empty for the first page) switches to keyset pagination
      */
-    OrderListResponseDto getUserOrders(Integer page, Integer limit, String status, Integer userId);
+    OrderListResponseDto getUserOrders(Integer page, Integer limit, String status, Integer userId, String cursor);
 
     /**
      * Get detailed information about a specific order
@@ -1,7 +1,7 @@
 package usac.cunoc.bpmn.service;
 
+import usac.cunoc.bpmn.dto.payment.PaymentStatusResponseDto;
 import usac.cunoc.bpmn.dto.payment.ProcessPaymentRequestDto;
-import usac.cunoc.bpmn.dto.payment.ProcessPaymentResponseDto;
 
 /**
  * Payment service interface for payment processing operations
@@ -9,11 +9,21 @@ import usac.cunoc.bpmn.dto.payment.ProcessPaymentResponseDto;
 public interface PaymentService {
 
     /**
-     * Process payment for an order and generate invoice
+     * Accept payment for an order; it is settled (charged and invoiced)
+     * asynchronously
      * 
      * @param request Payment processing request data
      * @param userId  Current authenticated user ID
-     * @return Payment processing response with invoice details
+     * @return Accepted payment with its settlement state
      */
-    ProcessPaymentResponseDto processPayment(ProcessPaymentRequestDto request, Integer userId);
+    PaymentStatusResponseDto processPayment(ProcessPaymentRequestDto request, Integer userId);
+
+    /**
+     * Get the state of a payment, with its invoice once settled
+     *
+     * @param paymentNumber Payment number
+     * @param userId        Current authenticated user ID
+     * @return Payment state
+     */
+    PaymentStatusResponseDto getPaymentStatus(String paymentNumber, Integer userId);
 }
\ No newline at end of file
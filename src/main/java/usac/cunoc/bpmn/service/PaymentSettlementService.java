@@ -0,0 +1,16 @@
+package usac.cunoc.bpmn.service;
+
+/**
+ * Payment settlement service interface - works off the payment outbox:
+ * charges accepted payments, issues their invoices and moves their orders to
+ * "Procesando" (which takes the stock by trigger)
+ */
+public interface PaymentSettlementService {
+
+    /**
+     * Settle due outbox entries on the worker pool
+     *
+     * @return Number of payments settled
+     */
+    int settlePendingPayments();
+}
@@ -0,0 +1,48 @@
+package usac.cunoc.bpmn.service;
+
+import lombok.Value;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Promotion eligibility index - which CD articles each promotion groups
+ * (cd_promotion_article) and which active promotions each article belongs
+ * to, answered without querying per article
+ */
+public interface PromotionEligibilityIndex {
+
+    /**
+     * Get the CD articles of a promotion
+     *
+     * @param promotionId Promotion ID
+     * @return Eligible articles, empty if the promotion has none
+     */
+    List<EligibleArticle> getEligibleArticles(Integer promotionId);
+
+    /**
+     * Get the active promotions an article belongs to
+     *
+     * @param articleId Article ID
+     * @return Active promotion IDs
+     */
+    List<Integer> getActivePromotionIds(Integer articleId);
+
+    /**
+     * Rebuild the index from cd_promotion_article
+     */
+    void refresh();
+
+    /**
+     * CD article grouped by a promotion, with the catalog data shown to
+     * customers
+     */
+    @Value
+    class EligibleArticle {
+
+        Integer id;
+        String title;
+        String artistName;
+        BigDecimal price;
+        String imageUrl;
+    }
+}
@@ -0,0 +1,79 @@
+package usac.cunoc.bpmn.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import usac.cunoc.bpmn.entity.CdPromotion;
+import usac.cunoc.bpmn.service.CartStore.CartLine;
+import usac.cunoc.bpmn.service.CartStore.CartState;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Promotion pricing engine - prices CD promotions against a whole cart in
+ * memory. The facts it needs (article type and genre of every cart line, and
+ * the candidate promotions) are loaded in one pass per call
+ */
+public interface PromotionPricingService {
+
+    /**
+     * Validate a promotion for the given cart articles and price it
+     *
+     * @param promotion  Promotion to apply
+     * @param cart       Current cart state
+     * @param articleIds Articles the promotion should apply to
+     * @return Promotion plan for those articles
+     */
+    PromotionPlan planPromotion(CdPromotion promotion, CartState cart, List<Integer> articleIds);
+
+    /**
+     * Find the active promotion that lowers the cart total the most, applied to
+     * its best eligible lines within the promotion's max items
+     *
+     * @param cart Current cart state
+     * @return Best promotion plan, empty if no promotion improves the cart
+     */
+    Optional<PromotionPlan> findBestPromotion(CartState cart);
+
+    /**
+     * Promotion assigned to a set of cart articles
+     */
+    @Data
+    @AllArgsConstructor
+    class PromotionPlan {
+
+        private CdPromotion promotion;
+        private List<Integer> articleIds;
+
+        /**
+         * Set the promotion and its discount on the planned lines, priced with
+         * the lines' current quantity and unit price
+         */
+        public void applyTo(CartState state) {
+            for (Integer articleId : articleIds) {
+                CartLine line = state.findLineByArticle(articleId)
+                        .orElseThrow(() -> new RuntimeException("Artículo " + articleId + " no está en el carrito"));
+                line.setDiscountApplied(discountFor(line, promotion));
+                line.setPromotionId(promotion.getId());
+            }
+        }
+
+        /**
+         * Total discount of the planned lines
+         */
+        public BigDecimal getTotalDiscount(CartState state) {
+            return articleIds.stream()
+                    .map(articleId -> state.findLineByArticle(articleId)
+                            .map(line -> discountFor(line, promotion))
+                            .orElse(BigDecimal.ZERO))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        public static BigDecimal discountFor(CartLine line, CdPromotion promotion) {
+            BigDecimal itemTotal = line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+            return itemTotal.multiply(promotion.getDiscountPercentage())
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        }
+    }
+}
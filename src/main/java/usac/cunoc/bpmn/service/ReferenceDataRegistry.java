@@ -0,0 +1,46 @@
+package usac.cunoc.bpmn.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reference data registry - statuses, methods, types, currencies and
+ * countries loaded once at startup and served from memory. Entries are
+ * detached entities shared by every caller: use them as associations or to
+ * read values, never modify them
+ */
+public interface ReferenceDataRegistry {
+
+    /**
+     * Find a reference entry by ID
+     *
+     * @param type Reference entity class (e.g. OrderStatus.class)
+     * @param id   Entry ID
+     * @return Entry, empty if there is none with that ID
+     */
+    <T> Optional<T> findById(Class<T> type, Integer id);
+
+    /**
+     * Find a reference entry by name
+     *
+     * @param type Reference entity class (e.g. OrderStatus.class)
+     * @param name Entry name, matched exactly
+     * @return Entry, empty if there is none with that name
+     */
+    <T> Optional<T> findByName(Class<T> type, String name);
+
+    /**
+     * Get every entry of a reference type ordered by ID
+     *
+     * @param type Reference entity class (e.g. Currency.class)
+     * @return Entries
+     */
+    <T> List<T> findAll(Class<T> type);
+
+    /**
+     * Reload every reference table from the database
+     *
+     * @return Number of entries loaded
+     */
+    int reload();
+}
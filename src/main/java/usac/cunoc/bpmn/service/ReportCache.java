@@ -0,0 +1,32 @@
+package usac.cunoc.bpmn.service;
+
+import usac.cunoc.bpmn.enums.ReportType;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Report cache - keeps computed admin reports per report type and request
+ * parameters for a per-type TTL. Expired reports are still returned while one
+ * background refresh recomputes them, and concurrent requests for the same
+ * report share a single computation
+ */
+public interface ReportCache {
+
+    /**
+     * Get a report, computing it if it is missing or too old
+     *
+     * @param type   Report type, selects the TTL
+     * @param params Normalized request parameters; equal lists share an entry
+     * @param loader Computes the report; runs on the cache's refresh pool
+     * @return Cached or freshly computed report
+     */
+    <T> T get(ReportType type, List<?> params, Supplier<T> loader);
+
+    /**
+     * Drop every cached report of a type, e.g. after its source data was rebuilt
+     * Inside a transaction the reports are dropped once it commits
+     *
+     * @param type Report type
+     */
+    void invalidate(ReportType type);
+}
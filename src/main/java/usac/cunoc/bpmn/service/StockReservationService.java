@@ -0,0 +1,49 @@
+package usac.cunoc.bpmn.service;
+
+import usac.cunoc.bpmn.entity.Order;
+import usac.cunoc.bpmn.entity.OrderItem;
+import java.util.List;
+
+/**
+ * Stock reservation service interface - holds article stock for pending
+ * orders so concurrent checkouts cannot claim the same units
+ */
+public interface StockReservationService {
+
+    /**
+     * Reserve stock for all items of a new order, all or nothing
+     *
+     * @param order      Pending order
+     * @param orderItems Items of the order with their articles
+     */
+    void reserveOrder(Order order, List<OrderItem> orderItems);
+
+    /**
+     * Consume the order's reservations as its stock is taken; items whose
+     * reservation already expired are reserved again if stock is still free
+     *
+     * @param order Order being paid
+     */
+    void confirmOrder(Order order);
+
+    /**
+     * Release the stock held by an order
+     *
+     * @param orderId Order ID
+     */
+    void releaseOrder(Integer orderId);
+
+    /**
+     * Release reservations whose hold time is over
+     */
+    void releaseExpiredReservations();
+
+    /**
+     * Stock that can still be sold: physical stock minus active reservations
+     *
+     * @param articleId     Article ID
+     * @param stockQuantity Physical stock of the article
+     * @return Available quantity
+     */
+    int getAvailableQuantity(Integer articleId, Integer stockQuantity);
+}
@@ -2,6 +2,7 @@ package usac.cunoc.bpmn.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.dto.admin.catalog.master.*;
@@ -9,13 +10,14 @@ import usac.cunoc.bpmn.entity.Artist;
 import usac.cunoc.bpmn.entity.Country;
 import usac.cunoc.bpmn.entity.MusicGenre;
 import usac.cunoc.bpmn.entity.VinylSpecialEdition;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
 import usac.cunoc.bpmn.exception.ResourceNotFoundException;
 import usac.cunoc.bpmn.exception.DuplicateResourceException;
 import usac.cunoc.bpmn.repository.ArtistRepository;
-import usac.cunoc.bpmn.repository.CountryRepository;
 import usac.cunoc.bpmn.repository.MusicGenreRepository;
 import usac.cunoc.bpmn.repository.VinylSpecialEditionRepository;
 import usac.cunoc.bpmn.service.AdminCatalogMasterService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.time.LocalDateTime;
 
 /**
@@ -30,9 +32,10 @@ import java.time.LocalDateTime;
 public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService {
 
     private final ArtistRepository artistRepository;
-    private final CountryRepository countryRepository;
     private final MusicGenreRepository musicGenreRepository;
     private final VinylSpecialEditionRepository vinylSpecialEditionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     public CreateArtistResponseDto createArtist(CreateArtistRequestDto request, Integer adminUserId) {
@@ -44,7 +47,7 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
         }
 
         // Validate country exists
-        Country country = countryRepository.findById(request.getCountry_id())
+        Country country = referenceDataRegistry.findById(Country.class, request.getCountry_id())
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Country not found with ID: " + request.getCountry_id()));
 
@@ -64,6 +67,8 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
 
         log.info("Artist created successfully with ID: {}", savedArtist.getId());
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
+
         // Build response
         return new CreateArtistResponseDto(
                 savedArtist.getId(),
@@ -93,7 +98,7 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
         }
 
         // Validate country exists
-        Country country = countryRepository.findById(request.getCountry_id())
+        Country country = referenceDataRegistry.findById(Country.class, request.getCountry_id())
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Country not found with ID: " + request.getCountry_id()));
 
@@ -111,6 +116,8 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
 
         log.info("Artist updated successfully with ID: {}", updatedArtist.getId());
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
+
         // Build response
         return new UpdateArtistResponseDto(
                 updatedArtist.getId(),
@@ -137,6 +144,8 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
 
         log.info("Artist deleted successfully with ID: {}", artistId);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
+
         // Build response
         return new DeleteArtistResponseDto(
                 artistId,
@@ -164,6 +173,8 @@ public class AdminCatalogMasterServiceImpl implements AdminCatalogMasterService
 
         log.info("Genre created successfully with ID: {}", savedGenre.getId());
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
+
         // Build response
         return new CreateGenreResponseDto(
                 savedGenre.getId(),
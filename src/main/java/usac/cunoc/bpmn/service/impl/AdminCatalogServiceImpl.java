@@ -2,6 +2,7 @@ package usac.cunoc.bpmn.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,10 +14,10 @@ import usac.cunoc.bpmn.dto.catalog.ArticleDetailResponseDto;
 import usac.cunoc.bpmn.dto.catalog.CatalogArticlesResponseDto;
 import usac.cunoc.bpmn.dto.common.PaginationDto;
 import usac.cunoc.bpmn.entity.*;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
 import usac.cunoc.bpmn.repository.AnalogArticleRepository;
 import usac.cunoc.bpmn.repository.ArtistRepository;
 import usac.cunoc.bpmn.repository.MusicGenreRepository;
-import usac.cunoc.bpmn.repository.CurrencyRepository;
 import usac.cunoc.bpmn.repository.VinylRepository;
 import usac.cunoc.bpmn.repository.VinylCategoryRepository;
 import usac.cunoc.bpmn.repository.VinylSpecialEditionRepository;
@@ -24,11 +25,12 @@ import usac.cunoc.bpmn.repository.CassetteRepository;
 import usac.cunoc.bpmn.repository.CassetteCategoryRepository;
 import usac.cunoc.bpmn.repository.CdRepository;
 import usac.cunoc.bpmn.repository.StockMovementRepository;
-import usac.cunoc.bpmn.repository.MovementTypeRepository;
-import usac.cunoc.bpmn.repository.MovementReferenceTypeRepository;
 import usac.cunoc.bpmn.repository.UserRepository;
 import usac.cunoc.bpmn.service.AdminCatalogService;
+import usac.cunoc.bpmn.service.ArticleDetailService;
+import usac.cunoc.bpmn.service.ArticleTypeService;
 import usac.cunoc.bpmn.service.CatalogService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -46,7 +48,6 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
     private final AnalogArticleRepository analogArticleRepository;
     private final ArtistRepository artistRepository;
     private final MusicGenreRepository musicGenreRepository;
-    private final CurrencyRepository currencyRepository;
     private final VinylRepository vinylRepository;
     private final VinylCategoryRepository vinylCategoryRepository;
     private final VinylSpecialEditionRepository vinylSpecialEditionRepository;
@@ -54,10 +55,12 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
     private final CassetteCategoryRepository cassetteCategoryRepository;
     private final CdRepository cdRepository;
     private final StockMovementRepository stockMovementRepository;
-    private final MovementTypeRepository movementTypeRepository;
-    private final MovementReferenceTypeRepository movementReferenceTypeRepository;
     private final UserRepository userRepository;
     private final CatalogService catalogService;
+    private final ArticleDetailService articleDetailService;
+    private final ArticleTypeService articleTypeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     @Transactional
@@ -69,7 +72,7 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         MusicGenre genre = musicGenreRepository.findById(request.getMusic_genre_id())
                 .orElseThrow(() -> new RuntimeException("Género musical no encontrado"));
 
-        Currency currency = currencyRepository.findById(request.getCurrency_id())
+        Currency currency = referenceDataRegistry.findById(Currency.class, request.getCurrency_id())
                 .orElseThrow(() -> new RuntimeException("Moneda no encontrada"));
 
         // Create main article
@@ -105,6 +108,8 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
             createInitialStockMovement(savedArticle, request.getStock_quantity(), adminUserId);
         }
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedArticle.getId()));
+
         return new CreateArticleResponseDto(
                 savedArticle.getId(),
                 savedArticle.getTitle(),
@@ -114,7 +119,7 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
 
     @Override
     public ArticleDetailResponseDto getArticleById(Integer articleId) {
-        return catalogService.getArticleById(articleId);
+        return articleDetailService.getArticleDetail(articleId);
     }
 
     @Override
@@ -131,7 +136,7 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         MusicGenre genre = musicGenreRepository.findById(request.getMusic_genre_id())
                 .orElseThrow(() -> new RuntimeException("Género musical no encontrado"));
 
-        Currency currency = currencyRepository.findById(request.getCurrency_id())
+        Currency currency = referenceDataRegistry.findById(Currency.class, request.getCurrency_id())
                 .orElseThrow(() -> new RuntimeException("Moneda no encontrada"));
 
         // Update fields
@@ -156,6 +161,8 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         analogArticleRepository.save(article);
         log.info("Updated article with ID: {}", articleId);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(articleId));
+
         return getArticleById(articleId);
     }
 
@@ -170,6 +177,8 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         analogArticleRepository.save(article);
 
         log.info("Soft deleted article with ID: {} by admin user: {}", articleId, adminUserId);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(articleId));
     }
 
     @Override
@@ -178,7 +187,7 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
 
         // Use catalog service but without availability filter for admin
         return catalogService.getArticles(page, limit, search, genreId, artistId,
-                null, null, type, null, isAvailable);
+                null, null, type, null, isAvailable, null);
     }
 
     @Override
@@ -195,12 +204,12 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
                 .orElseThrow(() -> new RuntimeException("Usuario administrador no encontrado"));
 
         // Get movement type (Entrada/Salida)
-        MovementType movementType = movementTypeRepository.findByName(request.getMovement_type())
+        MovementType movementType = referenceDataRegistry.findByName(MovementType.class, request.getMovement_type())
                 .orElseThrow(
                         () -> new RuntimeException("Tipo de movimiento no encontrado: " + request.getMovement_type()));
 
         // Get movement reference type
-        MovementReferenceType referenceType = movementReferenceTypeRepository.findByName(request.getReference_type())
+        MovementReferenceType referenceType = referenceDataRegistry.findByName(MovementReferenceType.class, request.getReference_type())
                 .orElseThrow(
                         () -> new RuntimeException("Tipo de referencia no encontrado: " + request.getReference_type()));
 
@@ -218,6 +227,9 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         StockMovement savedMovement = stockMovementRepository.save(movement);
         log.info("Created stock movement with ID: {} for article: {}", savedMovement.getId(), articleId);
 
+        // Stock triggers may flip availability (e.g. sold-out limited editions)
+        eventPublisher.publishEvent(new CatalogChangedEvent(articleId));
+
         return new StockMovementResponseDto(
                 savedMovement.getId(),
                 articleId,
@@ -243,10 +255,16 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         Page<StockMovement> movementPage = stockMovementRepository.findMovementsWithFilters(
                 articleId, movementType, dateFrom, dateTo, pageable);
 
+        // Resolve article types for the whole page in one query
+        Map<Integer, String> articleTypes = articleTypeService.resolveTypes(movementPage.getContent().stream()
+                .filter(movement -> movement.getAnalogArticle() != null)
+                .map(movement -> movement.getAnalogArticle().getId())
+                .collect(Collectors.toList()));
+
         // Map to DTOs
         List<StockMovementListResponseDto.StockMovementItemDto> movements = movementPage.getContent()
                 .stream()
-                .map(this::mapToMovementItemDto)
+                .map(movement -> mapToMovementItemDto(movement, articleTypes))
                 .collect(Collectors.toList());
 
         // Build pagination
@@ -398,11 +416,11 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
     private void createInitialStockMovement(AnalogArticle article, Integer quantity, Integer adminUserId) {
         try {
             // Get "Entrada" movement type
-            MovementType entryType = movementTypeRepository.findByName("Entrada")
+            MovementType entryType = referenceDataRegistry.findByName(MovementType.class, "Entrada")
                     .orElseThrow(() -> new RuntimeException("Tipo de movimiento 'Entrada' no encontrado"));
 
             // Get "Inventario Inicial" reference type
-            MovementReferenceType initialInventory = movementReferenceTypeRepository.findByName("Inventario Inicial")
+            MovementReferenceType initialInventory = referenceDataRegistry.findByName(MovementReferenceType.class, "Inventario Inicial")
                     .orElseThrow(() -> new RuntimeException("Tipo de referencia 'Inventario Inicial' no encontrado"));
 
             // Get admin user
@@ -427,7 +445,8 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         }
     }
 
-    private StockMovementListResponseDto.StockMovementItemDto mapToMovementItemDto(StockMovement movement) {
+    private StockMovementListResponseDto.StockMovementItemDto mapToMovementItemDto(StockMovement movement,
+            Map<Integer, String> articleTypes) {
         StockMovementListResponseDto.StockMovementItemDto dto = new StockMovementListResponseDto.StockMovementItemDto();
 
         dto.setId(movement.getId());
@@ -443,7 +462,7 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
         // Article info
         if (movement.getAnalogArticle() != null) {
             AnalogArticle article = movement.getAnalogArticle();
-            String type = determineArticleType(article.getId());
+            String type = articleTypes.getOrDefault(article.getId(), "unknown");
 
             dto.setArticle(new StockMovementListResponseDto.ArticleInfoDto(
                     article.getId(),
@@ -461,15 +480,4 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
 
         return dto;
     }
-
-    private String determineArticleType(Integer articleId) {
-        if (vinylRepository.existsByAnalogArticleId(articleId)) {
-            return "vinyl";
-        } else if (cassetteRepository.existsByAnalogArticleId(articleId)) {
-            return "cassette";
-        } else if (cdRepository.existsByAnalogArticleId(articleId)) {
-            return "cd";
-        }
-        return "unknown";
-    }
 }
\ No newline at end of file
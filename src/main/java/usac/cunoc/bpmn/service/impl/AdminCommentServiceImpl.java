@@ -13,6 +13,7 @@ import usac.cunoc.bpmn.dto.common.PaginationDto;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.AdminCommentService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,8 +28,8 @@ import java.util.stream.Collectors;
 public class AdminCommentServiceImpl implements AdminCommentService {
 
         private final ArticleCommentRepository articleCommentRepository;
-        private final CommentStatusRepository commentStatusRepository;
         private final UserRepository userRepository;
+        private final ReferenceDataRegistry referenceDataRegistry;
 
         @Override
         @Transactional
@@ -45,7 +46,7 @@ public class AdminCommentServiceImpl implements AdminCommentService {
                                 .orElseThrow(() -> new RuntimeException("Usuario administrador no encontrado"));
 
                 // Get "Eliminado" status (ID 2 according to SQL data)
-                CommentStatus deletedStatus = commentStatusRepository.findByName("Eliminado")
+                CommentStatus deletedStatus = referenceDataRegistry.findByName(CommentStatus.class, "Eliminado")
                                 .orElseThrow(() -> new RuntimeException("Estado 'Eliminado' no encontrado"));
 
                 // Update comment as deleted
@@ -118,7 +119,7 @@ public class AdminCommentServiceImpl implements AdminCommentService {
                                 .orElseThrow(() -> new RuntimeException("Comentario no encontrado"));
 
                 // Get "Reportado" status (ID 3 according to SQL data)
-                CommentStatus reportedStatus = commentStatusRepository.findByName("Reportado")
+                CommentStatus reportedStatus = referenceDataRegistry.findByName(CommentStatus.class, "Reportado")
                                 .orElseThrow(() -> new RuntimeException("Estado 'Reportado' no encontrado"));
 
                 // Update comment as reported
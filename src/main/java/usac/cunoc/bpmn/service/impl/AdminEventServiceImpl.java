@@ -9,6 +9,7 @@ import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.exception.BusinessValidationException;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.AdminEventService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.time.LocalDateTime;
 
 /**
@@ -22,9 +23,9 @@ import java.time.LocalDateTime;
 public class AdminEventServiceImpl implements AdminEventService {
 
     private final EventRepository eventRepository;
-    private final EventStatusRepository eventStatusRepository;
     private final AnalogArticleRepository analogArticleRepository;
     private final UserRepository userRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     public CreateEventResponseDto createEvent(CreateEventRequestDto request, Integer adminUserId) {
@@ -35,7 +36,7 @@ public class AdminEventServiceImpl implements AdminEventService {
                 .orElseThrow(() -> new RuntimeException("Admin user not found"));
 
         // Get default event status (assuming "Programado" is default)
-        EventStatus defaultStatus = eventStatusRepository.findByName("Programado")
+        EventStatus defaultStatus = referenceDataRegistry.findByName(EventStatus.class, "Programado")
                 .orElseThrow(() -> new RuntimeException("Default event status 'Programado' not found"));
 
         // Validate article exists if provided
@@ -2,6 +2,7 @@ package usac.cunoc.bpmn.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.dto.promotion.CreatePromotionRequestDto;
@@ -9,6 +10,7 @@ import usac.cunoc.bpmn.dto.promotion.CreatePromotionResponseDto;
 import usac.cunoc.bpmn.dto.promotion.UpdatePromotionRequestDto;
 import usac.cunoc.bpmn.dto.promotion.UpdatePromotionResponseDto;
 import usac.cunoc.bpmn.entity.*;
+import usac.cunoc.bpmn.event.PromotionChangedEvent;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.AdminPromotionService;
 import java.time.LocalDateTime;
@@ -30,6 +32,7 @@ public class AdminPromotionServiceImpl implements AdminPromotionService {
     private final AnalogArticleRepository analogArticleRepository;
     private final CdRepository cdRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -74,6 +77,7 @@ public class AdminPromotionServiceImpl implements AdminPromotionService {
 
         // Create promotion-article associations
         createPromotionArticleAssociations(savedPromotion, request.getArticle_ids());
+        eventPublisher.publishEvent(new PromotionChangedEvent(savedPromotion.getId()));
 
         // Build response
         CreatePromotionResponseDto.promotion_typeDto promotionTypeDto = new CreatePromotionResponseDto.promotion_typeDto(
@@ -122,6 +126,7 @@ public class AdminPromotionServiceImpl implements AdminPromotionService {
 
         // Update promotion-article associations
         updatePromotionArticleAssociations(promotion, request.getArticle_ids());
+        eventPublisher.publishEvent(new PromotionChangedEvent(promotionId));
 
         log.info("Updated CD promotion ID: {}", promotionId);
 
@@ -149,6 +154,7 @@ public class AdminPromotionServiceImpl implements AdminPromotionService {
 
         // Delete the promotion
         cdPromotionRepository.delete(promotion);
+        eventPublisher.publishEvent(new PromotionChangedEvent(promotionId));
 
         log.info("Deleted CD promotion ID: {}", promotionId);
     }
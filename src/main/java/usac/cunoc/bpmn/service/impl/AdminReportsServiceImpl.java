@@ -3,10 +3,14 @@ package usac.cunoc.bpmn.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import usac.cunoc.bpmn.dto.admin.reports.*;
+import usac.cunoc.bpmn.enums.ReportType;
 import usac.cunoc.bpmn.repository.AdminReportsRepository;
 import usac.cunoc.bpmn.service.AdminReportsService;
+import usac.cunoc.bpmn.service.ReportCache;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.Timestamp;
@@ -14,17 +18,22 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 /**
  * Admin reports service implementation for generating business analytics
+ * Reports are served through the report cache; the queries run on the cache's
+ * refresh pool inside a read-only transaction
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class AdminReportsServiceImpl implements AdminReportsService {
 
     private final AdminReportsRepository adminReportsRepository;
+    private final ReportCache reportCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public SalesReportResponseDto getSalesReport(SalesReportRequestDto request) {
@@ -33,7 +42,88 @@ public class AdminReportsServiceImpl implements AdminReportsService {
 
         validateDateRange(request.getStart_date(), request.getEnd_date());
         validateGroupBy(request.getGroup_by());
+        request.setGroup_by(request.getGroup_by().trim().toLowerCase(Locale.ROOT));
 
+        return cached(ReportType.SALES,
+                List.of(request.getStart_date(), request.getEnd_date(), request.getGroup_by()),
+                () -> buildSalesReport(request));
+    }
+
+    @Override
+    public TopArticlesResponseDto getTopArticles(TopArticlesRequestDto request) {
+        log.info("Generating top articles report for {} days, limit: {}", request.getPeriod(), request.getLimit());
+
+        validateLimit(request.getLimit());
+        Integer periodDays = parsePeriodDays(request.getPeriod());
+
+        return cached(ReportType.TOP_ARTICLES, List.of(periodDays, request.getLimit()),
+                () -> buildTopArticlesReport(periodDays, request.getLimit()));
+    }
+
+    @Override
+    public TopCustomersResponseDto getTopCustomers(TopCustomersRequestDto request) {
+        log.info("Generating top customers report, limit: {}", request.getLimit());
+
+        validateLimit(request.getLimit());
+        String periodDescription = buildPeriodDescription(request.getPeriod());
+
+        return cached(ReportType.TOP_CUSTOMERS, List.of(periodDescription, request.getLimit()),
+                () -> buildTopCustomersReport(periodDescription, request.getLimit()));
+    }
+
+    @Override
+    public TopRatedResponseDto getTopRatedArticles(TopRatedRequestDto request) {
+        log.info("Generating top rated articles report with min ratings: {}, limit: {}",
+                request.getMin_ratings(), request.getLimit());
+
+        validateMinRatings(request.getMin_ratings());
+        validateLimit(request.getLimit());
+
+        return cached(ReportType.TOP_RATED, List.of(request.getMin_ratings(), request.getLimit()),
+                () -> buildTopRatedReport(request.getMin_ratings(), request.getLimit()));
+    }
+
+    @Override
+    public InventoryResponseDto getInventoryReport() {
+        log.info("Generating inventory report");
+
+        return cached(ReportType.INVENTORY, List.of(), this::buildInventoryReport);
+    }
+
+    @Override
+    public StockAlertsResponseDto getStockAlerts() {
+        log.info("Generating stock alerts report");
+
+        return cached(ReportType.STOCK_ALERTS, List.of(), this::buildStockAlertsReport);
+    }
+
+    @Override
+    @Transactional
+    public int refreshDailySales(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Las fechas de inicio y fin son requeridas");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+
+        int rows = adminReportsRepository.refreshDailySalesFact(startDate, endDate);
+        reportCache.invalidate(ReportType.SALES);
+        log.info("Daily sales rollup rebuilt from {} to {}: {} rows", startDate, endDate, rows);
+        return rows;
+    }
+
+    /**
+     * Get a report from the cache, computing it in a read-only transaction
+     */
+    private <T> T cached(ReportType type, List<?> params, Supplier<T> builder) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return reportCache.get(type, params, () -> readOnly.execute(status -> builder.get()));
+    }
+
+    // Report builders
+    private SalesReportResponseDto buildSalesReport(SalesReportRequestDto request) {
         LocalDateTime startDateTime = request.getStart_date().atStartOfDay();
         LocalDateTime endDateTime = request.getEnd_date().atTime(23, 59, 59);
 
@@ -55,22 +145,16 @@ public class AdminReportsServiceImpl implements AdminReportsService {
             SalesReportResponseDto.PeriodDto period = new SalesReportResponseDto.PeriodDto(
                     request.getStart_date(), request.getEnd_date(), request.getGroup_by());
 
-            return new SalesReportResponseDto(period, summary, salesByPeriod, salesByType);
+            return new SalesReportResponseDto(period, summary, salesByPeriod, salesByType, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating sales report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de ventas: " + e.getMessage());
         }
     }
 
-    @Override
-    public TopArticlesResponseDto getTopArticles(TopArticlesRequestDto request) {
-        log.info("Generating top articles report for {} days, limit: {}", request.getPeriod(), request.getLimit());
-
-        validateLimit(request.getLimit());
-        Integer periodDays = parsePeriodDays(request.getPeriod());
-
+    private TopArticlesResponseDto buildTopArticlesReport(Integer periodDays, Integer limit) {
         try {
-            List<Object[]> articlesData = adminReportsRepository.getTopSellingArticles(periodDays, request.getLimit());
+            List<Object[]> articlesData = adminReportsRepository.getTopSellingArticles(periodDays, limit);
 
             List<TopArticlesResponseDto.TopArticleDto> topArticles = new ArrayList<>();
             for (int i = 0; i < articlesData.size(); i++) {
@@ -81,22 +165,17 @@ public class AdminReportsServiceImpl implements AdminReportsService {
                 }
             }
 
-            String periodDescription = buildPeriodDescription(request.getPeriod());
-            return new TopArticlesResponseDto(periodDescription, topArticles);
+            String periodDescription = buildPeriodDescription(String.valueOf(periodDays));
+            return new TopArticlesResponseDto(periodDescription, topArticles, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating top articles report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de artículos más vendidos: " + e.getMessage());
         }
     }
 
-    @Override
-    public TopCustomersResponseDto getTopCustomers(TopCustomersRequestDto request) {
-        log.info("Generating top customers report, limit: {}", request.getLimit());
-
-        validateLimit(request.getLimit());
-
+    private TopCustomersResponseDto buildTopCustomersReport(String periodDescription, Integer limit) {
         try {
-            List<Object[]> customersData = adminReportsRepository.getTopCustomers(request.getLimit());
+            List<Object[]> customersData = adminReportsRepository.getTopCustomers(limit);
 
             List<TopCustomersResponseDto.TopCustomerDto> topCustomers = new ArrayList<>();
             for (int i = 0; i < customersData.size(); i++) {
@@ -107,25 +186,16 @@ public class AdminReportsServiceImpl implements AdminReportsService {
                 }
             }
 
-            String periodDescription = buildPeriodDescription(request.getPeriod());
-            return new TopCustomersResponseDto(periodDescription, topCustomers);
+            return new TopCustomersResponseDto(periodDescription, topCustomers, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating top customers report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de mejores clientes: " + e.getMessage());
         }
     }
 
-    @Override
-    public TopRatedResponseDto getTopRatedArticles(TopRatedRequestDto request) {
-        log.info("Generating top rated articles report with min ratings: {}, limit: {}",
-                request.getMin_ratings(), request.getLimit());
-
-        validateMinRatings(request.getMin_ratings());
-        validateLimit(request.getLimit());
-
+    private TopRatedResponseDto buildTopRatedReport(Integer minRatings, Integer limit) {
         try {
-            List<Object[]> articlesData = adminReportsRepository.getTopRatedArticles(
-                    request.getMin_ratings(), request.getLimit());
+            List<Object[]> articlesData = adminReportsRepository.getTopRatedArticles(minRatings, limit);
 
             List<TopRatedResponseDto.TopRatedArticleDto> topRatedArticles = new ArrayList<>();
             for (int i = 0; i < articlesData.size(); i++) {
@@ -136,20 +206,16 @@ public class AdminReportsServiceImpl implements AdminReportsService {
                 }
             }
 
-            TopRatedResponseDto.CriteriaDto criteria = new TopRatedResponseDto.CriteriaDto(
-                    request.getMin_ratings(), request.getLimit());
+            TopRatedResponseDto.CriteriaDto criteria = new TopRatedResponseDto.CriteriaDto(minRatings, limit);
 
-            return new TopRatedResponseDto(criteria, topRatedArticles);
+            return new TopRatedResponseDto(criteria, topRatedArticles, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating top rated articles report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de artículos mejor calificados: " + e.getMessage());
         }
     }
 
-    @Override
-    public InventoryResponseDto getInventoryReport() {
-        log.info("Generating inventory report");
-
+    private InventoryResponseDto buildInventoryReport() {
         try {
             // Get inventory summary
             Object[] summaryData = adminReportsRepository.getInventorySummary();
@@ -163,17 +229,14 @@ public class AdminReportsServiceImpl implements AdminReportsService {
             List<Object[]> genreData = adminReportsRepository.getInventoryByGenre();
             List<InventoryResponseDto.GenreInventoryDto> byGenre = buildInventoryByGenre(genreData);
 
-            return new InventoryResponseDto(summary, byType, byGenre);
+            return new InventoryResponseDto(summary, byType, byGenre, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating inventory report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de inventario: " + e.getMessage());
         }
     }
 
-    @Override
-    public StockAlertsResponseDto getStockAlerts() {
-        log.info("Generating stock alerts report");
-
+    private StockAlertsResponseDto buildStockAlertsReport() {
         try {
             List<Object[]> alertsData = adminReportsRepository.getStockAlerts();
 
@@ -186,7 +249,7 @@ public class AdminReportsServiceImpl implements AdminReportsService {
                 }
             }
 
-            return new StockAlertsResponseDto(alerts);
+            return new StockAlertsResponseDto(alerts, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error generating stock alerts report: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte de alertas de stock: " + e.getMessage());
@@ -238,6 +301,10 @@ public class AdminReportsServiceImpl implements AdminReportsService {
 
     // Helper methods for building DTOs
     private SalesReportResponseDto.SummaryDto buildSummary(Object[] data) {
+        // A single-row native query comes back wrapped in an outer array
+        if (data != null && data.length == 1 && data[0] instanceof Object[] row) {
+            data = row;
+        }
         if (data == null || data.length < 4) {
             return new SalesReportResponseDto.SummaryDto(
                     BigDecimal.ZERO, 0, BigDecimal.ZERO, 0);
@@ -0,0 +1,198 @@
+package usac.cunoc.bpmn.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import usac.cunoc.bpmn.config.CacheConfig;
+import usac.cunoc.bpmn.dto.catalog.ArticleDetailResponseDto;
+import usac.cunoc.bpmn.dto.catalog.ArticleTypeDetailsDto;
+import usac.cunoc.bpmn.entity.*;
+import usac.cunoc.bpmn.event.ArticleStatsChangedEvent;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
+import usac.cunoc.bpmn.repository.AnalogArticleRepository;
+import usac.cunoc.bpmn.service.ArticleDetailService;
+import usac.cunoc.bpmn.service.StockReservationService;
+import java.util.List;
+
+/**
+ * Article detail service implementation - the product page is read far more
+ * often than it changes, so each article's detail is cached as serialized JSON
+ * until an admin edit, stock movement, stock hold or rating change touches it
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleDetailServiceImpl implements ArticleDetailService {
+
+    private final AnalogArticleRepository analogArticleRepository;
+    private final ObjectMapper objectMapper;
+    private final StockReservationService stockReservationService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArticleDetailResponseDto getArticleDetail(Integer articleId) {
+        List<Object[]> rows = analogArticleRepository.findDetailGraphById(articleId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Artículo no encontrado");
+        }
+
+        Object[] row = rows.get(0);
+        return mapToArticleDetailDto((AnalogArticle) row[0], (Vinyl) row[1], (Cassette) row[2], (Cd) row[3]);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ARTICLE_DETAIL, key = "#articleId")
+    public RawValue getArticleDetailJson(Integer articleId) {
+        ArticleDetailResponseDto detail = getArticleDetail(articleId);
+        // The product page shows sellable stock, like the catalog and the cart;
+        // StockReservationServiceImpl evicts the entry when holds change
+        detail.setStock_quantity(stockReservationService.getAvailableQuantity(articleId, detail.getStock_quantity()));
+        try {
+            SerializedString json = new SerializedString(objectMapper.writeValueAsString(detail));
+            // Encode once so every cache hit copies the UTF-8 bytes directly
+            json.asUnquotedUTF8();
+            return new RawValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar el detalle del artículo", e);
+        }
+    }
+
+    /**
+     * Evict the detail of the changed article once the change has been
+     * committed, or every entry when the change is not article-specific
+     * (e.g. artist edits shown on several product pages)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ARTICLE_DETAIL, key = "#event.articleId",
+                    condition = "#event.articleId != null"),
+            @CacheEvict(cacheNames = CacheConfig.ARTICLE_DETAIL, allEntries = true,
+                    condition = "#event.articleId == null")
+    })
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Catalog changed (article: {}), evicting article detail", event.getArticleId());
+    }
+
+    /**
+     * Evict the detail of an article whose stock or rating stats changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = CacheConfig.ARTICLE_DETAIL, key = "#event.articleId")
+    public void onArticleStatsChanged(ArticleStatsChangedEvent event) {
+        log.debug("Stats changed for article {}, evicting article detail", event.getArticleId());
+    }
+
+    private ArticleDetailResponseDto mapToArticleDetailDto(AnalogArticle article, Vinyl vinyl,
+            Cassette cassette, Cd cd) {
+        ArticleDetailResponseDto dto = new ArticleDetailResponseDto();
+        dto.setId(article.getId());
+        dto.setTitle(article.getTitle());
+        dto.setDescription(article.getDescription());
+        dto.setPrice(article.getPrice());
+        dto.setDimensions(article.getDimensions());
+        dto.setWeight_grams(article.getWeightGrams());
+        dto.setBarcode(article.getBarcode());
+        dto.setRelease_date(article.getReleaseDate());
+        dto.setImage_url(article.getImageUrl());
+        dto.setStock_quantity(article.getStockQuantity());
+        dto.setIs_available(article.getIsAvailable());
+        dto.setIs_preorder(article.getIsPreorder());
+        dto.setPre_order_release_date(article.getPreorderReleaseDate());
+        dto.setPre_order_end_date(article.getPreorderEndDate());
+        dto.setAverage_rating(article.getAverageRating());
+        dto.setTotal_ratings(article.getTotalRatings());
+
+        // Artist info
+        if (article.getArtist() != null) {
+            Artist artist = article.getArtist();
+            dto.setArtist(new ArticleDetailResponseDto.ArtistDetailDto(
+                    artist.getId(),
+                    artist.getName(),
+                    artist.getBiography(),
+                    artist.getFormationDate(),
+                    artist.getCareerStartDate(),
+                    artist.getIsBand(),
+                    artist.getWebsite()));
+        }
+
+        // Currency info
+        if (article.getCurrency() != null) {
+            dto.setCurrency(new ArticleDetailResponseDto.CurrencyDto(
+                    article.getCurrency().getCode(),
+                    article.getCurrency().getSymbol()));
+        }
+
+        // Genre info
+        if (article.getMusicGenre() != null) {
+            dto.setGenre(new ArticleDetailResponseDto.GenreDto(
+                    article.getMusicGenre().getId(),
+                    article.getMusicGenre().getName(),
+                    article.getMusicGenre().getDescription()));
+        }
+
+        // Type and type-specific details from whichever subtype row was joined
+        if (vinyl != null) {
+            dto.setType("vinyl");
+            dto.setType_details(mapVinylDetails(vinyl));
+        } else if (cassette != null) {
+            dto.setType("cassette");
+            dto.setType_details(mapCassetteDetails(cassette));
+        } else if (cd != null) {
+            dto.setType("cd");
+            dto.setType_details(mapCdDetails(cd));
+        } else {
+            dto.setType("unknown");
+        }
+
+        return dto;
+    }
+
+    private ArticleTypeDetailsDto.VinylDetails mapVinylDetails(Vinyl vinyl) {
+        VinylCategory category = vinyl.getVinylCategory();
+        VinylSpecialEdition specialEdition = vinyl.getVinylSpecialEdition();
+
+        return new ArticleTypeDetailsDto.VinylDetails(
+                vinyl.getRpm(),
+                vinyl.getIsLimitedEdition(),
+                vinyl.getRemainingLimitedStock(),
+                category != null
+                        ? new ArticleTypeDetailsDto.VinylCategoryInfo(
+                                category.getId(), category.getSize(), category.getDescription())
+                        : null,
+                specialEdition != null
+                        ? new ArticleTypeDetailsDto.SpecialEditionInfo(
+                                specialEdition.getId(), specialEdition.getName(),
+                                specialEdition.getColor(), specialEdition.getMaterialDescription())
+                        : null);
+    }
+
+    private ArticleTypeDetailsDto.CassetteDetails mapCassetteDetails(Cassette cassette) {
+        CassetteCategory category = cassette.getCassetteCategory();
+
+        return new ArticleTypeDetailsDto.CassetteDetails(
+                cassette.getBrand(),
+                cassette.getIsChromeTape(),
+                category != null
+                        ? new ArticleTypeDetailsDto.CassetteCategoryInfo(
+                                category.getId(), category.getName(),
+                                category.getDiscountPercentage(), category.getDescription())
+                        : null);
+    }
+
+    private ArticleTypeDetailsDto.CdDetails mapCdDetails(Cd cd) {
+        return new ArticleTypeDetailsDto.CdDetails(
+                cd.getDiscCount(),
+                cd.getHasBonusContent(),
+                cd.getIsRemastered());
+    }
+}
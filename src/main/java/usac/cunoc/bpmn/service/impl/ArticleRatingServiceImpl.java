@@ -2,6 +2,7 @@ package usac.cunoc.bpmn.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.dto.rating.CreateRatingRequestDto;
@@ -12,6 +13,7 @@ import usac.cunoc.bpmn.dto.rating.UpdateRatingResponseDto;
 import usac.cunoc.bpmn.entity.AnalogArticle;
 import usac.cunoc.bpmn.entity.ArticleRating;
 import usac.cunoc.bpmn.entity.User;
+import usac.cunoc.bpmn.event.ArticleStatsChangedEvent;
 import usac.cunoc.bpmn.repository.AnalogArticleRepository;
 import usac.cunoc.bpmn.repository.ArticleRatingRepository;
 import usac.cunoc.bpmn.repository.OrderItemRepository;
@@ -35,6 +37,7 @@ public class ArticleRatingServiceImpl implements ArticleRatingService {
     private final AnalogArticleRepository analogArticleRepository;
     private final UserRepository userRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -70,6 +73,9 @@ public class ArticleRatingServiceImpl implements ArticleRatingService {
 
         log.info("Rating created successfully with ID: {}", savedRating.getId());
 
+        // Rating stats are recalculated by trigger, so the cached detail is stale
+        eventPublisher.publishEvent(new ArticleStatsChangedEvent(articleId));
+
         return new CreateRatingResponseDto(
                 savedRating.getId(),
                 articleId,
@@ -108,6 +114,8 @@ public class ArticleRatingServiceImpl implements ArticleRatingService {
 
         log.info("Rating updated successfully: {}", ratingId);
 
+        eventPublisher.publishEvent(new ArticleStatsChangedEvent(articleId));
+
         return new UpdateRatingResponseDto(
                 updatedRating.getId(),
                 updatedRating.getRating(),
@@ -139,6 +147,8 @@ public class ArticleRatingServiceImpl implements ArticleRatingService {
         LocalDateTime deletedAt = LocalDateTime.now();
         log.info("Rating deleted successfully: {}", ratingId);
 
+        eventPublisher.publishEvent(new ArticleStatsChangedEvent(articleId));
+
         return new DeleteRatingResponseDto(
                 ratingId,
                 articleId,
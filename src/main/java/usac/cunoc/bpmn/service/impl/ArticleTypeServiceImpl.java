@@ -0,0 +1,69 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.repository.AnalogArticleRepository;
+import usac.cunoc.bpmn.service.ArticleTypeService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Article type service implementation - resolves vinyl/cassette/cd types for
+ * a whole page of articles with one query instead of one exists probe per
+ * type and article
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ArticleTypeServiceImpl implements ArticleTypeService {
+
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    private final AnalogArticleRepository analogArticleRepository;
+
+    @Override
+    public String resolveType(Integer articleId) {
+        if (articleId == null) {
+            return UNKNOWN_TYPE;
+        }
+        return resolveTypes(List.of(articleId)).getOrDefault(articleId, UNKNOWN_TYPE);
+    }
+
+    @Override
+    public Map<Integer, String> resolveTypes(Collection<Integer> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<Integer> distinctIds = new HashSet<>(articleIds);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, String> types = new HashMap<>();
+        for (Object[] row : analogArticleRepository.findArticleTypesByIds(distinctIds)) {
+            types.put(((Number) row[0]).intValue(), Objects.toString(row[1], UNKNOWN_TYPE));
+        }
+
+        // Articles without a row (should not happen) are reported as unknown
+        for (Integer articleId : distinctIds) {
+            if (!types.containsKey(articleId)) {
+                log.warn("Article with ID {} does not exist in any specific type table (vinyl/cassette/cd)",
+                        articleId);
+                types.put(articleId, UNKNOWN_TYPE);
+            }
+        }
+
+        return types;
+    }
+}
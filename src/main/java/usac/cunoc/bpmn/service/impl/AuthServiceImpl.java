@@ -17,10 +17,10 @@ import usac.cunoc.bpmn.entity.UserType;
 import usac.cunoc.bpmn.repository.GenderRepository;
 import usac.cunoc.bpmn.repository.PasswordResetTokenRepository;
 import usac.cunoc.bpmn.repository.UserRepository;
-import usac.cunoc.bpmn.repository.UserTypeRepository;
 import usac.cunoc.bpmn.security.JwtUtil;
 import usac.cunoc.bpmn.service.AuthService;
 import usac.cunoc.bpmn.service.EmailService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.time.LocalDateTime;
 import java.util.Random;
 import java.util.UUID;
@@ -34,7 +34,6 @@ import java.util.UUID;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final UserTypeRepository userTypeRepository;
     private final GenderRepository genderRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
@@ -42,6 +41,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     @Transactional
@@ -56,7 +56,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // Get "Cliente" userType exactly as stored in BD initial data
-        UserType clientUserType = userTypeRepository.findByName("Cliente")
+        UserType clientUserType = referenceDataRegistry.findByName(UserType.class, "Cliente")
                 .orElseThrow(() -> new RuntimeException("Default user type not found"));
 
         // Create user with exact BD defaults
@@ -0,0 +1,116 @@
+package usac.cunoc.bpmn.service.impl;
+
+import org.springframework.stereotype.Service;
+import usac.cunoc.bpmn.config.BusinessNumberProperties;
+import usac.cunoc.bpmn.service.BusinessNumberGenerator;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Business number generator implementation - Snowflake-style IDs. Each
+ * number is taken from a millisecond clock and a 12-bit sequence packed in
+ * one AtomicLong, so generation is a compare-and-set with no locks and no
+ * random source.
+ *
+ * The number keeps the second in the readable timestamp; the suffix holds
+ * the millisecond, the node ID and the sequence as 8 hex digits. When the
+ * sequence runs out, or the wall clock moves back, the generator keeps
+ * counting on its own clock, which stays ahead of the wall clock until it
+ * catches up
+ */
+@Service
+public class BusinessNumberGeneratorImpl implements BusinessNumberGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+            .withZone(ZoneId.systemDefault());
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Last issued (millisecond << SEQUENCE_BITS) | sequence
+     */
+    private final AtomicLong lastId = new AtomicLong();
+    private final long nodeBits;
+
+    private volatile FormattedSecond lastSecond = new FormattedSecond(Long.MIN_VALUE, "");
+
+    public BusinessNumberGeneratorImpl(BusinessNumberProperties properties) {
+        this.nodeBits = (long) properties.getNodeId() << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return format("ORD", nextId());
+    }
+
+    @Override
+    public String nextPaymentNumber() {
+        return format("PAY", nextId());
+    }
+
+    @Override
+    public String nextPreorderNumber() {
+        return format("PREORDER", nextId());
+    }
+
+    @Override
+    public String nextInvoiceNumber() {
+        return format("INV", nextId());
+    }
+
+    /**
+     * Next (millisecond << SEQUENCE_BITS) | sequence, greater than every
+     * value issued before
+     */
+    private long nextId() {
+        while (true) {
+            long last = lastId.get();
+            long now = System.currentTimeMillis() << SEQUENCE_BITS;
+            // A full sequence carries into the next millisecond
+            long next = now > last ? now : last + 1;
+            if (lastId.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private String format(String prefix, long id) {
+        long millis = id >>> SEQUENCE_BITS;
+        long epochSecond = Math.floorDiv(millis, 1000);
+        long suffix = (Math.floorMod(millis, 1000) << (NODE_BITS + SEQUENCE_BITS))
+                | nodeBits
+                | (id & SEQUENCE_MASK);
+
+        String timestamp = timestamp(epochSecond);
+        int length = prefix.length() + 1 + timestamp.length() + 1 + 8;
+        char[] chars = new char[length];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        chars[prefix.length()] = '-';
+        timestamp.getChars(0, timestamp.length(), chars, prefix.length() + 1);
+        chars[length - 9] = '-';
+        for (int i = length - 1; i >= length - 8; i--) {
+            chars[i] = HEX_DIGITS[(int) (suffix & 0xF)];
+            suffix >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * yyyyMMddHHmmss of a second; the last one formatted is reused
+     */
+    private String timestamp(long epochSecond) {
+        FormattedSecond cached = lastSecond;
+        if (cached.epochSecond() != epochSecond) {
+            cached = new FormattedSecond(epochSecond, TIMESTAMP_FORMAT.format(Instant.ofEpochSecond(epochSecond)));
+            lastSecond = cached;
+        }
+        return cached.text();
+    }
+
+    private record FormattedSecond(long epochSecond, String text) {
+    }
+}
@@ -8,16 +8,25 @@ import usac.cunoc.bpmn.dto.cart.*;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.CartService;
+import usac.cunoc.bpmn.service.CartStore;
+import usac.cunoc.bpmn.service.CartStore.CartLine;
+import usac.cunoc.bpmn.service.CartStore.CartState;
+import usac.cunoc.bpmn.service.PromotionEligibilityIndex;
+import usac.cunoc.bpmn.service.PromotionPricingService;
+import usac.cunoc.bpmn.service.PromotionPricingService.PromotionPlan;
+import usac.cunoc.bpmn.service.StockReservationService;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Cart service implementation - 100% compliant with database schema and PDF
- * structure
+ * structure. Cart contents live in the configured CartStore
  */
 @Slf4j
 @Service
@@ -25,30 +34,17 @@ import java.util.stream.Collectors;
 @Transactional
 public class CartServiceImpl implements CartService {
 
-    private final ShoppingCartRepository shoppingCartRepository;
-    private final ShoppingCartItemRepository shoppingCartItemRepository;
+    private final CartStore cartStore;
     private final AnalogArticleRepository analogArticleRepository;
     private final CdPromotionRepository cdPromotionRepository;
-    private final UserRepository userRepository;
-    private final VinylRepository vinylRepository;
-    private final CassetteRepository cassetteRepository;
-    private final CdRepository cdRepository;
+    private final CatalogListingRepository catalogListingRepository;
+    private final StockReservationService stockReservationService;
+    private final PromotionPricingService promotionPricingService;
+    private final PromotionEligibilityIndex promotionEligibilityIndex;
 
     @Override
-    @Transactional(readOnly = true)
     public CartResponseDto getCart(Integer userId) {
-        ShoppingCart cart = getOrCreateCart(userId);
-        List<ShoppingCartItem> items = shoppingCartItemRepository.findByCartIdWithDetails(cart.getId());
-
-        List<CartResponseDto.CartItemDto> itemDtos = items.stream()
-                .map(this::mapToCartItemDto)
-                .collect(Collectors.toList());
-
-        return new CartResponseDto(
-                cart.getId(),
-                cart.getTotalItems(),
-                cart.getSubtotal(),
-                itemDtos);
+        return buildCartResponse(cartStore.read(userId));
     }
 
     @Override
@@ -61,104 +57,75 @@ public class CartServiceImpl implements CartService {
             throw new RuntimeException("Artículo no disponible");
         }
 
-        if (article.getStockQuantity() < request.getQuantity()) {
-            throw new RuntimeException("Stock insuficiente. Disponible: " + article.getStockQuantity());
+        int availableStock = availableStock(article);
+        if (availableStock < request.getQuantity()) {
+            throw new RuntimeException("Stock insuficiente. Disponible: " + availableStock);
         }
 
-        // Get or create cart
-        ShoppingCart cart = getOrCreateCart(userId);
-
-        // Check if item already exists in cart
-        ShoppingCartItem existingItem = shoppingCartItemRepository
-                .findByCartIdAndArticleId(cart.getId(), request.getArticle_id())
-                .orElse(null);
-
-        ShoppingCartItem cartItem;
-        if (existingItem != null) {
-            // Update existing item quantity
-            int newQuantity = existingItem.getQuantity() + request.getQuantity();
-            if (article.getStockQuantity() < newQuantity) {
-                throw new RuntimeException("Stock insuficiente para cantidad total: " + newQuantity);
+        CartState cart = cartStore.modify(userId, state -> {
+            CartLine existingLine = state.findLineByArticle(article.getId()).orElse(null);
+            if (existingLine != null) {
+                // Update existing item quantity
+                int newQuantity = existingLine.getQuantity() + request.getQuantity();
+                if (availableStock < newQuantity) {
+                    throw new RuntimeException("Stock insuficiente para cantidad total: " + newQuantity);
+                }
+                existingLine.setQuantity(newQuantity);
+            } else {
+                // Newest items first, as they are listed in the cart
+                state.getLines().add(0, newCartLine(article, request.getQuantity()));
             }
-            existingItem.setQuantity(newQuantity);
-            cartItem = shoppingCartItemRepository.save(existingItem);
-        } else {
-            // Create new cart item
-            cartItem = new ShoppingCartItem();
-            cartItem.setShoppingCart(cart);
-            cartItem.setAnalogArticle(article);
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setUnitPrice(article.getPrice());
-            cartItem.setDiscountApplied(BigDecimal.ZERO);
-            cartItem = shoppingCartItemRepository.save(cartItem);
-        }
-
-        // Refresh cart to get updated totals (triggers handle this automatically)
-        cart = shoppingCartRepository.findById(cart.getId()).orElseThrow();
+        });
+        CartLine cartLine = cart.findLineByArticle(article.getId()).orElseThrow();
 
-        log.info("Added item {} to cart {} for user {}", request.getArticle_id(), cart.getId(), userId);
+        log.info("Added item {} to cart {} for user {}", request.getArticle_id(), cart.getCartId(), userId);
 
         return new AddCartItemResponseDto(
-                cart.getId(),
-                cartItem.getId(),
+                cart.getCartId(),
+                cartLine.getId(),
                 article.getId(),
-                cartItem.getQuantity(),
-                cartItem.getUnitPrice(),
-                cartItem.getTotalPrice(),
+                cartLine.getQuantity(),
+                cartLine.getUnitPrice(),
+                cartLine.getTotalPrice(),
                 cart.getSubtotal());
     }
 
     @Override
     public UpdateCartItemResponseDto updateCartItemQuantity(Integer userId, Integer itemId,
             UpdateCartItemRequestDto request) {
-        ShoppingCart cart = getOrCreateCart(userId);
-
-        ShoppingCartItem cartItem = shoppingCartItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
-
-        // Verify item belongs to user's cart
-        if (!cartItem.getShoppingCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Item no pertenece al carrito del usuario");
-        }
-
-        // Validate stock
-        if (cartItem.getAnalogArticle().getStockQuantity() < request.getQuantity()) {
-            throw new RuntimeException("Stock insuficiente. Disponible: " +
-                    cartItem.getAnalogArticle().getStockQuantity());
-        }
-
-        cartItem.setQuantity(request.getQuantity());
-        cartItem = shoppingCartItemRepository.save(cartItem);
+        CartState cart = cartStore.modify(userId, state -> {
+            CartLine cartLine = state.findLine(itemId)
+                    .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
+
+            // Validate stock
+            AnalogArticle article = analogArticleRepository.findById(cartLine.getArticleId())
+                    .orElseThrow(() -> new RuntimeException("Artículo no encontrado"));
+            int availableStock = availableStock(article);
+            if (availableStock < request.getQuantity()) {
+                throw new RuntimeException("Stock insuficiente. Disponible: " + availableStock);
+            }
 
-        // Refresh cart to get updated totals
-        cart = shoppingCartRepository.findById(cart.getId()).orElseThrow();
+            cartLine.setQuantity(request.getQuantity());
+        });
+        CartLine cartLine = cart.findLine(itemId).orElseThrow();
 
         log.info("Updated cart item {} quantity to {} for user {}", itemId, request.getQuantity(), userId);
 
         return new UpdateCartItemResponseDto(
-                cartItem.getId(),
-                cartItem.getQuantity(),
-                cartItem.getUnitPrice(),
-                cartItem.getTotalPrice(),
+                cartLine.getId(),
+                cartLine.getQuantity(),
+                cartLine.getUnitPrice(),
+                cartLine.getTotalPrice(),
                 cart.getSubtotal());
     }
 
     @Override
     public RemoveCartItemResponseDto removeItemFromCart(Integer userId, Integer itemId) {
-        ShoppingCart cart = getOrCreateCart(userId);
-
-        ShoppingCartItem cartItem = shoppingCartItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
-
-        // Verify item belongs to user's cart
-        if (!cartItem.getShoppingCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Item no pertenece al carrito del usuario");
-        }
-
-        shoppingCartItemRepository.delete(cartItem);
-
-        // Refresh cart to get updated totals
-        cart = shoppingCartRepository.findById(cart.getId()).orElseThrow();
+        CartState cart = cartStore.modify(userId, state -> {
+            if (!state.getLines().removeIf(line -> itemId.equals(line.getId()))) {
+                throw new RuntimeException("Item del carrito no encontrado");
+            }
+        });
 
         log.info("Removed cart item {} for user {}", itemId, userId);
 
@@ -168,62 +135,88 @@ public class CartServiceImpl implements CartService {
                 cart.getTotalItems());
     }
 
+    @Override
+    public CartResponseDto applyCartItemsBatch(Integer userId, BatchCartItemsRequestDto request) {
+        // Validate all referenced articles with a single query
+        Set<Integer> articleIds = request.getOperations().stream()
+                .map(BatchCartItemsRequestDto.CartItemOperationDto::getArticle_id)
+                .collect(Collectors.toSet());
+        Map<Integer, AnalogArticle> articles = analogArticleRepository.findAllById(articleIds).stream()
+                .collect(Collectors.toMap(AnalogArticle::getId, Function.identity()));
+
+        CartState cart = cartStore.modify(userId, state -> {
+            // Apply operations in order
+            for (BatchCartItemsRequestDto.CartItemOperationDto operation : request.getOperations()) {
+                Integer articleId = operation.getArticle_id();
+                AnalogArticle article = articles.get(articleId);
+                if (article == null) {
+                    throw new RuntimeException("Artículo no encontrado: " + articleId);
+                }
+
+                CartLine cartLine = state.findLineByArticle(articleId).orElse(null);
+                switch (operation.getAction()) {
+                    case "add" -> {
+                        if (!article.getIsAvailable()) {
+                            throw new RuntimeException("Artículo no disponible: " + articleId);
+                        }
+                        if (cartLine != null) {
+                            cartLine.setQuantity(cartLine.getQuantity() + requireQuantity(operation));
+                        } else {
+                            state.getLines().add(0, newCartLine(article, requireQuantity(operation)));
+                        }
+                    }
+                    case "update" -> {
+                        if (cartLine == null) {
+                            throw new RuntimeException("Artículo " + articleId + " no está en el carrito");
+                        }
+                        cartLine.setQuantity(requireQuantity(operation));
+                    }
+                    case "remove" -> {
+                        if (cartLine == null) {
+                            throw new RuntimeException("Artículo " + articleId + " no está en el carrito");
+                        }
+                        state.getLines().remove(cartLine);
+                    }
+                    default -> throw new RuntimeException("Acción no válida: " + operation.getAction());
+                }
+            }
+
+            // Validate stock for every touched article against its final quantity
+            for (CartLine cartLine : state.getLines()) {
+                AnalogArticle article = articles.get(cartLine.getArticleId());
+                if (article != null && availableStock(article) < cartLine.getQuantity()) {
+                    throw new RuntimeException("Stock insuficiente para artículo " + article.getId() +
+                            ". Disponible: " + availableStock(article));
+                }
+            }
+        });
+
+        log.info("Applied {} cart operations to cart {} for user {}",
+                request.getOperations().size(), cart.getCartId(), userId);
+
+        return buildCartResponse(cart);
+    }
+
     @Override
     public void clearCart(Integer userId) {
-        ShoppingCart cart = getOrCreateCart(userId);
-        shoppingCartItemRepository.deleteByShoppingCartId(cart.getId());
+        cartStore.modify(userId, state -> state.getLines().clear());
 
         log.info("Cleared cart for user {}", userId);
     }
 
     @Override
     public ApplyPromotionResponseDto applyCdPromotion(Integer userId, ApplyPromotionRequestDto request) {
-        ShoppingCart cart = getOrCreateCart(userId);
-
         CdPromotion promotion = cdPromotionRepository.findActivePromotionById(
                 request.getPromotion_id(), LocalDateTime.now())
                 .orElseThrow(() -> new RuntimeException("Promoción no encontrada o no activa"));
 
-        // Validate promotion limits
-        if (request.getArticle_ids().size() > promotion.getMaxItems()) {
-            throw new RuntimeException("Promoción permite máximo " + promotion.getMaxItems() + " artículos");
-        }
-
-        List<ShoppingCartItem> itemsToUpdate = new ArrayList<>();
-        BigDecimal totalDiscount = BigDecimal.ZERO;
+        // Validate and price against the whole cart, then write every line at once
+        PromotionPlan plan = promotionPricingService.planPromotion(
+                promotion, cartStore.read(userId), request.getArticle_ids());
+        CartState cart = cartStore.modify(userId, plan::applyTo);
 
-        // Apply promotion to specified items
-        for (Integer articleId : request.getArticle_ids()) {
-            ShoppingCartItem cartItem = shoppingCartItemRepository
-                    .findByCartIdAndArticleId(cart.getId(), articleId)
-                    .orElseThrow(() -> new RuntimeException("Artículo " + articleId + " no está en el carrito"));
-
-            // Validate article is CD if promotion is genre-based
-            if (promotion.getMusicGenre() != null) {
-                validateCdForGenrePromotion(cartItem.getAnalogArticle(), promotion.getMusicGenre().getId());
-            } else {
-                validateIsCd(cartItem.getAnalogArticle());
-            }
-
-            // Calculate discount amount
-            BigDecimal itemTotal = cartItem.getUnitPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-            BigDecimal discount = itemTotal.multiply(promotion.getDiscountPercentage())
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-
-            cartItem.setDiscountApplied(discount);
-            cartItem.setCdPromotion(promotion);
-            itemsToUpdate.add(cartItem);
-            totalDiscount = totalDiscount.add(discount);
-        }
-
-        // Save all updated items
-        shoppingCartItemRepository.saveAll(itemsToUpdate);
-
-        // Refresh cart to get updated totals
-        cart = shoppingCartRepository.findById(cart.getId()).orElseThrow();
-
-        List<Integer> updatedItemIds = itemsToUpdate.stream()
-                .map(ShoppingCartItem::getId)
+        List<Integer> updatedItemIds = request.getArticle_ids().stream()
+                .map(articleId -> cart.findLineByArticle(articleId).orElseThrow().getId())
                 .collect(Collectors.toList());
 
         log.info("Applied promotion {} to {} items for user {}",
@@ -232,60 +225,119 @@ public class CartServiceImpl implements CartService {
         return new ApplyPromotionResponseDto(
                 promotion.getId(),
                 updatedItemIds,
-                totalDiscount,
+                plan.getTotalDiscount(cart),
                 cart.getSubtotal());
     }
 
+    @Override
+    public PromotionPreviewResponseDto previewBestCdPromotion(Integer userId) {
+        CartState cart = cartStore.read(userId);
+
+        return promotionPricingService.findBestPromotion(cart)
+                .map(plan -> {
+                    CartState preview = cart.copy();
+                    plan.applyTo(preview);
+                    return new PromotionPreviewResponseDto(
+                            plan.getPromotion().getId(),
+                            plan.getPromotion().getName(),
+                            plan.getArticleIds(),
+                            plan.getArticleIds().stream()
+                                    .map(articleId -> preview.findLineByArticle(articleId).orElseThrow().getId())
+                                    .collect(Collectors.toList()),
+                            plan.getTotalDiscount(preview),
+                            preview.getSubtotal());
+                })
+                .orElseGet(() -> new PromotionPreviewResponseDto(
+                        null, null, List.of(), List.of(), BigDecimal.ZERO, cart.getSubtotal()));
+    }
+
     // Helper methods
-    private ShoppingCart getOrCreateCart(Integer userId) {
-        return shoppingCartRepository.findByUserId(userId)
-                .orElseGet(() -> createCartForUser(userId));
+
+    /**
+     * Build the cart response with a fixed number of queries whatever the cart
+     * size: catalog_listing rows for article data and type, and promotions with
+     * their type and genre
+     */
+    private CartResponseDto buildCartResponse(CartState cart) {
+        List<Integer> articleIds = cart.getLines().stream()
+                .map(CartLine::getArticleId)
+                .collect(Collectors.toList());
+        Set<Integer> promotionIds = cart.getLines().stream()
+                .map(CartLine::getPromotionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Integer, CatalogListing> listings = catalogListingRepository.findAllById(articleIds).stream()
+                .collect(Collectors.toMap(CatalogListing::getId, Function.identity()));
+        Map<Integer, CdPromotion> promotions = promotionIds.isEmpty()
+                ? Map.of()
+                : cdPromotionRepository.findAllWithDetailsByIdIn(promotionIds).stream()
+                        .collect(Collectors.toMap(CdPromotion::getId, Function.identity()));
+
+        List<CartResponseDto.CartItemDto> itemDtos = cart.getLines().stream()
+                .map(line -> mapToCartItemDto(line,
+                        listings.get(line.getArticleId()),
+                        line.getPromotionId() != null ? promotions.get(line.getPromotionId()) : null))
+                .collect(Collectors.toList());
+
+        return new CartResponseDto(
+                cart.getCartId(),
+                cart.getTotalItems(),
+                cart.getSubtotal(),
+                itemDtos);
     }
 
-    private ShoppingCart createCartForUser(Integer userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    /**
+     * Stock not held by pending orders
+     */
+    private int availableStock(AnalogArticle article) {
+        return stockReservationService.getAvailableQuantity(article.getId(), article.getStockQuantity());
+    }
 
-        ShoppingCart cart = new ShoppingCart();
-        cart.setUser(user);
-        cart.setTotalItems(0);
-        cart.setSubtotal(BigDecimal.ZERO);
-        return shoppingCartRepository.save(cart);
+    private CartLine newCartLine(AnalogArticle article, Integer quantity) {
+        return new CartLine(null, article.getId(), quantity, article.getPrice(), BigDecimal.ZERO, null);
+    }
+
+    private Integer requireQuantity(BatchCartItemsRequestDto.CartItemOperationDto operation) {
+        if (operation.getQuantity() == null) {
+            throw new RuntimeException("Cantidad requerida para la acción " + operation.getAction() +
+                    " del artículo " + operation.getArticle_id());
+        }
+        return operation.getQuantity();
     }
 
     /**
-     * Map ShoppingCartItem to CartItemDto with complete information
+     * Map a cart line to CartItemDto with complete information
      */
-    private CartResponseDto.CartItemDto mapToCartItemDto(ShoppingCartItem item) {
-        AnalogArticle article = item.getAnalogArticle();
+    private CartResponseDto.CartItemDto mapToCartItemDto(CartLine item, CatalogListing article,
+            CdPromotion promotion) {
 
         // Create artist DTO with id and name (not just string)
         CartResponseDto.ArtistDto artistDto = new CartResponseDto.ArtistDto(
-                article.getArtist().getId(),
-                article.getArtist().getName());
+                article.getArtistId(),
+                article.getArtistName());
 
         // Create currency DTO
         CartResponseDto.CurrencyDto currencyDto = new CartResponseDto.CurrencyDto(
-                article.getCurrency().getCode(),
-                article.getCurrency().getSymbol());
+                article.getCurrencyCode(),
+                article.getCurrencySymbol());
 
         // Create complete article DTO with all required fields
         CartResponseDto.ArticleDto articleDto = new CartResponseDto.ArticleDto(
                 article.getId(),
                 article.getTitle(),
                 artistDto, // Artist as object, not string
-                determineArticleType(article.getId()),
+                article.getType(),
                 article.getPrice(), // Add price
                 currencyDto, // Add currency
                 article.getImageUrl(),
                 article.getIsAvailable(), // Add availability
                 article.getIsPreorder(), // Add preorder status
-                article.getStockQuantity()); // Add stock quantity
+                stockReservationService.getAvailableQuantity(article.getId(), article.getStockQuantity())); // Add stock quantity
 
         // Create complete promotion DTO if promotion exists
         CartResponseDto.PromotionDto promotionDto = null;
-        if (item.getCdPromotion() != null) {
-            CdPromotion promotion = item.getCdPromotion();
+        if (promotion != null) {
 
             // Create promotion type DTO
             CartResponseDto.promotion_typeDto promotionTypeDto = new CartResponseDto.promotion_typeDto(
@@ -337,33 +389,13 @@ public class CartServiceImpl implements CartService {
      * Get eligible articles for a promotion
      */
     private List<CartResponseDto.EligibleArticleDto> getEligibleArticlesForPromotion(Integer promotionId) {
-        // This would require accessing the promotion-article relationship
-        // For now, return empty list or implement based on your promotion-article
-        // junction table
-        return new ArrayList<>();
-    }
-
-    private String determineArticleType(Integer articleId) {
-        if (vinylRepository.existsByAnalogArticleId(articleId)) {
-            return "vinyl";
-        } else if (cassetteRepository.existsByAnalogArticleId(articleId)) {
-            return "cassette";
-        } else if (cdRepository.existsByAnalogArticleId(articleId)) {
-            return "cd";
-        }
-        return "unknown";
-    }
-
-    private void validateIsCd(AnalogArticle article) {
-        if (!cdRepository.existsByAnalogArticleId(article.getId())) {
-            throw new RuntimeException("La promoción solo aplica a CDs");
-        }
-    }
-
-    private void validateCdForGenrePromotion(AnalogArticle article, Integer genreId) {
-        validateIsCd(article);
-        if (!article.getMusicGenre().getId().equals(genreId)) {
-            throw new RuntimeException("El CD no pertenece al género de la promoción");
-        }
+        return promotionEligibilityIndex.getEligibleArticles(promotionId).stream()
+                .map(article -> new CartResponseDto.EligibleArticleDto(
+                        article.getId(),
+                        article.getTitle(),
+                        article.getArtistName(),
+                        article.getPrice(),
+                        article.getImageUrl()))
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
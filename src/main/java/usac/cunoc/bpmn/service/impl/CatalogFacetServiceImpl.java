@@ -0,0 +1,125 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import usac.cunoc.bpmn.config.CacheConfig;
+import usac.cunoc.bpmn.dto.catalog.CatalogArticlesResponseDto;
+import usac.cunoc.bpmn.event.ArticleStatsChangedEvent;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
+import usac.cunoc.bpmn.repository.AnalogArticleRepository;
+import usac.cunoc.bpmn.repository.ArtistRepository;
+import usac.cunoc.bpmn.repository.MusicGenreRepository;
+import usac.cunoc.bpmn.service.CatalogFacetService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog facet service implementation - facets are identical for every
+ * visitor, so they are computed once and cached until the catalog or an
+ * article's stock changes, or at most for app.catalog.facets-ttl. The cache
+ * holds a single entry (getFacets takes no arguments)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogFacetServiceImpl implements CatalogFacetService {
+
+    private final AnalogArticleRepository analogArticleRepository;
+    private final ArtistRepository artistRepository;
+    private final MusicGenreRepository musicGenreRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CATALOG_FACETS)
+    public CatalogArticlesResponseDto.FiltersDto getFacets() {
+        log.debug("Building catalog facets");
+
+        // Genres and artists with their available article counts
+        List<CatalogArticlesResponseDto.GenreFilterDto> genreFilters = musicGenreRepository
+                .findGenresWithAvailableArticleCount().stream()
+                .map(row -> new CatalogArticlesResponseDto.GenreFilterDto(
+                        (Integer) row[0], (String) row[1], toLong(row[2])))
+                .collect(Collectors.toList());
+
+        List<CatalogArticlesResponseDto.ArtistFilterDto> artistFilters = artistRepository
+                .findArtistsWithAvailableArticleCount().stream()
+                .map(row -> new CatalogArticlesResponseDto.ArtistFilterDto(
+                        (Integer) row[0], (String) row[1], toLong(row[2])))
+                .collect(Collectors.toList());
+
+        // Type counts and price range come from the same aggregate row
+        List<Object[]> summaryRows = analogArticleRepository.findAvailableFacetSummary();
+        Object[] summary = summaryRows.isEmpty() ? new Object[5] : summaryRows.get(0);
+
+        List<CatalogArticlesResponseDto.TypeFilterDto> typeFilters = new ArrayList<>();
+        addTypeFilter(typeFilters, "vinyl", "Vinilo", toLong(summary[0]));
+        addTypeFilter(typeFilters, "cassette", "Cassette", toLong(summary[1]));
+        addTypeFilter(typeFilters, "cd", "CD", toLong(summary[2]));
+
+        CatalogArticlesResponseDto.PriceRangeDto priceRange = new CatalogArticlesResponseDto.PriceRangeDto(
+                toBigDecimal(summary[3]), toBigDecimal(summary[4]));
+
+        return new CatalogArticlesResponseDto.FiltersDto(
+                genreFilters, artistFilters, typeFilters, priceRange);
+    }
+
+    /**
+     * Drop cached facets once a catalog change has been committed. Falls back to
+     * immediate eviction when the event is published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = CacheConfig.CATALOG_FACETS, allEntries = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Catalog changed (article: {}), evicting catalog facets", event.getArticleId());
+    }
+
+    /**
+     * Drop cached facets when stock moves (orders, stock movements); a stock
+     * change can come with an availability change made by triggers
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = CacheConfig.CATALOG_FACETS, allEntries = true)
+    public void onArticleStatsChanged(ArticleStatsChangedEvent event) {
+        log.debug("Stats changed for article {}, evicting catalog facets", event.getArticleId());
+    }
+
+    /**
+     * Expire cached facets periodically, so changes that publish no event
+     * are picked up within the TTL
+     */
+    @Scheduled(fixedDelayString = "#{@catalogCacheProperties.facetsTtl.toMillis()}",
+            initialDelayString = "#{@catalogCacheProperties.facetsTtl.toMillis()}")
+    @CacheEvict(cacheNames = CacheConfig.CATALOG_FACETS, allEntries = true)
+    public void expireFacets() {
+        log.debug("Catalog facets TTL elapsed, evicting catalog facets");
+    }
+
+    private void addTypeFilter(List<CatalogArticlesResponseDto.TypeFilterDto> typeFilters,
+            String code, String name, Long count) {
+        if (count > 0) {
+            typeFilters.add(new CatalogArticlesResponseDto.TypeFilterDto(code, name, count));
+        }
+    }
+
+    private Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null)
+            return BigDecimal.ZERO;
+        if (value instanceof BigDecimal)
+            return (BigDecimal) value;
+        if (value instanceof Number)
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        return new BigDecimal(value.toString());
+    }
+}
@@ -8,6 +8,7 @@ import usac.cunoc.bpmn.dto.catalog.master.*;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.CatalogMasterService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,8 +26,7 @@ public class CatalogMasterServiceImpl implements CatalogMasterService {
     private final VinylCategoryRepository vinylCategoryRepository;
     private final CassetteCategoryRepository cassetteCategoryRepository;
     private final VinylSpecialEditionRepository vinylSpecialEditionRepository;
-    private final CurrencyRepository currencyRepository;
-    private final CountryRepository countryRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     public GenreListResponseDto getGenres() {
@@ -107,7 +107,7 @@ public class CatalogMasterServiceImpl implements CatalogMasterService {
 
     @Override
     public CurrencyListResponseDto getCurrencies() {
-        List<Currency> currencies = currencyRepository.findAll();
+        List<Currency> currencies = referenceDataRegistry.findAll(Currency.class);
 
         List<CurrencyListResponseDto.CurrencyDto> currencyDtos = currencies.stream()
                 .map(currency -> new CurrencyListResponseDto.CurrencyDto(
@@ -122,7 +122,7 @@ public class CatalogMasterServiceImpl implements CatalogMasterService {
 
     @Override
     public CountryListResponseDto getCountries() {
-        List<Country> countries = countryRepository.findAll();
+        List<Country> countries = referenceDataRegistry.findAll(Country.class);
 
         List<CountryListResponseDto.CountryDto> countryDtos = countries.stream()
                 .map(country -> {
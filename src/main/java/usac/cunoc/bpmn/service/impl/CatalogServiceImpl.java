@@ -1,5 +1,6 @@
 package usac.cunoc.bpmn.service.impl;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -8,12 +9,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.config.CommentThreadProperties;
 import usac.cunoc.bpmn.dto.catalog.*;
 import usac.cunoc.bpmn.dto.common.PaginationDto;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
+import usac.cunoc.bpmn.service.ArticleDetailService;
+import usac.cunoc.bpmn.service.ArticleTypeService;
+import usac.cunoc.bpmn.service.CatalogFacetService;
 import usac.cunoc.bpmn.service.CatalogService;
+import usac.cunoc.bpmn.service.StockReservationService;
+import usac.cunoc.bpmn.util.KeysetCursor;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,19 +40,20 @@ import java.util.stream.Collectors;
 public class CatalogServiceImpl implements CatalogService {
 
     private final AnalogArticleRepository analogArticleRepository;
-    private final ArtistRepository artistRepository;
-    private final MusicGenreRepository musicGenreRepository;
+    private final CatalogListingRepository catalogListingRepository;
     private final ArticleCommentRepository articleCommentRepository;
     private final ArticleRatingRepository articleRatingRepository;
-    private final VinylRepository vinylRepository;
-    private final CassetteRepository cassetteRepository;
-    private final CdRepository cdRepository;
+    private final ArticleTypeService articleTypeService;
+    private final ArticleDetailService articleDetailService;
+    private final CatalogFacetService catalogFacetService;
+    private final CommentThreadProperties commentThreadProperties;
+    private final StockReservationService stockReservationService;
 
     @Override
     public CatalogArticlesResponseDto getArticles(
             Integer page, Integer limit, String search, Integer genreId,
             Integer artistId, String minPrice, String maxPrice, String type,
-            String sortBy, Boolean availability) {
+            String sortBy, Boolean availability, String cursor) {
 
         // Default pagination values
         int pageNumber = page != null && page > 0 ? page - 1 : 0;
@@ -57,34 +68,42 @@ public class CatalogServiceImpl implements CatalogService {
                 ? search.trim().toLowerCase()
                 : null;
 
+        // availability=true lists only articles with stock, in every query path
+        Boolean inStockOnly = Boolean.TRUE.equals(availability) ? Boolean.TRUE : null;
+
+        // Cursor (keyset) mode is opt-in: no OFFSET scan and no count query
+        if (cursor != null) {
+            return getArticlesByCursor(cursor, pageSize, searchLower, genreId, artistId,
+                    minPriceValue, maxPriceValue, type, inStockOnly, sortBy);
+        }
+
+        // Prefix tsquery for the full-text search path (null when there are no terms)
+        String tsQuery = searchLower != null ? buildPrefixTsQuery(searchLower) : null;
+
         // Build sort and pagination (limit=0 means "return all")
         Sort sort = buildSort(sortBy);
         Pageable pageable = (limit != null && limit == 0)
                 ? Pageable.unpaged()
                 : PageRequest.of(pageNumber, pageSize, sort);
 
-        // Get articles with filters
-        Page<AnalogArticle> articlePage;
-
-        // If no filters at all, return all available (simpler, faster)
-        boolean noFilters = (searchLower == null && genreId == null && artistId == null
-                && minPriceValue == null && maxPriceValue == null && (type == null || type.isEmpty()));
+        // Ranked full-text search runs on analog_article (search document indexes);
+        // plain browsing is a single-table scan over the catalog_listing read model
+        Page<?> articlePage;
+        List<CatalogArticleDto> articles;
 
-        if (noFilters) {
-            articlePage = analogArticleRepository.findByIsAvailableTrue(pageable);
-        } else if (type != null && !type.isEmpty()) {
-            articlePage = getArticlesByType(type, searchLower, genreId, artistId,
-                    minPriceValue, maxPriceValue, pageable);
+        if (tsQuery != null) {
+            Page<AnalogArticle> searchPage = searchArticles(tsQuery, searchLower, genreId, artistId,
+                    minPriceValue, maxPriceValue, type, inStockOnly, sortBy, limit != null && limit == 0, pageNumber, pageSize);
+            articlePage = searchPage;
+            articles = mapToArticleDtos(searchPage.getContent());
         } else {
-            articlePage = analogArticleRepository.findWithFilters(
-                    searchLower, genreId, artistId, minPriceValue, maxPriceValue, pageable);
+            Page<CatalogListing> listingPage = catalogListingRepository.findWithFilters(
+                    searchLower, genreId, artistId, minPriceValue, maxPriceValue, normalizeTypeFilter(type),
+                    inStockOnly, pageable);
+            articlePage = listingPage;
+            articles = mapListingsToArticleDtos(listingPage.getContent());
         }
 
-        // Map to DTOs
-        List<CatalogArticleDto> articles = articlePage.getContent().stream()
-                .map(this::mapToArticleDto)
-                .collect(Collectors.toList());
-
         // Build pagination
         PaginationDto pagination = new PaginationDto(
                 pageNumber + 1,
@@ -93,17 +112,99 @@ public class CatalogServiceImpl implements CatalogService {
                 pageSize);
 
         // Build filters
-        CatalogArticlesResponseDto.FiltersDto filters = buildFilters();
+        CatalogArticlesResponseDto.FiltersDto filters = catalogFacetService.getFacets();
 
         return new CatalogArticlesResponseDto(articles, pagination, filters);
     }
 
+    /**
+     * Keyset page of the catalog. Search uses the substring filter here because
+     * relevance ranking cannot be expressed as a seek position
+     */
+    private CatalogArticlesResponseDto getArticlesByCursor(String cursor, int pageSize, String searchLower,
+            Integer genreId, Integer artistId, BigDecimal minPrice, BigDecimal maxPrice, String type,
+            Boolean inStockOnly, String sortBy) {
+        String sortKey = (sortBy == null || sortBy.isEmpty()) ? "newest" : sortBy;
+        KeysetCursor position = KeysetCursor.decode(cursor, sortKey);
+        Integer cursorId = position != null ? position.getId() : null;
+        String typeFilter = normalizeTypeFilter(type);
+
+        // Fetch one extra row to know whether there is a next page
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<CatalogListing> rows;
+        switch (sortKey) {
+            case "newest":
+                rows = catalogListingRepository.findKeysetByNewest(searchLower, genreId, artistId,
+                        minPrice, maxPrice, typeFilter, inStockOnly,
+                        position != null ? position.getValueAsDateTime() : null, cursorId, window);
+                break;
+            case "price_asc":
+                rows = catalogListingRepository.findKeysetByPriceAsc(searchLower, genreId, artistId,
+                        minPrice, maxPrice, typeFilter, inStockOnly,
+                        position != null ? position.getValueAsDecimal() : null, cursorId, window);
+                break;
+            case "price_desc":
+                rows = catalogListingRepository.findKeysetByPriceDesc(searchLower, genreId, artistId,
+                        minPrice, maxPrice, typeFilter, inStockOnly,
+                        position != null ? position.getValueAsDecimal() : null, cursorId, window);
+                break;
+            case "popular":
+                rows = catalogListingRepository.findKeysetByTotalSold(searchLower, genreId, artistId,
+                        minPrice, maxPrice, typeFilter, inStockOnly,
+                        position != null ? position.getValueAsInteger() : null, cursorId, window);
+                break;
+            default:
+                throw new RuntimeException("El ordenamiento '" + sortKey + "' no admite paginación por cursor");
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CatalogListing> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            CatalogListing last = pageRows.get(pageRows.size() - 1);
+            nextCursor = KeysetCursor.encode(sortKey, getKeysetValue(last, sortKey), last.getId());
+        }
+
+        return new CatalogArticlesResponseDto(
+                mapListingsToArticleDtos(pageRows),
+                PaginationDto.ofCursor(pageSize, nextCursor),
+                catalogFacetService.getFacets());
+    }
+
+    private Object getKeysetValue(CatalogListing article, String sortKey) {
+        switch (sortKey) {
+            case "price_asc":
+            case "price_desc":
+                return article.getPrice();
+            case "popular":
+                return article.getTotalSold();
+            default:
+                return article.getCreatedAt();
+        }
+    }
+
+    private String normalizeTypeFilter(String type) {
+        if (type == null || type.isEmpty()) {
+            return null;
+        }
+        String normalized = type.toLowerCase();
+        if (normalized.equals("vinyl") || normalized.equals("cassette") || normalized.equals("cd")) {
+            return normalized;
+        }
+        log.warn("Unknown article type: {}. Using general filter.", type);
+        return null;
+    }
+
     @Override
     public ArticleDetailResponseDto getArticleById(Integer articleId) {
-        AnalogArticle article = analogArticleRepository.findByIdWithDetails(articleId)
-                .orElseThrow(() -> new RuntimeException("Artículo no encontrado"));
+        return articleDetailService.getArticleDetail(articleId);
+    }
 
-        return mapToArticleDetailDto(article);
+    @Override
+    public RawValue getArticleDetailJson(Integer articleId) {
+        return articleDetailService.getArticleDetailJson(articleId);
     }
 
     @Override
@@ -123,10 +224,8 @@ public class CatalogServiceImpl implements CatalogService {
         Page<ArticleComment> commentsPage = articleCommentRepository
                 .findTopLevelCommentsByArticleId(articleId, pageable);
 
-        // Map to DTOs using CORRECT DTO class
-        List<ArticleCommentDto> comments = commentsPage.getContent().stream()
-                .map(this::mapToCommentDto)
-                .collect(Collectors.toList());
+        // Load the visible reply trees for the page's roots and map to DTOs
+        List<ArticleCommentDto> comments = buildCommentThreads(commentsPage.getContent());
 
         // Get total comments count using CORRECT repository method
         Integer totalComments = articleCommentRepository.countVisibleCommentsByArticleId(articleId);
@@ -143,48 +242,48 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public ArticleRatingsResponseDto getArticleRatings(Integer articleId, Integer page, Integer limit, String sortBy) {
-        // Verify article exists
-        if (!analogArticleRepository.existsById(articleId)) {
-            throw new RuntimeException("Artículo no encontrado");
-        }
+        // Article row carries the trigger-maintained rating counters
+        AnalogArticle article = analogArticleRepository.findById(articleId)
+                .orElseThrow(() -> new RuntimeException("Artículo no encontrado"));
 
         // Default pagination
         int pageNumber = page != null && page > 0 ? page - 1 : 0;
         int pageSize = limit != null && limit > 0 ? limit : 10;
 
-        // Build sort
+        // Build sort (id as tie-breaker keeps pages stable)
         Sort sort = sortBy != null && sortBy.equals("oldest")
-                ? Sort.by(Sort.Direction.ASC, "createdAt")
-                : Sort.by(Sort.Direction.DESC, "createdAt");
+                ? Sort.by(Sort.Direction.ASC, "createdAt", "id")
+                : Sort.by(Sort.Direction.DESC, "createdAt", "id");
 
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        // Get ratings using CORRECT repository method
-        Page<ArticleRating> ratingsPage = articleRatingRepository.findRatingsByArticleId(articleId, pageable);
+        // Get the ratings page (no count query, totals come from the counters)
+        List<ArticleRating> ratingsPage = articleRatingRepository.findRatingPageByArticleId(articleId, pageable);
 
         // Map to DTOs using CORRECT DTO class
-        List<ArticleRatingDto> ratings = ratingsPage.getContent().stream()
+        List<ArticleRatingDto> ratings = ratingsPage.stream()
                 .map(this::mapToRatingDto)
                 .collect(Collectors.toList());
 
+        // Rating stats from precomputed counters - no aggregation over article_rating
+        Map<String, Integer> ratingDistribution = buildRatingDistribution(article);
+        int totalRatings = ratingDistribution.values().stream().mapToInt(Integer::intValue).sum();
+        BigDecimal averageRating = totalRatings > 0
+                ? BigDecimal.valueOf(nullToZero(article.getRatingSum()))
+                        .divide(BigDecimal.valueOf(totalRatings), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
         // Build pagination
         PaginationDto pagination = new PaginationDto(
                 pageNumber + 1,
-                ratingsPage.getTotalPages(),
-                (int) ratingsPage.getTotalElements(),
+                (totalRatings + pageSize - 1) / pageSize,
+                totalRatings,
                 pageSize);
 
-        // Get article rating stats using CORRECT repository methods
-        BigDecimal averageRating = articleRatingRepository.findAverageRatingByArticleId(articleId);
-        Integer totalRatings = articleRatingRepository.countRatingsByArticleId(articleId);
-
-        // Build rating distribution using CORRECT method
-        Map<String, Integer> ratingDistribution = buildRatingDistribution(articleId);
-
         return new ArticleRatingsResponseDto(
                 articleId,
-                averageRating != null ? averageRating : BigDecimal.ZERO,
-                totalRatings != null ? totalRatings : 0,
+                averageRating,
+                totalRatings,
                 ratingDistribution,
                 ratings,
                 pagination);
@@ -193,25 +292,34 @@ public class CatalogServiceImpl implements CatalogService {
     // ========== PRIVATE HELPER METHODS ==========
 
     /**
-     * FIXED: Get articles filtered by type with all additional filters applied
+     * Ranked full-text search path - served by the search_vector and
+     * search_text indexes instead of LIKE scans. Defaults to relevance order
      */
-    private Page<AnalogArticle> getArticlesByType(String type, String searchLower, Integer genreId,
-            Integer artistId, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        switch (type.toLowerCase()) {
-            case "vinyl":
-                return analogArticleRepository.findVinylsWithFilters(
-                        searchLower, genreId, artistId, minPrice, maxPrice, pageable);
-            case "cassette":
-                return analogArticleRepository.findCassettesWithFilters(
-                        searchLower, genreId, artistId, minPrice, maxPrice, pageable);
-            case "cd":
-                return analogArticleRepository.findCdsWithFilters(
-                        searchLower, genreId, artistId, minPrice, maxPrice, pageable);
-            default:
-                log.warn("Unknown article type: {}. Using general filter.", type);
-                return analogArticleRepository.findWithFilters(
-                        searchLower, genreId, artistId, minPrice, maxPrice, pageable);
-        }
+    private Page<AnalogArticle> searchArticles(String tsQuery, String searchLower, Integer genreId,
+            Integer artistId, BigDecimal minPrice, BigDecimal maxPrice, String type, Boolean inStockOnly,
+            String sortBy, boolean unpaged, int pageNumber, int pageSize) {
+        String typeCode = (type != null && !type.isEmpty()) ? type.toLowerCase() : null;
+        String sortKey = (sortBy == null || sortBy.isEmpty()) ? "relevance" : sortBy;
+
+        // Sorting is resolved inside the native query, so the page carries no Sort
+        Pageable pageable = unpaged ? Pageable.unpaged() : PageRequest.of(pageNumber, pageSize);
+
+        return analogArticleRepository.searchArticles(
+                tsQuery, searchLower, genreId, artistId, minPrice, maxPrice, typeCode, inStockOnly, sortKey, pageable);
+    }
+
+    /**
+     * Build a prefix tsquery ("abbey:* & road:*") from free text, dropping
+     * characters with special meaning in tsquery syntax. Returns null when
+     * the text has no searchable terms
+     */
+    private String buildPrefixTsQuery(String searchLower) {
+        String tsQuery = Arrays.stream(searchLower.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return tsQuery.isEmpty() ? null : tsQuery;
     }
 
     private Sort buildSort(String sortBy) {
@@ -232,6 +340,9 @@ public class CatalogServiceImpl implements CatalogService {
                 return Sort.by(Sort.Direction.ASC, "title");
             case "name_desc":
                 return Sort.by(Sort.Direction.DESC, "title");
+            case "relevance":
+                // Relevance only applies to searches; browse falls back to newest
+                return Sort.by(Sort.Direction.DESC, "createdAt");
             default:
                 return Sort.by(Sort.Direction.DESC, "createdAt");
         }
@@ -249,22 +360,47 @@ public class CatalogServiceImpl implements CatalogService {
         }
     }
 
-    private BigDecimal toBigDecimal(Object value) {
-        if (value == null)
-            return BigDecimal.ZERO;
-        if (value instanceof BigDecimal)
-            return (BigDecimal) value;
-        if (value instanceof Number)
-            return BigDecimal.valueOf(((Number) value).doubleValue());
-        try {
-            return new BigDecimal(value.toString());
-        } catch (Exception e) {
-            log.warn("Unable to convert value to BigDecimal: {} ({})", value, value.getClass().getName());
-            return BigDecimal.ZERO;
-        }
+    private List<CatalogArticleDto> mapToArticleDtos(List<AnalogArticle> articles) {
+        // Resolve article types for the whole page in one query
+        Map<Integer, String> articleTypes = articleTypeService.resolveTypes(
+                articles.stream()
+                        .map(AnalogArticle::getId)
+                        .collect(Collectors.toList()));
+
+        return articles.stream()
+                .map(article -> mapToArticleDto(article, articleTypes.getOrDefault(article.getId(), "unknown")))
+                .collect(Collectors.toList());
+    }
+
+    private List<CatalogArticleDto> mapListingsToArticleDtos(List<CatalogListing> listings) {
+        return listings.stream()
+                .map(this::mapListingToArticleDto)
+                .collect(Collectors.toList());
     }
 
-    private CatalogArticleDto mapToArticleDto(AnalogArticle article) {
+    /**
+     * Map a catalog_listing row; every field is already denormalized on the row
+     */
+    private CatalogArticleDto mapListingToArticleDto(CatalogListing listing) {
+        CatalogArticleDto dto = new CatalogArticleDto();
+        dto.setId(listing.getId());
+        dto.setTitle(listing.getTitle());
+        dto.setPrice(listing.getPrice());
+        dto.setImage_url(listing.getImageUrl());
+        dto.setAverage_rating(listing.getAverageRating());
+        dto.setTotal_ratings(listing.getTotalRatings());
+        // Units held by pending orders are not offered again
+        dto.setStock_quantity(stockReservationService.getAvailableQuantity(listing.getId(), listing.getStockQuantity()));
+        dto.setIs_available(listing.getIsAvailable());
+        dto.setIs_preorder(listing.getIsPreorder());
+        dto.setArtist(new CatalogArticleDto.ArtistDto(listing.getArtistId(), listing.getArtistName()));
+        dto.setCurrency(new CatalogArticleDto.CurrencyDto(listing.getCurrencyCode(), listing.getCurrencySymbol()));
+        dto.setGenre(new CatalogArticleDto.GenreDto(listing.getGenreId(), listing.getGenreName()));
+        dto.setType(listing.getType());
+        return dto;
+    }
+
+    private CatalogArticleDto mapToArticleDto(AnalogArticle article, String articleType) {
         CatalogArticleDto dto = new CatalogArticleDto();
         dto.setId(article.getId());
         dto.setTitle(article.getTitle());
@@ -272,7 +408,7 @@ public class CatalogServiceImpl implements CatalogService {
         dto.setImage_url(article.getImageUrl());
         dto.setAverage_rating(article.getAverageRating());
         dto.setTotal_ratings(article.getTotalRatings());
-        dto.setStock_quantity(article.getStockQuantity());
+        dto.setStock_quantity(stockReservationService.getAvailableQuantity(article.getId(), article.getStockQuantity()));
         dto.setIs_available(article.getIsAvailable());
         dto.setIs_preorder(article.getIsPreorder());
 
@@ -298,98 +434,85 @@ public class CatalogServiceImpl implements CatalogService {
         }
 
         // ENHANCED: Add article type information
-        String articleType = determineArticleType(article.getId());
         dto.setType(articleType);
 
         return dto;
     }
 
-    private ArticleDetailResponseDto mapToArticleDetailDto(AnalogArticle article) {
-        ArticleDetailResponseDto dto = new ArticleDetailResponseDto();
-        dto.setId(article.getId());
-        dto.setTitle(article.getTitle());
-        dto.setDescription(article.getDescription());
-        dto.setPrice(article.getPrice());
-        dto.setDimensions(article.getDimensions());
-        dto.setWeight_grams(article.getWeightGrams());
-        dto.setBarcode(article.getBarcode());
-        dto.setRelease_date(article.getReleaseDate());
-        dto.setImage_url(article.getImageUrl());
-        dto.setStock_quantity(article.getStockQuantity());
-        dto.setIs_available(article.getIsAvailable());
-        dto.setIs_preorder(article.getIsPreorder());
-        dto.setPre_order_release_date(article.getPreorderReleaseDate());
-        dto.setPre_order_end_date(article.getPreorderEndDate());
-        dto.setAverage_rating(article.getAverageRating());
-        dto.setTotal_ratings(article.getTotalRatings());
-
-        // Artist info
-        if (article.getArtist() != null) {
-            Artist artist = article.getArtist();
-            dto.setArtist(new ArticleDetailResponseDto.ArtistDetailDto(
-                    artist.getId(),
-                    artist.getName(),
-                    artist.getBiography(),
-                    artist.getFormationDate(),
-                    artist.getCareerStartDate(),
-                    artist.getIsBand(),
-                    artist.getWebsite()));
+    /**
+     * Assemble comment trees for a page of top-level comments. Replies for all
+     * roots are collected by one recursive query (bounded by the configured depth
+     * and per-comment reply cap) and linked in memory, so the number of queries
+     * does not depend on thread size
+     */
+    private List<ArticleCommentDto> buildCommentThreads(List<ArticleComment> roots) {
+        if (roots.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        // Currency info - FIXED constructor
-        if (article.getCurrency() != null) {
-            dto.setCurrency(new ArticleDetailResponseDto.CurrencyDto(
-                    article.getCurrency().getCode(),
-                    article.getCurrency().getSymbol()));
+        List<Integer> rootIds = roots.stream()
+                .map(ArticleComment::getId)
+                .collect(Collectors.toList());
+
+        List<Integer> replyIds = articleCommentRepository.findThreadReplyIds(rootIds,
+                commentThreadProperties.getMaxDepth(), commentThreadProperties.getMaxRepliesPerComment());
+        List<ArticleComment> replies = replyIds.isEmpty()
+                ? List.of()
+                : articleCommentRepository.findWithDetailsByIds(replyIds);
+
+        // Visible reply counts for every loaded comment (replies may be truncated)
+        List<Integer> loadedIds = new ArrayList<>(rootIds);
+        loadedIds.addAll(replyIds);
+        Map<Integer, Integer> replyCounts = new HashMap<>();
+        for (Object[] row : articleCommentRepository.countVisibleRepliesByParentIds(loadedIds)) {
+            replyCounts.put((Integer) row[0], ((Number) row[1]).intValue());
         }
 
-        // Genre info
-        if (article.getMusicGenre() != null) {
-            dto.setGenre(new ArticleDetailResponseDto.GenreDto(
-                    article.getMusicGenre().getId(),
-                    article.getMusicGenre().getName(),
-                    article.getMusicGenre().getDescription()));
+        Map<Integer, ArticleCommentDto> nodes = new HashMap<>();
+        List<ArticleCommentDto> rootDtos = new ArrayList<>();
+        for (ArticleComment root : roots) {
+            ArticleCommentDto dto = mapToCommentDto(root, replyCounts);
+            nodes.put(root.getId(), dto);
+            rootDtos.add(dto);
+        }
+        for (ArticleComment reply : replies) {
+            nodes.put(reply.getId(), mapToCommentDto(reply, replyCounts));
         }
 
-        // ENHANCED: Add type and type-specific details
-        String articleType = determineArticleType(article.getId());
-        dto.setType(articleType);
-        dto.setType_details(getTypeSpecificDetails(article.getId(), articleType)); // FIXED method name
+        // Replies come ordered oldest first, so appending keeps thread order
+        for (ArticleComment reply : replies) {
+            ArticleCommentDto parent = nodes.get(reply.getParentComment().getId());
+            if (parent != null) {
+                parent.getReplies().add(nodes.get(reply.getId()));
+            }
+        }
 
-        return dto;
+        return rootDtos;
     }
 
-    // FIXED: Use correct DTO class
-    private ArticleCommentDto mapToCommentDto(ArticleComment comment) {
+    private ArticleCommentDto mapToCommentDto(ArticleComment comment, Map<Integer, Integer> replyCounts) {
         ArticleCommentDto dto = new ArticleCommentDto();
         dto.setId(comment.getId());
         dto.setComment_text(comment.getCommentText());
-        // FIXED: Use correct method for parent comment ID
         dto.setParent_comment_id(comment.getParentComment() != null ? comment.getParentComment().getId() : null);
         dto.setLikes_count(comment.getLikesCount());
         dto.setCreated_at(comment.getCreatedAt());
         dto.setUpdated_at(comment.getUpdatedAt());
 
-        // User info - FIXED: Use correct DTO class
         if (comment.getUser() != null) {
             dto.setUser(new ArticleCommentDto.UserDto(
                     comment.getUser().getId(),
                     comment.getUser().getUsername()));
         }
 
-        // Status info - FIXED: Use correct DTO class
         if (comment.getCommentStatus() != null) {
             dto.setStatus(new ArticleCommentDto.StatusDto(
                     comment.getCommentStatus().getId(),
                     comment.getCommentStatus().getName()));
         }
 
-        // Get replies using CORRECT repository method
-        List<ArticleComment> replies = articleCommentRepository
-                .findRepliesByParentCommentId(comment.getId());
-        dto.setReplies(replies.stream()
-                .map(this::mapToCommentDto)
-                .collect(Collectors.toList()));
+        dto.setReplies(new ArrayList<>());
+        dto.setTotal_replies(replyCounts.getOrDefault(comment.getId(), 0));
 
         return dto;
     }
@@ -416,151 +539,19 @@ public class CatalogServiceImpl implements CatalogService {
     }
 
     /**
-     * ENHANCED: Determine article type based on related entity presence
+     * Build rating distribution from the article's per-star counters
      */
-    private String determineArticleType(Integer articleId) {
-        if (vinylRepository.existsByAnalogArticleId(articleId)) {
-            return "vinyl";
-        } else if (cassetteRepository.existsByAnalogArticleId(articleId)) {
-            return "cassette";
-        } else if (cdRepository.existsByAnalogArticleId(articleId)) {
-            return "cd";
-        }
-        return "unknown";
-    }
-
-    /**
-     * Get type-specific details for article
-     */
-    private Object getTypeSpecificDetails(Integer articleId, String type) {
-        switch (type) {
-            case "vinyl":
-                return vinylRepository.findByAnalogArticleIdWithDetails(articleId)
-                        .map(this::mapVinylDetails)
-                        .orElse(null);
-            case "cassette":
-                return cassetteRepository.findByAnalogArticleIdWithDetails(articleId)
-                        .map(this::mapCassetteDetails)
-                        .orElse(null);
-            case "cd":
-                return cdRepository.findByAnalogArticleIdWithDetails(articleId)
-                        .map(this::mapCdDetails)
-                        .orElse(null);
-            default:
-                return null;
-        }
-    }
-
-    private Object mapVinylDetails(Vinyl vinyl) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("rpm", vinyl.getRpm());
-        details.put("isLimitedEdition", vinyl.getIsLimitedEdition());
-        details.put("remainingLimitedStock", vinyl.getRemainingLimitedStock());
-
-        if (vinyl.getVinylCategory() != null) {
-            Map<String, Object> category = new HashMap<>();
-            category.put("id", vinyl.getVinylCategory().getId());
-            category.put("size", vinyl.getVinylCategory().getSize());
-            category.put("description", vinyl.getVinylCategory().getDescription());
-            details.put("category", category);
-        }
-
-        if (vinyl.getVinylSpecialEdition() != null) {
-            Map<String, Object> specialEdition = new HashMap<>();
-            specialEdition.put("id", vinyl.getVinylSpecialEdition().getId());
-            specialEdition.put("name", vinyl.getVinylSpecialEdition().getName());
-            specialEdition.put("color", vinyl.getVinylSpecialEdition().getColor());
-            specialEdition.put("materialDescription", vinyl.getVinylSpecialEdition().getMaterialDescription());
-            details.put("specialEdition", specialEdition);
-        }
-
-        return details;
-    }
-
-    private Object mapCassetteDetails(Cassette cassette) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("brand", cassette.getBrand());
-        details.put("isChromeTape", cassette.getIsChromeTape());
-
-        if (cassette.getCassetteCategory() != null) {
-            Map<String, Object> category = new HashMap<>();
-            category.put("id", cassette.getCassetteCategory().getId());
-            category.put("name", cassette.getCassetteCategory().getName());
-            category.put("discountPercentage", cassette.getCassetteCategory().getDiscountPercentage());
-            category.put("description", cassette.getCassetteCategory().getDescription());
-            details.put("category", category);
-        }
-
-        return details;
-    }
-
-    private Object mapCdDetails(Cd cd) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("discCount", cd.getDiscCount());
-        details.put("hasBonusContent", cd.getHasBonusContent());
-        details.put("isRemastered", cd.getIsRemastered());
-        return details;
-    }
-
-    /**
-     * Build rating distribution using CORRECT repository method
-     */
-    private Map<String, Integer> buildRatingDistribution(Integer articleId) {
-        Object[][] results = articleRatingRepository.findRatingDistributionByArticleId(articleId);
+    private Map<String, Integer> buildRatingDistribution(AnalogArticle article) {
         Map<String, Integer> distribution = new HashMap<>();
-
-        // Initialize with all possible ratings
-        for (int i = 1; i <= 5; i++) {
-            distribution.put(String.valueOf(i), 0);
-        }
-
-        // Fill with actual data
-        for (Object[] result : results) {
-            String rating = String.valueOf(result[0]);
-            Integer count = ((Number) result[1]).intValue();
-            distribution.put(rating, count);
-        }
-
+        distribution.put("1", nullToZero(article.getRatingCount1()));
+        distribution.put("2", nullToZero(article.getRatingCount2()));
+        distribution.put("3", nullToZero(article.getRatingCount3()));
+        distribution.put("4", nullToZero(article.getRatingCount4()));
+        distribution.put("5", nullToZero(article.getRatingCount5()));
         return distribution;
     }
 
-    private CatalogArticlesResponseDto.FiltersDto buildFilters() {
-        // Get available genres
-        List<MusicGenre> genres = musicGenreRepository.findGenresWithAvailableArticles();
-        List<CatalogArticlesResponseDto.GenreFilterDto> genreFilters = genres.stream()
-                .map(genre -> new CatalogArticlesResponseDto.GenreFilterDto(
-                        genre.getId(), genre.getName()))
-                .collect(Collectors.toList());
-
-        // Get available artists
-        List<Artist> artists = artistRepository.findArtistsWithAvailableArticles();
-        List<CatalogArticlesResponseDto.ArtistFilterDto> artistFilters = artists.stream()
-                .map(artist -> new CatalogArticlesResponseDto.ArtistFilterDto(
-                        artist.getId(), artist.getName()))
-                .collect(Collectors.toList());
-
-        // Get price range (defensive against provider-specific shapes)
-        Object[] priceRange = analogArticleRepository.findPriceRange();
-        BigDecimal minPrice = BigDecimal.ZERO;
-        BigDecimal maxPrice = BigDecimal.ZERO;
-        if (priceRange != null) {
-            if (priceRange.length == 1 && priceRange[0] instanceof Object[]) {
-                Object[] row = (Object[]) priceRange[0];
-                if (row.length > 0)
-                    minPrice = toBigDecimal(row[0]);
-                if (row.length > 1)
-                    maxPrice = toBigDecimal(row[1]);
-            } else {
-                if (priceRange.length > 0)
-                    minPrice = toBigDecimal(priceRange[0]);
-                if (priceRange.length > 1)
-                    maxPrice = toBigDecimal(priceRange[1]);
-            }
-        }
-        CatalogArticlesResponseDto.PriceRangeDto priceRangeDto = new CatalogArticlesResponseDto.PriceRangeDto(
-                minPrice, maxPrice);
-
-        return new CatalogArticlesResponseDto.FiltersDto(
-                genreFilters, artistFilters, priceRangeDto);
+    private int nullToZero(Integer value) {
+        return value != null ? value : 0;
     }
 }
@@ -0,0 +1,160 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.entity.ShoppingCart;
+import usac.cunoc.bpmn.entity.ShoppingCartItem;
+import usac.cunoc.bpmn.entity.User;
+import usac.cunoc.bpmn.repository.ShoppingCartItemRepository;
+import usac.cunoc.bpmn.repository.ShoppingCartRepository;
+import usac.cunoc.bpmn.repository.UserRepository;
+import usac.cunoc.bpmn.service.CartStore;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cart store backed directly by shopping_cart_item - every change is written
+ * in the caller's transaction while holding the cart row lock. Also used by InMemoryCartStore to load and
+ * flush carts
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class DatabaseCartStore implements CartStore {
+
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final ShoppingCartItemRepository shoppingCartItemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public CartState read(Integer userId) {
+        return load(userId);
+    }
+
+    @Override
+    public CartState modify(Integer userId, Consumer<CartState> change) {
+        // Edits rewrite the whole line set, so serialize them with each other and
+        // with checkout (same row lock) before reading the lines
+        if (!lockCart(userId)) {
+            createCartForUser(userId);
+        }
+        CartState state = load(userId);
+        CartState original = state.copy();
+
+        change.accept(state);
+        if (!state.equals(original)) {
+            assignItemIds(state);
+            persist(state);
+        }
+        return state;
+    }
+
+    @Override
+    public void flush(Integer userId) {
+        // Changes are already written by modify
+    }
+
+    @Override
+    public void evict(Integer userId) {
+        // Nothing is held outside the database
+    }
+
+    /**
+     * Load the user's cart from the database, creating it if needed
+     */
+    public CartState load(Integer userId) {
+        ShoppingCart cart = shoppingCartRepository.findByUserId(userId)
+                .orElseGet(() -> createCartForUser(userId));
+
+        List<CartLine> lines = shoppingCartItemRepository.findByCartId(cart.getId()).stream()
+                .map(this::mapToCartLine)
+                .collect(Collectors.toList());
+
+        return new CartState(cart.getId(), lines);
+    }
+
+    /**
+     * Lock the user's cart row until the current transaction ends, the same
+     * lock checkout takes
+     *
+     * @return Whether the user has a cart
+     */
+    public boolean lockCart(Integer userId) {
+        return shoppingCartRepository.findByUserIdForUpdate(userId).isPresent();
+    }
+
+    /**
+     * Give new lines their shopping_cart_item IDs with a single sequence query
+     */
+    public void assignItemIds(CartState state) {
+        List<CartLine> newLines = state.getLines().stream()
+                .filter(line -> line.getId() == null)
+                .collect(Collectors.toList());
+        if (newLines.isEmpty()) {
+            return;
+        }
+
+        Iterator<Long> ids = shoppingCartItemRepository.allocateItemIds(newLines.size()).iterator();
+        newLines.forEach(line -> line.setId(ids.next().intValue()));
+    }
+
+    /**
+     * Write the cart state to shopping_cart_item and recompute the cart totals
+     * once. Lines must already have their IDs assigned
+     */
+    public void persist(CartState state) {
+        shoppingCartRepository.setDeferCartTotals("on");
+
+        List<Integer> keepIds = state.getLines().stream()
+                .map(CartLine::getId)
+                .collect(Collectors.toList());
+        if (keepIds.isEmpty()) {
+            shoppingCartItemRepository.deleteByShoppingCartId(state.getCartId());
+        } else {
+            shoppingCartItemRepository.deleteByShoppingCartIdAndIdNotIn(state.getCartId(), keepIds);
+        }
+
+        for (CartLine line : state.getLines()) {
+            shoppingCartItemRepository.upsertItem(
+                    line.getId(),
+                    state.getCartId(),
+                    line.getArticleId(),
+                    line.getQuantity(),
+                    line.getUnitPrice(),
+                    line.getDiscountApplied(),
+                    line.getPromotionId());
+        }
+
+        shoppingCartRepository.refreshCartTotals(state.getCartId());
+        shoppingCartRepository.setDeferCartTotals("off");
+
+        log.debug("Persisted cart {} with {} lines", state.getCartId(), state.getLines().size());
+    }
+
+    private ShoppingCart createCartForUser(Integer userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        ShoppingCart cart = new ShoppingCart();
+        cart.setUser(user);
+        cart.setTotalItems(0);
+        cart.setSubtotal(BigDecimal.ZERO);
+        return shoppingCartRepository.save(cart);
+    }
+
+    private CartLine mapToCartLine(ShoppingCartItem item) {
+        return new CartLine(
+                item.getId(),
+                item.getAnalogArticle().getId(),
+                item.getQuantity(),
+                item.getUnitPrice(),
+                item.getDiscountApplied() != null ? item.getDiscountApplied() : BigDecimal.ZERO,
+                item.getCdPromotion() != null ? item.getCdPromotion().getId() : null);
+    }
+}
@@ -1,21 +1,33 @@
 package usac.cunoc.bpmn.service.impl;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import usac.cunoc.bpmn.service.EncryptionService;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 
 /**
- * Service for encrypting/decrypting sensitive data like credit card information
- * Fixed AES key length issue by normalizing key to exactly 32 bytes
+ * Service for encrypting/decrypting sensitive data like credit card information.
+ * Values are encrypted with AES-256-GCM and stored as "v1:" followed by the
+ * Base64 of [12-byte IV][ciphertext + 16-byte tag]; the key is derived once at
+ * startup and each thread keeps its own Cipher instances.
+ *
+ * Values without the prefix are plain Base64 AES/ECB written by the previous
+ * implementation with the same key; they still decrypt, and needsReencryption
+ * tells callers to write them back in the current format. The prefix is
+ * outside the Base64 alphabet, so a prefixed value is never read as ECB and a
+ * failed tag check always rejects it
  */
 @Slf4j
 @Service
@@ -25,25 +37,40 @@ public class EncryptionServiceImpl implements EncryptionService {
     private String encryptionKey;
 
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
-    private static final int AES_KEY_LENGTH = 32; // 256 bits
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String GCM_PREFIX = "v1:";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int MIN_GCM_LENGTH = IV_LENGTH + TAG_LENGTH_BITS / 8;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretKeySpec secretKey;
+    private ThreadLocal<Cipher> gcmCipher;
+    private ThreadLocal<Cipher> legacyCipher;
 
     /**
-     * Normalizes the encryption key to exactly 32 bytes for AES-256
+     * Derive the AES-256 key from the configured secret with SHA-256, as the
+     * ECB format did, so legacy values decrypt with the same key
      */
-    private byte[] normalizeKey(String key) {
-        try {
-            // Use SHA-256 to create a consistent 32-byte key from any input
-            MessageDigest sha = MessageDigest.getInstance("SHA-256");
-            byte[] keyBytes = key.getBytes("UTF-8");
-            byte[] hashedKey = sha.digest(keyBytes);
-
-            // Ensure exactly 32 bytes
-            return Arrays.copyOf(hashedKey, AES_KEY_LENGTH);
-        } catch (Exception e) {
-            log.error("Error normalizing encryption key", e);
-            throw new RuntimeException("Error processing encryption key");
-        }
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        byte[] keyBytes = MessageDigest.getInstance("SHA-256")
+                .digest(encryptionKey.getBytes(StandardCharsets.UTF_8));
+        secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
+
+        gcmCipher = ThreadLocal.withInitial(() -> newCipher(TRANSFORMATION));
+        legacyCipher = ThreadLocal.withInitial(() -> {
+            Cipher cipher = newCipher(LEGACY_TRANSFORMATION);
+            try {
+                // ECB has no IV, so the cipher is initialised once per thread
+                cipher.init(Cipher.DECRYPT_MODE, secretKey);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + LEGACY_TRANSFORMATION, e);
+            }
+            return cipher;
+        });
     }
 
     @Override
@@ -53,14 +80,18 @@ public class EncryptionServiceImpl implements EncryptionService {
         }
 
         try {
-            byte[] normalizedKey = normalizeKey(encryptionKey);
-            SecretKeySpec secretKey = new SecretKeySpec(normalizedKey, ALGORITHM);
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            byte[] plaintext = data.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(IV_LENGTH + cipher.getOutputSize(plaintext.length));
+            record.put(iv);
+            cipher.doFinal(ByteBuffer.wrap(plaintext), record);
 
-            byte[] encryptedData = cipher.doFinal(data.getBytes("UTF-8"));
-            return Base64.getEncoder().encodeToString(encryptedData);
+            return GCM_PREFIX + Base64.getEncoder().encodeToString(record.array());
         } catch (Exception e) {
             log.error("Error encrypting data", e);
             throw new RuntimeException("Error encrypting data");
@@ -74,26 +105,41 @@ public class EncryptionServiceImpl implements EncryptionService {
         }
 
         try {
-            byte[] normalizedKey = normalizeKey(encryptionKey);
-            SecretKeySpec secretKey = new SecretKeySpec(normalizedKey, ALGORITHM);
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-
-            byte[] decodedData = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedData = cipher.doFinal(decodedData);
-
-            return new String(decryptedData, "UTF-8");
+            return decrypt(encryptedData, gcmCipher.get(), legacyCipher.get());
         } catch (Exception e) {
             log.error("Error decrypting data", e);
             throw new RuntimeException("Error decrypting data");
         }
     }
 
+    @Override
+    public List<String> decryptAll(List<String> encryptedData) {
+        Cipher cipher = gcmCipher.get();
+        Cipher legacy = legacyCipher.get();
+
+        List<String> decrypted = new ArrayList<>(encryptedData.size());
+        for (String value : encryptedData) {
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalArgumentException("Encrypted data cannot be null or empty");
+            }
+            try {
+                decrypted.add(decrypt(value, cipher, legacy));
+            } catch (Exception e) {
+                log.error("Error decrypting data", e);
+                throw new RuntimeException("Error decrypting data");
+            }
+        }
+        return decrypted;
+    }
+
+    @Override
+    public boolean needsReencryption(String encryptedData) {
+        return encryptedData != null && !encryptedData.startsWith(GCM_PREFIX);
+    }
+
     @Override
     public List<String> generateBackupCodes() {
         List<String> backupCodes = new ArrayList<>();
-        SecureRandom random = new SecureRandom();
 
         for (int i = 0; i < 10; i++) {
             // Generate 8-character backup codes
@@ -106,4 +152,29 @@ public class EncryptionServiceImpl implements EncryptionService {
 
         return backupCodes;
     }
-}
\ No newline at end of file
+
+    private String decrypt(String encryptedData, Cipher cipher, Cipher legacy) throws GeneralSecurityException {
+        if (encryptedData.startsWith(GCM_PREFIX)) {
+            // A bad tag throws; GCM values never fall back to the legacy format
+            return decryptGcm(Base64.getDecoder().decode(encryptedData.substring(GCM_PREFIX.length())), cipher);
+        }
+        return new String(legacy.doFinal(Base64.getDecoder().decode(encryptedData)), StandardCharsets.UTF_8);
+    }
+
+    private String decryptGcm(byte[] record, Cipher cipher) throws GeneralSecurityException {
+        if (record.length < MIN_GCM_LENGTH) {
+            throw new GeneralSecurityException("GCM record too short");
+        }
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, record, 0, IV_LENGTH));
+        byte[] plaintext = cipher.doFinal(record, IV_LENGTH, record.length - IV_LENGTH);
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher not available: " + transformation, e);
+        }
+    }
+}
@@ -7,12 +7,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.dto.common.PaginationDto;
 import usac.cunoc.bpmn.dto.event.*;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.exception.EventChatException;
 import usac.cunoc.bpmn.exception.EventNotFoundException;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.EventService;
+import usac.cunoc.bpmn.util.KeysetCursor;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -128,7 +130,7 @@ public class EventServiceImpl implements EventService {
 
         @Override
         public EventChatResponseDto getEventChat(Integer eventId, Integer page, Integer limit,
-                        LocalDateTime since, Integer userId) {
+                        LocalDateTime since, Integer userId, String cursor) {
                 log.info("Getting chat for event {} - page: {}, limit: {}, since: {}", eventId, page, limit, since);
 
                 // Validate event exists
@@ -141,6 +143,10 @@ public class EventServiceImpl implements EventService {
                         throw new RuntimeException("You must be registered for this event to access chat");
                 }
 
+                if (cursor != null) {
+                        return getEventChatByCursor(eventId, limit, since, cursor);
+                }
+
                 Pageable pageable = PageRequest.of(page - 1, limit);
                 Page<EventChatMessage> messagePage = eventChatMessageRepository.findChatMessagesByEventId(
                                 eventId, since, pageable);
@@ -149,7 +155,7 @@ public class EventServiceImpl implements EventService {
                                 .map(this::mapToMessageDto)
                                 .collect(Collectors.toList());
 
-                EventChatResponseDto.PaginationDto pagination = new EventChatResponseDto.PaginationDto(
+                PaginationDto pagination = new PaginationDto(
                                 messagePage.getNumber() + 1,
                                 messagePage.getTotalPages(),
                                 (int) messagePage.getTotalElements(),
@@ -158,6 +164,36 @@ public class EventServiceImpl implements EventService {
                 return new EventChatResponseDto(eventId, messageDtos, pagination);
         }
 
+        /**
+         * Keyset page of chat messages (newest first) - no OFFSET scan, no count query
+         */
+        private EventChatResponseDto getEventChatByCursor(Integer eventId, Integer limit, LocalDateTime since,
+                        String cursor) {
+                KeysetCursor position = KeysetCursor.decode(cursor, "sent_at");
+
+                // Fetch one extra row to know whether there is a next page
+                List<EventChatMessage> rows = eventChatMessageRepository.findChatMessagesByEventIdAfterCursor(
+                                eventId, since,
+                                position != null ? position.getValueAsDateTime() : null,
+                                position != null ? position.getId() : null,
+                                PageRequest.of(0, limit + 1));
+
+                boolean hasMore = rows.size() > limit;
+                List<EventChatMessage> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+                String nextCursor = null;
+                if (hasMore) {
+                        EventChatMessage last = pageRows.get(pageRows.size() - 1);
+                        nextCursor = KeysetCursor.encode("sent_at", last.getSentAt(), last.getId());
+                }
+
+                List<EventChatResponseDto.MessageDto> messageDtos = pageRows.stream()
+                                .map(this::mapToMessageDto)
+                                .collect(Collectors.toList());
+
+                return new EventChatResponseDto(eventId, messageDtos, PaginationDto.ofCursor(limit, nextCursor));
+        }
+
         @Override
         @Transactional
         public SendChatMessageResponseDto sendChatMessage(Integer eventId, SendChatMessageRequestDto request,
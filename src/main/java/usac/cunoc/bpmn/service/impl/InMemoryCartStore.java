@@ -0,0 +1,345 @@
+package usac.cunoc.bpmn.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import usac.cunoc.bpmn.config.CartStoreProperties;
+import usac.cunoc.bpmn.entity.AnalogArticle;
+import usac.cunoc.bpmn.entity.CdPromotion;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
+import usac.cunoc.bpmn.repository.AnalogArticleRepository;
+import usac.cunoc.bpmn.repository.CdPromotionRepository;
+import usac.cunoc.bpmn.service.CartStore;
+import usac.cunoc.bpmn.service.PromotionPricingService.PromotionPlan;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind cart store - keeps live carts in a bounded in-process map and
+ * computes totals in memory. Carts reach Postgres at checkout, on the periodic
+ * flush, when they are evicted (idle TTL or capacity) and on shutdown.
+ *
+ * A cart's monitor only guards copying its state; database work happens
+ * outside it. Background flushes run in their own transaction and lock the
+ * cart row before copying the state, so they wait for a running checkout and
+ * never write an older version over a newer one
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryCartStore implements CartStore {
+
+    private final DatabaseCartStore databaseCartStore;
+    private final AnalogArticleRepository analogArticleRepository;
+    private final CdPromotionRepository cdPromotionRepository;
+    private final CartStoreProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Integer, CachedCart> carts = new ConcurrentHashMap<>();
+
+    private TransactionTemplate flushTransaction;
+
+    @PostConstruct
+    public void init() {
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public CartState read(Integer userId) {
+        CachedCart cached = getCachedCart(userId);
+        synchronized (cached) {
+            return cached.state.copy();
+        }
+    }
+
+    @Override
+    public CartState modify(Integer userId, Consumer<CartState> change) {
+        while (true) {
+            CachedCart cached = getCachedCart(userId);
+            CartState base;
+            long baseVersion;
+            synchronized (cached) {
+                base = cached.state.copy();
+                baseVersion = cached.version;
+            }
+
+            // Work on a copy so a failing change leaves the cart untouched
+            CartState working = base.copy();
+            change.accept(working);
+            if (working.equals(base)) {
+                return working;
+            }
+            databaseCartStore.assignItemIds(working);
+
+            synchronized (cached) {
+                // Apply the change again if the cart moved on meanwhile
+                if (cached.version == baseVersion && carts.get(userId) == cached) {
+                    cached.state = working;
+                    cached.version++;
+                    return working.copy();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush(Integer userId) {
+        CachedCart cached = carts.get(userId);
+        if (cached == null) {
+            return;
+        }
+
+        // The caller holds the cart row lock, so no other flush runs meanwhile
+        Snapshot snapshot = snapshot(cached);
+        if (snapshot == null) {
+            return;
+        }
+        databaseCartStore.persist(snapshot.state());
+        afterCommit(() -> markFlushed(cached, snapshot.version()));
+    }
+
+    @Override
+    public void evict(Integer userId) {
+        CachedCart cached = carts.get(userId);
+        if (cached == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            carts.remove(userId, cached);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Background flushes waiting on the cart row must not write it back
+                cached.retired = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    carts.remove(userId, cached);
+                } else {
+                    cached.retired = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Periodic write-behind: flush changed carts, then drop idle ones and the
+     * least recently used ones over capacity
+     */
+    @Scheduled(fixedDelayString = "#{@cartStoreProperties.flushInterval.toMillis()}")
+    public void flushChangedCarts() {
+        carts.forEach(this::flushInBackground);
+
+        long idleSince = System.currentTimeMillis() - properties.getTtl().toMillis();
+        carts.forEach((userId, cached) -> {
+            if (cached.lastAccess < idleSince) {
+                removeIfClean(userId, cached);
+            }
+        });
+        evictOverCapacity();
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        carts.forEach(this::flushInBackground);
+        log.info("Flushed {} in-memory carts on shutdown", carts.size());
+    }
+
+    /**
+     * Article prices changed in the catalog; update_cart_prices only reprices
+     * rows already in shopping_cart_item, so reprice the in-memory lines and
+     * their promotion discounts too
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getArticleId() == null) {
+            return;
+        }
+
+        AnalogArticle article = analogArticleRepository.findById(event.getArticleId()).orElse(null);
+        if (article == null) {
+            return;
+        }
+
+        Set<Integer> promotionIds = new HashSet<>();
+        carts.values().forEach(cached -> {
+            synchronized (cached) {
+                cached.state.findLineByArticle(article.getId())
+                        .map(CartLine::getPromotionId)
+                        .ifPresent(promotionIds::add);
+            }
+        });
+        Map<Integer, CdPromotion> promotions = cdPromotionRepository.findAllById(promotionIds).stream()
+                .collect(Collectors.toMap(CdPromotion::getId, Function.identity()));
+
+        carts.values().forEach(cached -> {
+            synchronized (cached) {
+                cached.state.findLineByArticle(article.getId())
+                        .filter(line -> line.getUnitPrice().compareTo(article.getPrice()) != 0)
+                        .ifPresent(line -> {
+                            line.setUnitPrice(article.getPrice());
+                            CdPromotion promotion = promotions.get(line.getPromotionId());
+                            if (promotion != null) {
+                                line.setDiscountApplied(PromotionPlan.discountFor(line, promotion));
+                            }
+                            cached.version++;
+                        });
+            }
+        });
+    }
+
+    private CachedCart getCachedCart(Integer userId) {
+        CachedCart cached = carts.get(userId);
+        if (cached == null) {
+            CachedCart loaded = new CachedCart(databaseCartStore.load(userId));
+            cached = carts.putIfAbsent(userId, loaded);
+            if (cached == null) {
+                cached = loaded;
+                // The cart row may have been created by a transaction that is then rolled back
+                afterRollback(() -> carts.remove(userId, loaded));
+            }
+        }
+        cached.lastAccess = System.currentTimeMillis();
+        return cached;
+    }
+
+    /**
+     * Write a cart in its own transaction, off any request's transaction
+     */
+    private void flushInBackground(Integer userId, CachedCart cached) {
+        try {
+            Long flushed = flushTransaction.execute(status -> {
+                if (!databaseCartStore.lockCart(userId) || cached.retired || carts.get(userId) != cached) {
+                    // Checked out or evicted while waiting for the lock
+                    return null;
+                }
+                Snapshot snapshot = snapshot(cached);
+                if (snapshot == null) {
+                    return null;
+                }
+                databaseCartStore.persist(snapshot.state());
+                return snapshot.version();
+            });
+            if (flushed != null) {
+                markFlushed(cached, flushed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not flush cart for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Copy of the cart's state if it changed since its last flush
+     */
+    private Snapshot snapshot(CachedCart cached) {
+        synchronized (cached) {
+            if (cached.version == cached.flushedVersion) {
+                return null;
+            }
+            return new Snapshot(cached.state.copy(), cached.version);
+        }
+    }
+
+    private void markFlushed(CachedCart cached, long version) {
+        synchronized (cached) {
+            cached.flushedVersion = Math.max(cached.flushedVersion, version);
+        }
+    }
+
+    /**
+     * Drop least recently used carts while over capacity. Runs after the
+     * flush sweep, so only carts changed since then are kept
+     */
+    private void evictOverCapacity() {
+        int overflow = carts.size() - properties.getMaxCarts();
+        if (overflow <= 0) {
+            return;
+        }
+
+        List<Map.Entry<Integer, CachedCart>> byAccess = new ArrayList<>(carts.entrySet());
+        byAccess.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<Integer, CachedCart> entry : byAccess) {
+            if (overflow <= 0) {
+                return;
+            }
+            if (removeIfClean(entry.getKey(), entry.getValue())) {
+                overflow--;
+            }
+        }
+    }
+
+    private boolean removeIfClean(Integer userId, CachedCart cached) {
+        synchronized (cached) {
+            return cached.version == cached.flushedVersion && carts.remove(userId, cached);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private record Snapshot(CartState state, long version) {
+    }
+
+    private static class CachedCart {
+
+        private CartState state;
+        private long version;
+        private long flushedVersion;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile boolean retired;
+
+        private CachedCart(CartState state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import usac.cunoc.bpmn.entity.CatalogListing;
+import usac.cunoc.bpmn.event.CatalogChangedEvent;
+import usac.cunoc.bpmn.event.PromotionChangedEvent;
+import usac.cunoc.bpmn.repository.CdPromotionArticleRepository;
+import usac.cunoc.bpmn.service.PromotionEligibilityIndex;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory promotion eligibility index - an immutable snapshot of
+ * cd_promotion_article joined with catalog_listing, built with a single query
+ * and swapped whole when promotions or the catalog change. Promotion activity
+ * is checked on read, so expired promotions drop out without a rebuild
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InMemoryPromotionEligibilityIndex implements PromotionEligibilityIndex {
+
+    private final CdPromotionArticleRepository cdPromotionArticleRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    @Override
+    public List<EligibleArticle> getEligibleArticles(Integer promotionId) {
+        return snapshot.articlesByPromotion.getOrDefault(promotionId, List.of());
+    }
+
+    @Override
+    public List<Integer> getActivePromotionIds(Integer articleId) {
+        Snapshot current = snapshot;
+        LocalDateTime now = LocalDateTime.now();
+        return current.promotionsByArticle.getOrDefault(articleId, List.of()).stream()
+                .filter(promotionId -> current.windows.get(promotionId).isActiveAt(now))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Map<Integer, List<EligibleArticle>> articlesByPromotion = new HashMap<>();
+        Map<Integer, List<Integer>> promotionsByArticle = new HashMap<>();
+        Map<Integer, ActivityWindow> windows = new HashMap<>();
+
+        List<Object[]> rows = cdPromotionArticleRepository.findEligibilityRows();
+        for (Object[] row : rows) {
+            Integer promotionId = (Integer) row[0];
+            CatalogListing listing = (CatalogListing) row[3];
+
+            windows.putIfAbsent(promotionId, new ActivityWindow((Boolean) row[1], (LocalDateTime) row[2]));
+            articlesByPromotion.computeIfAbsent(promotionId, id -> new ArrayList<>())
+                    .add(new EligibleArticle(listing.getId(), listing.getTitle(), listing.getArtistName(),
+                            listing.getPrice(), listing.getImageUrl()));
+            promotionsByArticle.computeIfAbsent(listing.getId(), id -> new ArrayList<>()).add(promotionId);
+        }
+
+        articlesByPromotion.replaceAll((id, articles) -> List.copyOf(articles));
+        promotionsByArticle.replaceAll((id, promotionIds) -> List.copyOf(promotionIds));
+        snapshot = new Snapshot(articlesByPromotion, promotionsByArticle, windows);
+
+        log.info("Promotion eligibility index built: {} promotions, {} articles",
+                articlesByPromotion.size(), promotionsByArticle.size());
+    }
+
+    /**
+     * Rebuild once a promotion change has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        log.debug("Promotion {} changed, rebuilding eligibility index", event.getPromotionId());
+        refresh();
+    }
+
+    /**
+     * Rebuild when catalog data of an indexed article (title, price, image) or
+     * shared data (artists, genres) changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getArticleId() == null || snapshot.promotionsByArticle.containsKey(event.getArticleId())) {
+            refresh();
+        }
+    }
+
+    private record ActivityWindow(Boolean isActive, LocalDateTime endDate) {
+
+        boolean isActiveAt(LocalDateTime now) {
+            return Boolean.TRUE.equals(isActive) && (endDate == null || endDate.isAfter(now));
+        }
+    }
+
+    private record Snapshot(Map<Integer, List<EligibleArticle>> articlesByPromotion,
+            Map<Integer, List<Integer>> promotionsByArticle,
+            Map<Integer, ActivityWindow> windows) {
+    }
+}
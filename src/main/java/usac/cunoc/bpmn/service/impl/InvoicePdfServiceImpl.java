@@ -0,0 +1,321 @@
+package usac.cunoc.bpmn.service.impl;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import usac.cunoc.bpmn.config.InvoicePdfProperties;
+import usac.cunoc.bpmn.entity.Invoice;
+import usac.cunoc.bpmn.entity.Order;
+import usac.cunoc.bpmn.entity.UserAddress;
+import usac.cunoc.bpmn.repository.InvoiceRepository;
+import usac.cunoc.bpmn.repository.OrderItemRepository;
+import usac.cunoc.bpmn.repository.OrderItemRepository.OrderItemView;
+import usac.cunoc.bpmn.service.InvoicePdfService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Invoice PDF service implementation - invoices are rendered with iText
+ * straight onto the caller's stream and into a temporary file that becomes
+ * the cached copy once the document is complete. Issued invoices do not
+ * change, so a cached PDF is served as is.
+ *
+ * The bulk export renders on a fixed pool with a bounded number of invoices
+ * in flight and copies each finished file into the ZIP, so memory use does
+ * not depend on the size of the export
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InvoicePdfServiceImpl implements InvoicePdfService {
+
+    private static final Pattern SAFE_INVOICE_NUMBER = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final InvoiceRepository invoiceRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InvoicePdfProperties properties;
+
+    private Path cacheDir;
+    private ExecutorService exportExecutor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        cacheDir = Files.createDirectories(Paths.get(properties.getCacheDir()));
+        exportExecutor = Executors.newFixedThreadPool(properties.getExportThreads(),
+                new CustomizableThreadFactory("invoice-export-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdownNow();
+    }
+
+    @Override
+    public void writeInvoicePdf(Integer invoiceId, OutputStream out) throws IOException {
+        Invoice invoice = loadInvoice(invoiceId);
+        Path cached = cachedPdf(invoice);
+
+        if (Files.exists(cached)) {
+            Files.copy(cached, out);
+            return;
+        }
+
+        // Render once, to the client and to the cache at the same time
+        Path temp = Files.createTempFile(cacheDir, invoice.getInvoiceNumber(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                render(invoice, new TeeOutputStream(out, file));
+            }
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public int writeInvoicesZip(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        List<Integer> invoiceIds = invoiceRepository.findIdsByIssueDateBetween(startDate, endDate);
+
+        CompletionService<Path> renders = new ExecutorCompletionService<>(exportExecutor);
+        Iterator<Integer> pending = invoiceIds.iterator();
+        int window = properties.getExportThreads() * 2;
+        int inFlight = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            while (inFlight < window && pending.hasNext()) {
+                Integer invoiceId = pending.next();
+                renders.submit(() -> renderToCache(invoiceId));
+                inFlight++;
+            }
+
+            // Entries are written in completion order as renders finish
+            while (inFlight > 0) {
+                Path pdf = renders.take().get();
+                inFlight--;
+
+                if (pending.hasNext()) {
+                    Integer invoiceId = pending.next();
+                    renders.submit(() -> renderToCache(invoiceId));
+                    inFlight++;
+                }
+
+                zip.putNextEntry(new ZipEntry(pdf.getFileName().toString()));
+                Files.copy(pdf, zip);
+                zip.closeEntry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportación de facturas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al generar la factura: " + e.getCause().getMessage(), e.getCause());
+        }
+        zip.finish();
+
+        log.info("Exported {} invoices issued between {} and {}", invoiceIds.size(), startDate, endDate);
+        return invoiceIds.size();
+    }
+
+    /**
+     * Make sure the PDF of an invoice is in the cache and return its path
+     */
+    private Path renderToCache(Integer invoiceId) throws IOException {
+        Invoice invoice = loadInvoice(invoiceId);
+        Path cached = cachedPdf(invoice);
+        if (Files.exists(cached)) {
+            return cached;
+        }
+
+        Path temp = Files.createTempFile(cacheDir, invoice.getInvoiceNumber(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                render(invoice, file);
+            }
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return cached;
+    }
+
+    private Invoice loadInvoice(Integer invoiceId) {
+        return invoiceRepository.findWithDetailsById(invoiceId)
+                .orElseThrow(() -> new RuntimeException("Factura no encontrada"));
+    }
+
+    private Path cachedPdf(Invoice invoice) {
+        String invoiceNumber = invoice.getInvoiceNumber();
+        if (!SAFE_INVOICE_NUMBER.matcher(invoiceNumber).matches()) {
+            throw new IllegalStateException("Invalid invoice number for a file name: " + invoiceNumber);
+        }
+        return cacheDir.resolve(invoiceNumber + ".pdf");
+    }
+
+    /**
+     * Render an invoice; pages are written to the stream as they are laid out
+     */
+    private void render(Invoice invoice, OutputStream out) {
+        Order order = invoice.getOrder();
+        List<OrderItemView> items = orderItemRepository.findOrderItemViewsByOrderId(order.getId());
+        String symbol = invoice.getCurrency().getSymbol();
+
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+
+        try (Document document = new Document(new PdfDocument(writer))) {
+            document.add(new Paragraph("FACTURA").setBold().setFontSize(20));
+            document.add(new Paragraph()
+                    .add("No. factura: " + invoice.getInvoiceNumber() + "\n")
+                    .add("Orden: " + order.getOrderNumber() + "\n")
+                    .add("Fecha de emisión: " + formatDate(invoice.getIssueDate()) + "\n")
+                    .add("Fecha de vencimiento: " + formatDate(invoice.getDueDate()) + "\n")
+                    .add("NIT: " + (invoice.getTaxId() != null ? invoice.getTaxId() : "C/F")));
+
+            document.add(new Paragraph("Cliente").setBold());
+            document.add(new Paragraph()
+                    .add(order.getUser().getFirstName() + " " + order.getUser().getLastName() + "\n")
+                    .add(order.getUser().getEmail() + "\n")
+                    .add(formatAddress(order.getBillingAddress())));
+
+            Table table = new Table(UnitValue.createPercentArray(new float[] { 5, 2, 1, 2, 2, 2 }))
+                    .useAllAvailableWidth();
+            for (String header : new String[] { "Artículo", "Tipo", "Cant.", "Precio", "Descuento", "Total" }) {
+                table.addHeaderCell(new Cell().add(new Paragraph(header).setBold()));
+            }
+            for (OrderItemView item : items) {
+                table.addCell(item.getTitle() + " - " + item.getArtistName()
+                        + (item.getPromotionName() != null ? "\n" + item.getPromotionName() : ""));
+                table.addCell(getArticleTypeLabel(item.getType()));
+                table.addCell(amountCell(String.valueOf(item.getQuantity())));
+                table.addCell(amountCell(formatMoney(symbol, item.getUnitPrice())));
+                table.addCell(amountCell(formatMoney(symbol, item.getDiscountAmount())));
+                table.addCell(amountCell(formatMoney(symbol, item.getTotalPrice())));
+            }
+            document.add(table);
+
+            document.add(new Paragraph()
+                    .add("Subtotal: " + formatMoney(symbol, invoice.getSubtotal()) + "\n")
+                    .add("Descuento: " + formatMoney(symbol, order.getDiscountAmount()) + "\n")
+                    .add("Impuestos: " + formatMoney(symbol, invoice.getTaxAmount()) + "\n")
+                    .add("Envío: " + formatMoney(symbol, order.getShippingCost()) + "\n")
+                    .add("Total: " + formatMoney(symbol, invoice.getTotalAmount()))
+                    .setTextAlignment(TextAlignment.RIGHT));
+
+            if (invoice.getNotes() != null) {
+                document.add(new Paragraph(invoice.getNotes()).setFontSize(9));
+            }
+        }
+    }
+
+    private Cell amountCell(String text) {
+        return new Cell().add(new Paragraph(text)).setTextAlignment(TextAlignment.RIGHT);
+    }
+
+    private String formatAddress(UserAddress address) {
+        if (address == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(address.getAddressLine1());
+        if (address.getAddressLine2() != null) {
+            text.append(", ").append(address.getAddressLine2());
+        }
+        text.append("\n").append(address.getCity());
+        if (address.getState() != null) {
+            text.append(", ").append(address.getState());
+        }
+        if (address.getPostalCode() != null) {
+            text.append(" ").append(address.getPostalCode());
+        }
+        return text.append("\n").append(address.getCountry().getName()).toString();
+    }
+
+    private String formatDate(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : "-";
+    }
+
+    private String formatMoney(String symbol, BigDecimal amount) {
+        BigDecimal value = amount != null ? amount : BigDecimal.ZERO;
+        return symbol + " " + value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Map article type code to the label printed on invoices
+     */
+    private String getArticleTypeLabel(String articleType) {
+        if ("vinyl".equals(articleType)) {
+            return "Vinilo";
+        } else if ("cassette".equals(articleType)) {
+            return "Cassette";
+        } else if ("cd".equals(articleType)) {
+            return "CD";
+        }
+        return "Desconocido";
+    }
+
+    /**
+     * Writes everything to two streams; closing it closes only the second one
+     */
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final OutputStream copy;
+
+        private TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            copy.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            copy.close();
+        }
+    }
+}
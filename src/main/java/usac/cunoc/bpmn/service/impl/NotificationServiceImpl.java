@@ -16,6 +16,7 @@ import usac.cunoc.bpmn.entity.UserNotification;
 import usac.cunoc.bpmn.repository.UserRepository;
 import usac.cunoc.bpmn.repository.UserNotificationRepository;
 import usac.cunoc.bpmn.service.NotificationService;
+import usac.cunoc.bpmn.util.KeysetCursor;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,7 +38,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public NotificationListResponseDto getUserNotifications(Integer userId, Integer page, Integer limit,
-            Boolean unread) {
+            Boolean unread, String cursor) {
         // Get user entity
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -46,11 +47,16 @@ public class NotificationServiceImpl implements NotificationService {
         int pageNumber = page != null && page > 0 ? page - 1 : 0;
         int pageSize = limit != null && limit > 0 ? Math.min(limit, 100) : 10;
 
-        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-
         // Convert Boolean unread filter to proper parameter
         Boolean isReadFilter = unread != null ? !unread : null;
 
+        // Cursor (keyset) mode: no OFFSET scan and no count query
+        if (cursor != null) {
+            return getUserNotificationsByCursor(user, pageSize, isReadFilter, cursor);
+        }
+
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+
         // Get notifications with pagination
         Page<UserNotification> notificationsPage = userNotificationRepository
                 .findByUserWithFilter(user, isReadFilter, pageable);
@@ -77,6 +83,38 @@ public class NotificationServiceImpl implements NotificationService {
         return new NotificationListResponseDto(notifications, unreadCount, pagination);
     }
 
+    /**
+     * Keyset page of user notifications (newest first)
+     */
+    private NotificationListResponseDto getUserNotificationsByCursor(User user, int pageSize, Boolean isReadFilter,
+            String cursor) {
+        KeysetCursor position = KeysetCursor.decode(cursor, "newest");
+
+        // Fetch one extra row to know whether there is a next page
+        List<UserNotification> rows = userNotificationRepository.findByUserWithFilterAfterCursor(
+                user, isReadFilter,
+                position != null ? position.getValueAsDateTime() : null,
+                position != null ? position.getId() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserNotification> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            UserNotification last = pageRows.get(pageRows.size() - 1);
+            nextCursor = KeysetCursor.encode("newest", last.getCreatedAt(), last.getId());
+        }
+
+        List<NotificationListResponseDto.NotificationDto> notifications = pageRows.stream()
+                .map(this::mapToNotificationDto)
+                .collect(Collectors.toList());
+
+        Integer unreadCount = userNotificationRepository.countUnreadByUser(user);
+
+        return new NotificationListResponseDto(notifications, unreadCount, PaginationDto.ofCursor(pageSize, nextCursor));
+    }
+
     @Override
     @Transactional
     public MarkNotificationReadResponseDto markNotificationAsRead(Integer notificationId, Integer userId) {
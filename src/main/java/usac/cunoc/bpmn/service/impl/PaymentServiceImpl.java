@@ -6,24 +6,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.dto.catalog.ArticleBasicDto;
 import usac.cunoc.bpmn.dto.common.CurrencyDto;
+import usac.cunoc.bpmn.dto.common.StatusDto;
 import usac.cunoc.bpmn.dto.order.OrderItemDto;
+import usac.cunoc.bpmn.dto.payment.PaymentStatusResponseDto;
 import usac.cunoc.bpmn.dto.payment.ProcessPaymentRequestDto;
 import usac.cunoc.bpmn.dto.payment.ProcessPaymentResponseDto;
 import usac.cunoc.bpmn.dto.user.UserAddressDto;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
+import usac.cunoc.bpmn.service.ArticleTypeService;
+import usac.cunoc.bpmn.service.BusinessNumberGenerator;
 import usac.cunoc.bpmn.service.PaymentService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
- * Payment service implementation for processing payments and generating
- * invoices
+ * Payment service implementation - accepts payments and reports their state.
+ * Acceptance validates the request and queues the payment in payment_outbox;
+ * charging, invoicing and the order status change (with its stock triggers)
+ * happen in PaymentSettlementServiceImpl
  */
 @Slf4j
 @Service
@@ -33,41 +39,45 @@ public class PaymentServiceImpl implements PaymentService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final PaymentRepository paymentRepository;
-    private final PaymentMethodRepository paymentMethodRepository;
-    private final PaymentStatusRepository paymentStatusRepository;
     private final CreditCardRepository creditCardRepository;
     private final InvoiceRepository invoiceRepository;
     private final UserRepository userRepository;
-    private final OrderStatusRepository orderStatusRepository;
-    // Repositories for article type detection
-    private final VinylRepository vinylRepository;
-    private final CassetteRepository cassetteRepository;
-    private final CdRepository cdRepository;
+    private final ArticleTypeService articleTypeService;
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final BusinessNumberGenerator businessNumberGenerator;
 
     @Override
     @Transactional
-    public ProcessPaymentResponseDto processPayment(ProcessPaymentRequestDto request, Integer userId) {
-        log.info("Processing payment for order {} by user {}", request.getOrder_id(), userId);
+    public PaymentStatusResponseDto processPayment(ProcessPaymentRequestDto request, Integer userId) {
+        log.info("Accepting payment for order {} by user {}", request.getOrder_id(), userId);
 
         // Get and validate user
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        // Get and validate order belongs to user
-        Order order = orderRepository.findById(request.getOrder_id())
+        // Get and validate order belongs to user; the lock serializes retries,
+        // settlement and cancellation of the same order
+        Order order = orderRepository.findByIdForUpdate(request.getOrder_id())
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
 
         if (!order.getUser().getId().equals(userId)) {
             throw new RuntimeException("No tienes permisos para procesar el pago de esta orden");
         }
 
+        // A retried request gets the payment already waiting for settlement
+        Optional<PaymentOutbox> pendingEntry = paymentOutboxRepository.findPendingByOrderId(order.getId());
+        if (pendingEntry.isPresent()) {
+            return mapToPaymentStatus(pendingEntry.get().getPayment(), order, pendingEntry.get(), null);
+        }
+
         // Validate order is in a payable status (Pendiente)
         if (!"Pendiente".equals(order.getOrderStatus().getName())) {
             throw new RuntimeException("Esta orden ya no puede ser procesada para pago");
         }
 
         // Validate payment method exists and is active
-        PaymentMethod paymentMethod = paymentMethodRepository.findById(request.getPayment_method_id())
+        PaymentMethod paymentMethod = referenceDataRegistry.findById(PaymentMethod.class, request.getPayment_method_id())
                 .orElseThrow(() -> new RuntimeException("Método de pago no encontrado"));
 
         if (!paymentMethod.getIsActive()) {
@@ -75,7 +85,6 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // Validate credit card belongs to user and is active
-        @SuppressWarnings("unused")
         CreditCard creditCard = creditCardRepository.findByIdAndUserAndIsActiveTrue(request.getCard_id(), user)
                 .orElseThrow(() -> new RuntimeException("Tarjeta de crédito no encontrada o no válida"));
 
@@ -84,112 +93,114 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("El monto del pago no coincide con el total de la orden");
         }
 
-        // Check if payment already exists for this order
+        // Check if a successful payment already exists for this order
         List<Payment> existingPayments = paymentRepository.findPaymentsByOrderId(order.getId());
-        if (!existingPayments.isEmpty()) {
+        if (existingPayments.stream().anyMatch(p -> Boolean.TRUE.equals(p.getPaymentStatus().getIsSuccessful()))) {
             throw new RuntimeException("Ya existe un pago procesado para esta orden");
         }
 
-        // Process the payment
-        Payment payment = processOrderPayment(order, paymentMethod, request.getAmount());
+        // Record the intent on the pending payment created at checkout (a new
+        // one after a failed attempt) and queue it for settlement
+        Payment payment = existingPayments.stream()
+                .filter(p -> "Pendiente".equals(p.getPaymentStatus().getName()))
+                .findFirst()
+                .orElseGet(() -> newPendingPayment(order));
+        payment.setPaymentMethod(paymentMethod);
+        payment.setAmount(request.getAmount());
+        payment.setUpdatedAt(LocalDateTime.now());
+        paymentRepository.save(payment);
+
+        PaymentOutbox entry = new PaymentOutbox();
+        entry.setPayment(payment);
+        entry.setOrder(order);
+        entry.setCreditCard(creditCard);
+        entry.setAvailableAt(LocalDateTime.now());
+        paymentOutboxRepository.save(entry);
 
-        // Generate or update invoice
-        Invoice invoice = generateInvoice(order);
+        log.info("Payment {} accepted for order: {}", payment.getPaymentNumber(), order.getOrderNumber());
 
-        // Update order status to "Procesando"
-        updateOrderStatus(order);
+        return mapToPaymentStatus(payment, order, entry, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentStatusResponseDto getPaymentStatus(String paymentNumber, Integer userId) {
+        Payment payment = paymentRepository.findWithOrderByPaymentNumber(paymentNumber)
+                .orElseThrow(() -> new RuntimeException("Pago no encontrado"));
+        Order order = payment.getOrder();
+
+        if (!order.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Pago no encontrado");
+        }
 
-        // Build response DTO
-        ProcessPaymentResponseDto response = buildPaymentResponse(order, invoice, payment);
+        PaymentOutbox entry = paymentOutboxRepository.findFirstByPaymentIdOrderByIdDesc(payment.getId())
+                .orElse(null);
 
-        log.info("Payment processed successfully: {} for order: {}", payment.getPaymentNumber(),
-                order.getOrderNumber());
+        // Settled payments carry the invoice, as the synchronous flow returned
+        ProcessPaymentResponseDto invoice = null;
+        if (Boolean.TRUE.equals(payment.getPaymentStatus().getIsSuccessful())) {
+            invoice = invoiceRepository.findByOrderId(order.getId())
+                    .map(found -> buildPaymentResponse(order, found))
+                    .orElse(null);
+        }
 
-        return response;
+        return mapToPaymentStatus(payment, order, entry, invoice);
     }
 
     /**
-     * Process the actual payment and create payment record
+     * Create the pending payment of an order
      */
-    private Payment processOrderPayment(Order order, PaymentMethod paymentMethod, BigDecimal amount) {
-        // Get "Completado" payment status (assuming it exists in the database)
-        PaymentStatus completedStatus = paymentStatusRepository.findByName("Completado")
-                .orElse(paymentStatusRepository.findByName("Procesado")
-                        .orElse(paymentStatusRepository.findByName("Exitoso")
-                                .orElseThrow(() -> new RuntimeException("Estado de pago completado no encontrado"))));
-
-        // Create payment record
+    private Payment newPendingPayment(Order order) {
+        PaymentStatus pendingStatus = referenceDataRegistry.findByName(PaymentStatus.class, "Pendiente")
+                .orElseThrow(() -> new RuntimeException("Estado de pago 'Pendiente' no encontrado"));
+
         Payment payment = new Payment();
-        payment.setPaymentNumber(generatePaymentNumber());
+        payment.setPaymentNumber(businessNumberGenerator.nextPaymentNumber());
         payment.setOrder(order);
-        payment.setPaymentMethod(paymentMethod);
-        payment.setPaymentStatus(completedStatus);
+        payment.setPaymentStatus(pendingStatus);
         payment.setCurrency(order.getCurrency());
-        payment.setAmount(amount);
-        payment.setTransactionReference("TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        payment.setGatewayTransactionId("GATEWAY-" + System.currentTimeMillis());
-        payment.setProcessedAt(LocalDateTime.now());
         payment.setRefundedAmount(BigDecimal.ZERO);
         payment.setCreatedAt(LocalDateTime.now());
-        payment.setUpdatedAt(LocalDateTime.now());
-
-        return paymentRepository.save(payment);
+        return payment;
     }
 
     /**
-     * Generate or update invoice for the order
+     * Map a payment and its outbox entry to PaymentStatusResponseDto
      */
-    private Invoice generateInvoice(Order order) {
-        // Check if invoice already exists
-        Invoice existingInvoice = invoiceRepository.findByOrderId(order.getId()).orElse(null);
+    private PaymentStatusResponseDto mapToPaymentStatus(Payment payment, Order order, PaymentOutbox entry,
+            ProcessPaymentResponseDto invoice) {
+        String processingStatus = entry != null ? entry.getStatus().getCode() : null;
+        String failureReason = entry != null ? entry.getLastError() : null;
 
-        if (existingInvoice != null) {
-            return existingInvoice;
-        }
-
-        // Create new invoice
-        Invoice invoice = new Invoice();
-        invoice.setInvoiceNumber(generateInvoiceNumber());
-        invoice.setOrder(order);
-        invoice.setCurrency(order.getCurrency());
-        invoice.setIssueDate(LocalDate.now());
-        invoice.setDueDate(LocalDate.now().plusDays(30)); // 30 days payment terms
-        invoice.setTaxId(generateTaxId());
-        invoice.setSubtotal(order.getSubtotal());
-        invoice.setTaxAmount(order.getTaxAmount());
-        invoice.setTotalAmount(order.getTotalAmount());
-        invoice.setNotes("Factura generada automáticamente por procesamiento de pago");
-        invoice.setPdfUrl(generatePdfUrl(invoice.getInvoiceNumber()));
-        invoice.setCreatedAt(LocalDateTime.now());
-
-        return invoiceRepository.save(invoice);
-    }
-
-    /**
-     * Update order status to "Procesando"
-     */
-    private void updateOrderStatus(Order order) {
-        // Get "Procesando" status
-        OrderStatus processingStatus = orderStatusRepository.findByName("Procesando")
-                .orElseThrow(() -> new RuntimeException("Estado 'Procesando' no encontrado"));
-
-        order.setOrderStatus(processingStatus);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        log.info("Order status updated to 'Procesando' for order: {}", order.getOrderNumber());
+        return new PaymentStatusResponseDto(
+                payment.getPaymentNumber(),
+                order.getId(),
+                order.getOrderNumber(),
+                new StatusDto(payment.getPaymentStatus().getId(), payment.getPaymentStatus().getName()),
+                processingStatus,
+                payment.getAmount(),
+                new CurrencyDto(payment.getCurrency().getCode(), payment.getCurrency().getSymbol()),
+                failureReason,
+                payment.getProcessedAt(),
+                "/api/v1/payments/" + payment.getPaymentNumber(),
+                invoice);
     }
 
     /**
      * Build the response DTO with invoice and order details
      */
-    private ProcessPaymentResponseDto buildPaymentResponse(Order order, Invoice invoice, Payment payment) {
+    private ProcessPaymentResponseDto buildPaymentResponse(Order order, Invoice invoice) {
         // Get order items
         List<OrderItem> orderItems = orderItemRepository.findOrderItemsWithDetailsByOrderId(order.getId());
 
+        // Resolve article types for all items in one query
+        Map<Integer, String> articleTypes = articleTypeService.resolveTypes(orderItems.stream()
+                .map(item -> item.getAnalogArticle().getId())
+                .collect(Collectors.toList()));
+
         // Map order items to DTOs
         List<OrderItemDto> itemDtos = orderItems.stream()
-                .map(this::mapToOrderItemDto)
+                .map(item -> mapToOrderItemDto(item, articleTypes.get(item.getAnalogArticle().getId())))
                 .collect(Collectors.toList());
 
         // Map customer info
@@ -225,13 +236,13 @@ public class PaymentServiceImpl implements PaymentService {
     /**
      * Map OrderItem to OrderItemDto
      */
-    private OrderItemDto mapToOrderItemDto(OrderItem item) {
+    private OrderItemDto mapToOrderItemDto(OrderItem item, String articleType) {
         // Create article basic info
         ArticleBasicDto article = new ArticleBasicDto(
                 item.getAnalogArticle().getId(),
                 item.getAnalogArticle().getTitle(),
                 item.getAnalogArticle().getArtist().getName(),
-                getArticleType(item.getAnalogArticle()),
+                getArticleTypeLabel(articleType),
                 item.getAnalogArticle().getImageUrl());
 
         return new OrderItemDto(
@@ -245,14 +256,14 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     /**
-     * Determine article type by checking specific tables
+     * Map article type code to the label printed on invoices
      */
-    private String getArticleType(AnalogArticle article) {
-        if (vinylRepository.existsByAnalogArticleId(article.getId())) {
+    private String getArticleTypeLabel(String articleType) {
+        if ("vinyl".equals(articleType)) {
             return "Vinilo";
-        } else if (cassetteRepository.existsByAnalogArticleId(article.getId())) {
+        } else if ("cassette".equals(articleType)) {
             return "Cassette";
-        } else if (cdRepository.existsByAnalogArticleId(article.getId())) {
+        } else if ("cd".equals(articleType)) {
             return "CD";
         }
         return "Desconocido";
@@ -278,36 +289,4 @@ public class PaymentServiceImpl implements PaymentService {
                 address.getIsBillingDefault(),
                 address.getIsShippingDefault());
     }
-
-    /**
-     * Generate unique payment number
-     */
-    private String generatePaymentNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomPart = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return "PAY-" + timestamp + "-" + randomPart;
-    }
-
-    /**
-     * Generate unique invoice number
-     */
-    private String generateInvoiceNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomPart = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return "INV-" + timestamp + "-" + randomPart;
-    }
-
-    /**
-     * Generate tax ID for invoice
-     */
-    private String generateTaxId() {
-        return "TAX-" + System.currentTimeMillis();
-    }
-
-    /**
-     * Generate PDF URL for invoice
-     */
-    private String generatePdfUrl(String invoiceNumber) {
-        return "/api/v1/invoices/" + invoiceNumber + "/pdf";
-    }
 }
\ No newline at end of file
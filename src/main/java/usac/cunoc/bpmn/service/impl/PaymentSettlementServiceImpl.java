@@ -0,0 +1,298 @@
+package usac.cunoc.bpmn.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import usac.cunoc.bpmn.config.PaymentOutboxProperties;
+import usac.cunoc.bpmn.entity.*;
+import usac.cunoc.bpmn.enums.PaymentOutboxStatus;
+import usac.cunoc.bpmn.event.ArticleStatsChangedEvent;
+import usac.cunoc.bpmn.repository.*;
+import usac.cunoc.bpmn.service.BusinessNumberGenerator;
+import usac.cunoc.bpmn.service.PaymentSettlementService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
+import usac.cunoc.bpmn.service.StockReservationService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Payment settlement service implementation - a transactional outbox worker.
+ * Each poll starts up to app.payments.workers workers; each one claims due
+ * entries with FOR UPDATE SKIP LOCKED and settles them one transaction at a
+ * time, up to app.payments.batch-size per poll. A failed settlement is rolled
+ * back and retried with backoff until app.payments.max-attempts, then the
+ * payment is marked "Fallido"
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentSettlementServiceImpl implements PaymentSettlementService {
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final StockReservationService stockReservationService;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final BusinessNumberGenerator businessNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final PaymentOutboxProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService workers;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        workers = Executors.newFixedThreadPool(properties.getWorkers(),
+                new CustomizableThreadFactory("payment-settlement-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "#{@paymentOutboxProperties.pollInterval.toMillis()}",
+            initialDelayString = "#{@paymentOutboxProperties.pollInterval.toMillis()}")
+    public int settlePendingPayments() {
+        long due = paymentOutboxRepository.countDue(LocalDateTime.now());
+        if (due == 0) {
+            return 0;
+        }
+
+        // Only as many workers as there are batches to settle
+        long needed = (due + properties.getBatchSize() - 1) / properties.getBatchSize();
+        List<Future<Integer>> batches = new ArrayList<>();
+        for (int i = 0; i < Math.min(needed, properties.getWorkers()); i++) {
+            batches.add(workers.submit(this::settleBatch));
+        }
+
+        int settled = 0;
+        for (Future<Integer> batch : batches) {
+            try {
+                settled += batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return settled;
+            } catch (ExecutionException e) {
+                log.error("Payment settlement worker failed", e.getCause());
+            }
+        }
+
+        if (settled > 0) {
+            log.info("Settled {} payments", settled);
+        }
+        return settled;
+    }
+
+    /**
+     * Settle due entries one transaction each until the batch is full or the
+     * outbox has nothing left for this worker
+     */
+    private int settleBatch() {
+        int settled = 0;
+        for (int i = 0; i < properties.getBatchSize(); i++) {
+            try {
+                Boolean claimed = transactionTemplate.execute(status -> settleNext());
+                if (!Boolean.TRUE.equals(claimed)) {
+                    break;
+                }
+                settled++;
+            } catch (SettlementFailure failure) {
+                // Trigger errors arrive wrapped by the JDBC batch; keep the database message
+                String reason = NestedExceptionUtils.getMostSpecificCause(failure.getCause()).getMessage();
+                log.warn("Settlement of outbox entry {} failed: {}", failure.outboxId, reason);
+                transactionTemplate.executeWithoutResult(status -> recordFailure(failure.outboxId, reason));
+            } catch (RuntimeException e) {
+                // Commit or failure bookkeeping failed; the entry stays due, keep settling the rest
+                log.error("Payment settlement transaction failed", e);
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Claim and settle the oldest due entry
+     *
+     * @return Whether there was an entry to settle
+     */
+    private boolean settleNext() {
+        PaymentOutbox entry = paymentOutboxRepository.claimNextDue(LocalDateTime.now()).orElse(null);
+        if (entry == null) {
+            return false;
+        }
+
+        try {
+            settle(entry);
+            // Write now so trigger errors (stock reduction on the status change)
+            // count as a failed attempt instead of failing the commit
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            throw new SettlementFailure(entry.getId(), e);
+        }
+        return true;
+    }
+
+    private void settle(PaymentOutbox entry) {
+        // Same lock as cancellation, so an order is never cancelled mid-settlement
+        Order order = orderRepository.findByIdForUpdate(entry.getOrder().getId())
+                .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
+        Payment payment = entry.getPayment();
+        entry.setAttempts(entry.getAttempts() + 1);
+
+        if (!"Pendiente".equals(order.getOrderStatus().getName())) {
+            markFailed(entry, "La orden ya no está pendiente de pago");
+            return;
+        }
+
+        // Take the reserved stock (reserving again if the hold expired) before charging
+        stockReservationService.confirmOrder(order);
+
+        chargePayment(payment);
+        generateInvoice(order);
+        updateOrderStatus(order);
+
+        entry.setStatus(PaymentOutboxStatus.DONE);
+        entry.setLastError(null);
+        entry.setProcessedAt(LocalDateTime.now());
+
+        log.info("Payment {} settled for order: {}", payment.getPaymentNumber(), order.getOrderNumber());
+    }
+
+    /**
+     * Count a failed attempt; the last allowed attempt fails the payment
+     */
+    private void recordFailure(Integer outboxId, String reason) {
+        PaymentOutbox entry = paymentOutboxRepository.findByIdForUpdate(outboxId).orElse(null);
+        if (entry == null || entry.getStatus() != PaymentOutboxStatus.PENDING) {
+            return;
+        }
+
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        if (attempts >= properties.getMaxAttempts()) {
+            markFailed(entry, reason);
+            return;
+        }
+
+        entry.setLastError(reason);
+        entry.setAvailableAt(LocalDateTime.now().plus(properties.getRetryBackoff().multipliedBy(attempts)));
+    }
+
+    private void markFailed(PaymentOutbox entry, String reason) {
+        PaymentStatus failedStatus = referenceDataRegistry.findByName(PaymentStatus.class, "Fallido")
+                .orElseThrow(() -> new RuntimeException("Estado de pago 'Fallido' no encontrado"));
+
+        Payment payment = entry.getPayment();
+        payment.setPaymentStatus(failedStatus);
+        payment.setGatewayResponse(reason);
+        payment.setUpdatedAt(LocalDateTime.now());
+        paymentRepository.save(payment);
+
+        entry.setStatus(PaymentOutboxStatus.FAILED);
+        entry.setLastError(reason);
+        entry.setProcessedAt(LocalDateTime.now());
+
+        log.warn("Payment {} failed: {}", payment.getPaymentNumber(), reason);
+    }
+
+    /**
+     * Charge the payment and mark it completed
+     */
+    private void chargePayment(Payment payment) {
+        PaymentStatus completedStatus = referenceDataRegistry.findByName(PaymentStatus.class, "Completado")
+                .or(() -> referenceDataRegistry.findByName(PaymentStatus.class, "Procesado"))
+                .or(() -> referenceDataRegistry.findByName(PaymentStatus.class, "Exitoso"))
+                .orElseThrow(() -> new RuntimeException("Estado de pago completado no encontrado"));
+
+        payment.setPaymentStatus(completedStatus);
+        payment.setTransactionReference("TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        payment.setGatewayTransactionId("GATEWAY-" + System.currentTimeMillis());
+        payment.setProcessedAt(LocalDateTime.now());
+        payment.setUpdatedAt(LocalDateTime.now());
+        paymentRepository.save(payment);
+    }
+
+    /**
+     * Generate the invoice of the order unless it already has one
+     */
+    private Invoice generateInvoice(Order order) {
+        Invoice existingInvoice = invoiceRepository.findByOrderId(order.getId()).orElse(null);
+        if (existingInvoice != null) {
+            return existingInvoice;
+        }
+
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(businessNumberGenerator.nextInvoiceNumber());
+        invoice.setOrder(order);
+        invoice.setCurrency(order.getCurrency());
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(30)); // 30 days payment terms
+        invoice.setTaxId(generateTaxId());
+        invoice.setSubtotal(order.getSubtotal());
+        invoice.setTaxAmount(order.getTaxAmount());
+        invoice.setTotalAmount(order.getTotalAmount());
+        invoice.setNotes("Factura generada automáticamente por procesamiento de pago");
+        invoice.setPdfUrl("/api/v1/orders/" + order.getId() + "/invoice.pdf");
+        invoice.setCreatedAt(LocalDateTime.now());
+
+        return invoiceRepository.save(invoice);
+    }
+
+    /**
+     * Update order status to "Procesando"
+     */
+    private void updateOrderStatus(Order order) {
+        OrderStatus processingStatus = referenceDataRegistry.findByName(OrderStatus.class, "Procesando")
+                .orElseThrow(() -> new RuntimeException("Estado 'Procesando' no encontrado"));
+
+        order.setOrderStatus(processingStatus);
+        order.setUpdatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+
+        // The status change reduces stock by trigger for every ordered article
+        orderItemRepository.findOrderItemsByOrderId(order.getId()).forEach(item -> eventPublisher
+                .publishEvent(new ArticleStatsChangedEvent(item.getAnalogArticle().getId())));
+    }
+
+    /**
+     * Generate tax ID for invoice
+     */
+    private String generateTaxId() {
+        return "TAX-" + System.currentTimeMillis();
+    }
+
+    /**
+     * Settlement of an outbox entry failed; its transaction is rolled back
+     */
+    private static final class SettlementFailure extends RuntimeException {
+
+        private final Integer outboxId;
+
+        private SettlementFailure(Integer outboxId, RuntimeException cause) {
+            super(cause);
+            this.outboxId = outboxId;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.entity.CatalogListing;
+import usac.cunoc.bpmn.entity.CdPromotion;
+import usac.cunoc.bpmn.repository.CatalogListingRepository;
+import usac.cunoc.bpmn.repository.CdPromotionRepository;
+import usac.cunoc.bpmn.service.CartStore.CartLine;
+import usac.cunoc.bpmn.service.CartStore.CartState;
+import usac.cunoc.bpmn.service.PromotionEligibilityIndex;
+import usac.cunoc.bpmn.service.PromotionPricingService;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Promotion pricing engine implementation - article facts come from
+ * catalog_listing (type and genre in a single row per article), so pricing a
+ * cart takes one query for the articles and one for the promotions whatever
+ * the cart size.
+ *
+ * A promotion that groups articles (cd_promotion_article) applies to those
+ * articles only, answered by the promotion eligibility index; one without
+ * grouped articles applies to any CD of its genre
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PromotionPricingServiceImpl implements PromotionPricingService {
+
+    private static final String CD_TYPE = "cd";
+
+    private final CatalogListingRepository catalogListingRepository;
+    private final CdPromotionRepository cdPromotionRepository;
+    private final PromotionEligibilityIndex promotionEligibilityIndex;
+
+    @Override
+    public PromotionPlan planPromotion(CdPromotion promotion, CartState cart, List<Integer> articleIds) {
+        // Validate promotion limits
+        if (articleIds.size() > promotion.getMaxItems()) {
+            throw new RuntimeException("Promoción permite máximo " + promotion.getMaxItems() + " artículos");
+        }
+
+        Map<Integer, CatalogListing> listings = loadListings(articleIds);
+        boolean groupsArticles = groupsArticles(promotion);
+        for (Integer articleId : articleIds) {
+            cart.findLineByArticle(articleId)
+                    .orElseThrow(() -> new RuntimeException("Artículo " + articleId + " no está en el carrito"));
+
+            if (groupsArticles) {
+                if (!promotionEligibilityIndex.getActivePromotionIds(articleId).contains(promotion.getId())) {
+                    throw new RuntimeException("El artículo " + articleId + " no pertenece a la promoción");
+                }
+                continue;
+            }
+
+            CatalogListing listing = listings.get(articleId);
+            if (listing == null || !CD_TYPE.equals(listing.getType())) {
+                throw new RuntimeException("La promoción solo aplica a CDs");
+            }
+            if (!matchesGenre(promotion, listing)) {
+                throw new RuntimeException("El CD no pertenece al género de la promoción");
+            }
+        }
+
+        return new PromotionPlan(promotion, List.copyOf(articleIds));
+    }
+
+    @Override
+    public Optional<PromotionPlan> findBestPromotion(CartState cart) {
+        if (cart.getLines().isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Integer, CatalogListing> listings = loadListings(cart.getLines().stream()
+                .map(CartLine::getArticleId)
+                .collect(Collectors.toList()));
+        List<CdPromotion> promotions = cdPromotionRepository.findActiveWithDetails(LocalDateTime.now());
+
+        // Grouping promotions of each cart article, from the index
+        Map<Integer, Set<Integer>> promotionsByArticle = new HashMap<>();
+        cart.getLines().forEach(line -> promotionsByArticle.put(line.getArticleId(),
+                new HashSet<>(promotionEligibilityIndex.getActivePromotionIds(line.getArticleId()))));
+
+        PromotionPlan bestPlan = null;
+        BigDecimal bestSaving = BigDecimal.ZERO;
+        for (CdPromotion promotion : promotions) {
+            boolean groupsArticles = groupsArticles(promotion);
+            List<CartLine> chosenLines = cart.getLines().stream()
+                    .filter(line -> groupsArticles
+                            ? promotionsByArticle.get(line.getArticleId()).contains(promotion.getId())
+                            : isEligible(promotion, listings.get(line.getArticleId())))
+                    .filter(line -> saving(line, promotion).signum() > 0)
+                    .sorted(Comparator.comparing((CartLine line) -> saving(line, promotion)).reversed())
+                    .limit(promotion.getMaxItems())
+                    .collect(Collectors.toList());
+
+            BigDecimal totalSaving = chosenLines.stream()
+                    .map(line -> saving(line, promotion))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (totalSaving.compareTo(bestSaving) > 0) {
+                bestSaving = totalSaving;
+                bestPlan = new PromotionPlan(promotion, chosenLines.stream()
+                        .map(CartLine::getArticleId)
+                        .collect(Collectors.toList()));
+            }
+        }
+
+        log.debug("Priced {} promotions for cart {}, best saving {}", promotions.size(), cart.getCartId(),
+                bestSaving);
+        return Optional.ofNullable(bestPlan);
+    }
+
+    private Map<Integer, CatalogListing> loadListings(List<Integer> articleIds) {
+        return catalogListingRepository.findAllById(articleIds).stream()
+                .collect(Collectors.toMap(CatalogListing::getId, Function.identity()));
+    }
+
+    private boolean groupsArticles(CdPromotion promotion) {
+        return !promotionEligibilityIndex.getEligibleArticles(promotion.getId()).isEmpty();
+    }
+
+    private boolean isEligible(CdPromotion promotion, CatalogListing listing) {
+        return listing != null && CD_TYPE.equals(listing.getType()) && matchesGenre(promotion, listing);
+    }
+
+    private boolean matchesGenre(CdPromotion promotion, CatalogListing listing) {
+        return promotion.getMusicGenre() == null || promotion.getMusicGenre().getId().equals(listing.getGenreId());
+    }
+
+    /**
+     * How much moving the line to the promotion lowers its total; a line keeps
+     * a single promotion, so the discount it already has is given up
+     */
+    private BigDecimal saving(CartLine line, CdPromotion promotion) {
+        return PromotionPlan.discountFor(line, promotion).subtract(line.getDiscountApplied());
+    }
+}
@@ -6,10 +6,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import usac.cunoc.bpmn.dto.promotion.PromotionListResponseDto;
 import usac.cunoc.bpmn.entity.CdPromotion;
-import usac.cunoc.bpmn.entity.CdPromotionArticle;
-import usac.cunoc.bpmn.repository.CdPromotionArticleRepository;
 import usac.cunoc.bpmn.repository.CdPromotionRepository;
-import usac.cunoc.bpmn.repository.CdRepository;
+import usac.cunoc.bpmn.service.PromotionEligibilityIndex;
 import usac.cunoc.bpmn.service.PromotionService;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,8 +23,7 @@ import java.util.stream.Collectors;
 public class PromotionServiceImpl implements PromotionService {
 
     private final CdPromotionRepository cdPromotionRepository;
-    private final CdPromotionArticleRepository cdPromotionArticleRepository;
-    private final CdRepository cdRepository;
+    private final PromotionEligibilityIndex promotionEligibilityIndex;
 
     @Override
     public PromotionListResponseDto getCdPromotions(String type, Integer genreId, Boolean isActive) {
@@ -89,17 +86,14 @@ public class PromotionServiceImpl implements PromotionService {
         }
 
         // Get eligible articles
-        List<CdPromotionArticle> promotionArticles = cdPromotionArticleRepository
-                .findByPromotionId(promotion.getId());
-
-        List<PromotionListResponseDto.EligibleArticleDto> eligibleArticles = promotionArticles.stream()
-                .filter(pa -> cdRepository.existsByAnalogArticleId(pa.getAnalogArticle().getId()))
-                .map(pa -> new PromotionListResponseDto.EligibleArticleDto(
-                        pa.getAnalogArticle().getId(),
-                        pa.getAnalogArticle().getTitle(),
-                        pa.getAnalogArticle().getArtist().getName(),
-                        pa.getAnalogArticle().getPrice(),
-                        pa.getAnalogArticle().getImageUrl()))
+        List<PromotionListResponseDto.EligibleArticleDto> eligibleArticles = promotionEligibilityIndex
+                .getEligibleArticles(promotion.getId()).stream()
+                .map(article -> new PromotionListResponseDto.EligibleArticleDto(
+                        article.getId(),
+                        article.getTitle(),
+                        article.getArtistName(),
+                        article.getPrice(),
+                        article.getImageUrl()))
                 .collect(Collectors.toList());
 
         return new PromotionListResponseDto.PromotionDto(
@@ -0,0 +1,115 @@
+package usac.cunoc.bpmn.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.entity.*;
+import usac.cunoc.bpmn.repository.*;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reference data registry implementation - each reference table is read with
+ * a single query into an immutable snapshot; reload builds a new snapshot and
+ * swaps it in, so readers never see a half-loaded registry
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataRegistryImpl implements ReferenceDataRegistry {
+
+    private final OrderStatusRepository orderStatusRepository;
+    private final PaymentStatusRepository paymentStatusRepository;
+    private final PaymentMethodRepository paymentMethodRepository;
+    private final CommentStatusRepository commentStatusRepository;
+    private final EventStatusRepository eventStatusRepository;
+    private final UserTypeRepository userTypeRepository;
+    private final CurrencyRepository currencyRepository;
+    private final CountryRepository countryRepository;
+    private final NotificationTypeRepository notificationTypeRepository;
+    private final MovementTypeRepository movementTypeRepository;
+    private final MovementReferenceTypeRepository movementReferenceTypeRepository;
+
+    private volatile Map<Class<?>, ReferenceTable<?>> tables;
+
+    @Override
+    public <T> Optional<T> findById(Class<T> type, Integer id) {
+        return Optional.ofNullable(table(type).byId.get(id));
+    }
+
+    @Override
+    public <T> Optional<T> findByName(Class<T> type, String name) {
+        return Optional.ofNullable(table(type).byName.get(name));
+    }
+
+    @Override
+    public <T> List<T> findAll(Class<T> type) {
+        return table(type).entries;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized int reload() {
+        Map<Class<?>, ReferenceTable<?>> loaded = new HashMap<>();
+        register(loaded, OrderStatus.class, orderStatusRepository.findAll(), OrderStatus::getId, OrderStatus::getName);
+        register(loaded, PaymentStatus.class, paymentStatusRepository.findAll(), PaymentStatus::getId,
+                PaymentStatus::getName);
+        register(loaded, PaymentMethod.class, paymentMethodRepository.findAll(), PaymentMethod::getId,
+                PaymentMethod::getName);
+        register(loaded, CommentStatus.class, commentStatusRepository.findAll(), CommentStatus::getId,
+                CommentStatus::getName);
+        register(loaded, EventStatus.class, eventStatusRepository.findAll(), EventStatus::getId, EventStatus::getName);
+        register(loaded, UserType.class, userTypeRepository.findAll(), UserType::getId, UserType::getName);
+        register(loaded, Currency.class, currencyRepository.findAll(), Currency::getId, Currency::getName);
+        register(loaded, Country.class, countryRepository.findAllWithCurrency(), Country::getId, Country::getName);
+        register(loaded, NotificationType.class, notificationTypeRepository.findAll(), NotificationType::getId,
+                NotificationType::getName);
+        register(loaded, MovementType.class, movementTypeRepository.findAll(), MovementType::getId,
+                MovementType::getName);
+        register(loaded, MovementReferenceType.class, movementReferenceTypeRepository.findAll(),
+                MovementReferenceType::getId, MovementReferenceType::getName);
+
+        tables = Map.copyOf(loaded);
+
+        int entries = loaded.values().stream().mapToInt(table -> table.entries.size()).sum();
+        log.info("Reference data loaded: {} entries in {} tables", entries, loaded.size());
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ReferenceTable<T> table(Class<T> type) {
+        if (tables == null) {
+            // Used before the application is ready (e.g. startup runners)
+            reload();
+        }
+        ReferenceTable<T> table = (ReferenceTable<T>) tables.get(type);
+        if (table == null) {
+            throw new IllegalArgumentException("Not a reference data type: " + type.getSimpleName());
+        }
+        return table;
+    }
+
+    private static <T> void register(Map<Class<?>, ReferenceTable<?>> loaded, Class<T> type, List<T> entries,
+            Function<T, Integer> idOf, Function<T, String> nameOf) {
+        List<T> sorted = entries.stream()
+                .sorted(Comparator.comparing(idOf))
+                .collect(Collectors.toUnmodifiableList());
+        loaded.put(type, new ReferenceTable<>(
+                sorted,
+                sorted.stream().collect(Collectors.toUnmodifiableMap(idOf, Function.identity())),
+                sorted.stream().collect(Collectors.toUnmodifiableMap(nameOf, Function.identity(), (a, b) -> a))));
+    }
+
+    private record ReferenceTable<T>(List<T> entries, Map<Integer, T> byId, Map<String, T> byName) {
+    }
+}
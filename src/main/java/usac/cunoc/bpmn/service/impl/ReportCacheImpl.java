@@ -0,0 +1,181 @@
+package usac.cunoc.bpmn.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import usac.cunoc.bpmn.config.ReportCacheProperties;
+import usac.cunoc.bpmn.enums.ReportType;
+import usac.cunoc.bpmn.service.ReportCache;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Report cache implementation - entries live in a ConcurrentHashMap and are
+ * computed on a fixed pool. Each key has at most one computation in flight:
+ * callers that need the report wait on it, callers holding a stale report
+ * return it and leave the computation running.
+ *
+ * A generation counter per report type keeps a computation that started
+ * before an invalidation from storing its result
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportCacheImpl implements ReportCache {
+
+    private final ReportCacheProperties properties;
+
+    private final ConcurrentMap<CacheKey, CachedReport> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CacheKey, CompletableFuture<CachedReport>> loading = new ConcurrentHashMap<>();
+    private final Map<ReportType, AtomicLong> generations = new EnumMap<>(ReportType.class);
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        for (ReportType type : ReportType.values()) {
+            generations.put(type, new AtomicLong());
+        }
+        refreshExecutor = Executors.newFixedThreadPool(properties.getRefreshThreads(),
+                new CustomizableThreadFactory("report-refresh-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportType type, List<?> params, Supplier<T> loader) {
+        CacheKey key = new CacheKey(type, List.copyOf(params));
+        CachedReport cached = entries.get(key);
+        long now = System.nanoTime();
+
+        if (cached != null && now - cached.freshUntil() < 0) {
+            return (T) cached.value();
+        }
+        if (cached != null && now - cached.staleUntil() < 0) {
+            // Serve the stale report; the refresh is shared with other callers
+            load(key, loader);
+            return (T) cached.value();
+        }
+
+        try {
+            return (T) load(key, loader).join().value();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error al generar el reporte: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void invalidate(ReportType type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Reports computed before the commit would still see the old data
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(type);
+                }
+            });
+        } else {
+            evict(type);
+        }
+    }
+
+    private void evict(ReportType type) {
+        generations.get(type).incrementAndGet();
+        entries.keySet().removeIf(key -> key.type() == type);
+        loading.keySet().removeIf(key -> key.type() == type);
+    }
+
+    /**
+     * Start computing a report unless a computation for the key is running
+     */
+    private CompletableFuture<CachedReport> load(CacheKey key, Supplier<?> loader) {
+        CompletableFuture<CachedReport> running = loading.get(key);
+        if (running != null) {
+            return running;
+        }
+
+        CompletableFuture<CachedReport> created = new CompletableFuture<>();
+        running = loading.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        long generation = generations.get(key.type()).get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    created.complete(store(key, loader.get(), generation));
+                } catch (Throwable e) {
+                    log.warn("Error computing {} report {}: {}", key.type().getCode(), key.params(), e.getMessage());
+                    created.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private CachedReport store(CacheKey key, Object value, long generation) {
+        long now = System.nanoTime();
+        long freshUntil = now + properties.ttlOf(key.type()).toNanos();
+        CachedReport report = new CachedReport(value, freshUntil, freshUntil + properties.getMaxStale().toNanos());
+
+        if (generations.get(key.type()).get() == generation) {
+            entries.put(key, report);
+            evictOverflow();
+        }
+        return report;
+    }
+
+    /**
+     * Keep the cache within maxEntries, dropping the reports closest to expiry
+     */
+    private void evictOverflow() {
+        int overflow = entries.size() - properties.getMaxEntries();
+        if (overflow <= 0) {
+            return;
+        }
+        List<Map.Entry<CacheKey, CachedReport>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().staleUntil()));
+        for (int i = 0; i < overflow && i < snapshot.size(); i++) {
+            entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+        }
+    }
+
+    private record CacheKey(ReportType type, List<?> params) {
+    }
+
+    /**
+     * Cached report with its deadlines on the System.nanoTime clock
+     */
+    private record CachedReport(Object value, long freshUntil, long staleUntil) {
+    }
+}
@@ -0,0 +1,267 @@
+package usac.cunoc.bpmn.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import usac.cunoc.bpmn.config.CacheConfig;
+import usac.cunoc.bpmn.config.StockReservationProperties;
+import usac.cunoc.bpmn.entity.AnalogArticle;
+import usac.cunoc.bpmn.entity.Order;
+import usac.cunoc.bpmn.entity.OrderItem;
+import usac.cunoc.bpmn.entity.StockReservation;
+import usac.cunoc.bpmn.repository.OrderItemRepository;
+import usac.cunoc.bpmn.repository.StockReservationRepository;
+import usac.cunoc.bpmn.repository.VinylRepository;
+import usac.cunoc.bpmn.service.StockReservationService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock reservation service implementation - reserved units per article are
+ * kept in lock-free in-memory counters (compare-and-set against the physical
+ * stock) so hot articles never wait on analog_article row locks. Each hold is
+ * also stored in stock_reservation, which rebuilds the counters on startup.
+ *
+ * Limited edition vinyls can only be reserved up to their remaining limited
+ * stock, which is reduced as their orders are paid.
+ *
+ * The cached product page shows stock minus holds, so every counter change
+ * evicts that article's detail
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final VinylRepository vinylRepository;
+    private final StockReservationProperties properties;
+    private final CacheManager cacheManager;
+
+    private volatile Map<Integer, AtomicInteger> reservedByArticle = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuild the reserved counters from the active reservations. Runs before
+     * the web server accepts requests, and the loaded counters replace the
+     * map in one step, so no hold taken meanwhile is lost
+     */
+    @PostConstruct
+    public void loadReservedCounters() {
+        Map<Integer, AtomicInteger> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : stockReservationRepository.sumActiveReservationsByArticle(LocalDateTime.now())) {
+            loaded.put(((Number) row[0]).intValue(), new AtomicInteger(((Number) row[1]).intValue()));
+        }
+        reservedByArticle = loaded;
+        log.info("Loaded stock reservations for {} articles", loaded.size());
+    }
+
+    @Override
+    public void reserveOrder(Order order, List<OrderItem> orderItems) {
+        Map<Integer, Integer> limitedStock = findLimitedStock(orderItems);
+        List<OrderItem> reservedItems = new ArrayList<>();
+        try {
+            for (OrderItem item : orderItems) {
+                AnalogArticle article = item.getAnalogArticle();
+                int stock = reservableStock(article, limitedStock);
+                if (!tryReserve(article.getId(), item.getQuantity(), stock)) {
+                    throw new RuntimeException("Stock insuficiente para \"" + article.getTitle() + "\". Disponible: " +
+                            getAvailableQuantity(article.getId(), stock));
+                }
+                reservedItems.add(item);
+            }
+        } catch (RuntimeException e) {
+            reservedItems.forEach(item -> release(item.getAnalogArticle().getId(), item.getQuantity()));
+            throw e;
+        }
+
+        // The counters are ahead of the database until the order commits
+        afterCompletion(committed -> {
+            if (!committed) {
+                reservedItems.forEach(item -> release(item.getAnalogArticle().getId(), item.getQuantity()));
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getReservationTtl());
+        stockReservationRepository.saveAll(orderItems.stream()
+                .map(item -> new StockReservation(null, item.getAnalogArticle(), order, item.getQuantity(),
+                        expiresAt, now))
+                .collect(Collectors.toList()));
+
+        log.info("Reserved stock for {} items of order {} until {}", orderItems.size(), order.getId(), expiresAt);
+    }
+
+    @Override
+    public void confirmOrder(Order order) {
+        Map<Integer, StockReservation> holds = stockReservationRepository.findByOrderId(order.getId()).stream()
+                .collect(Collectors.toMap(hold -> hold.getAnalogArticle().getId(), Function.identity()));
+
+        List<OrderItem> orderItems = orderItemRepository.findOrderItemsByOrderId(order.getId());
+        Map<Integer, Integer> limitedStock = findLimitedStock(orderItems);
+        List<OrderItem> consumedItems = new ArrayList<>();
+        List<OrderItem> reservedAgain = new ArrayList<>();
+        try {
+            for (OrderItem item : orderItems) {
+                AnalogArticle article = item.getAnalogArticle();
+                StockReservation hold = holds.get(article.getId());
+
+                // A hold released by the expiry sweep must be taken again
+                if (hold == null || stockReservationRepository.deleteReservationById(hold.getId()) == 0) {
+                    int stock = reservableStock(article, limitedStock);
+                    if (!tryReserve(article.getId(), item.getQuantity(), stock)) {
+                        throw new RuntimeException("La reserva de \"" + article.getTitle() +
+                                "\" expiró y ya no hay stock suficiente. Disponible: " +
+                                getAvailableQuantity(article.getId(), stock));
+                    }
+                    reservedAgain.add(item);
+                }
+                consumedItems.add(item);
+            }
+        } catch (RuntimeException e) {
+            reservedAgain.forEach(item -> release(item.getAnalogArticle().getId(), item.getQuantity()));
+            throw e;
+        }
+
+        // Stock is reduced by trigger_reduce_stock_on_order in the same transaction;
+        // limited editions also lose the sold units of their edition
+        consumedItems.stream()
+                .filter(item -> limitedStock.containsKey(item.getAnalogArticle().getId()))
+                .forEach(item -> vinylRepository.consumeLimitedStock(item.getAnalogArticle().getId(),
+                        item.getQuantity()));
+
+        afterCompletion(committed -> (committed ? consumedItems : reservedAgain)
+                .forEach(item -> release(item.getAnalogArticle().getId(), item.getQuantity())));
+
+        log.info("Confirmed stock reservations for order {} ({} reserved again)", order.getId(),
+                reservedAgain.size());
+    }
+
+    @Override
+    public void releaseOrder(Integer orderId) {
+        List<StockReservation> released = stockReservationRepository.findByOrderId(orderId).stream()
+                .filter(hold -> stockReservationRepository.deleteReservationById(hold.getId()) > 0)
+                .collect(Collectors.toList());
+
+        releaseAfterCommit(released);
+        log.info("Released {} stock reservations of order {}", released.size(), orderId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "#{@stockReservationProperties.releaseInterval.toMillis()}",
+            initialDelayString = "#{@stockReservationProperties.releaseInterval.toMillis()}")
+    public void releaseExpiredReservations() {
+        List<StockReservation> released = stockReservationRepository.findExpired(LocalDateTime.now()).stream()
+                .filter(hold -> stockReservationRepository.deleteReservationById(hold.getId()) > 0)
+                .collect(Collectors.toList());
+
+        if (!released.isEmpty()) {
+            releaseAfterCommit(released);
+            log.info("Released {} expired stock reservations", released.size());
+        }
+    }
+
+    @Override
+    public int getAvailableQuantity(Integer articleId, Integer stockQuantity) {
+        AtomicInteger reserved = reservedByArticle.get(articleId);
+        int stock = stockQuantity != null ? stockQuantity : 0;
+        return Math.max(0, reserved != null ? stock - reserved.get() : stock);
+    }
+
+    /**
+     * Remaining limited stock per article for the limited edition vinyls among the items
+     */
+    private Map<Integer, Integer> findLimitedStock(List<OrderItem> items) {
+        List<Integer> articleIds = items.stream()
+                .map(item -> item.getAnalogArticle().getId())
+                .collect(Collectors.toList());
+
+        Map<Integer, Integer> limitedStock = new HashMap<>();
+        for (Object[] row : vinylRepository.findLimitedStockByArticleIds(articleIds)) {
+            if (row[1] != null) {
+                limitedStock.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            }
+        }
+        return limitedStock;
+    }
+
+    /**
+     * Units of an article that holds can cover: its physical stock, capped by
+     * the remaining limited stock for limited editions
+     */
+    private int reservableStock(AnalogArticle article, Map<Integer, Integer> limitedStock) {
+        int stock = article.getStockQuantity() != null ? article.getStockQuantity() : 0;
+        Integer remaining = limitedStock.get(article.getId());
+        return remaining != null ? Math.min(stock, remaining) : stock;
+    }
+
+    /**
+     * Take units from an article's free stock without locking; fails when the
+     * stock minus the units already reserved cannot cover the quantity
+     */
+    private boolean tryReserve(Integer articleId, int quantity, int stockQuantity) {
+        AtomicInteger reserved = reservedByArticle.computeIfAbsent(articleId, id -> new AtomicInteger());
+        while (true) {
+            int current = reserved.get();
+            if (stockQuantity - current < quantity) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + quantity)) {
+                evictArticleDetail(articleId);
+                return true;
+            }
+        }
+    }
+
+    private void release(Integer articleId, int quantity) {
+        AtomicInteger reserved = reservedByArticle.get(articleId);
+        if (reserved != null) {
+            reserved.updateAndGet(current -> Math.max(0, current - quantity));
+            evictArticleDetail(articleId);
+        }
+    }
+
+    private void evictArticleDetail(Integer articleId) {
+        Cache articleDetail = cacheManager.getCache(CacheConfig.ARTICLE_DETAIL);
+        if (articleDetail != null) {
+            articleDetail.evict(articleId);
+        }
+    }
+
+    private void releaseAfterCommit(List<StockReservation> holds) {
+        afterCompletion(committed -> {
+            if (committed) {
+                holds.forEach(hold -> release(hold.getAnalogArticle().getId(), hold.getQuantity()));
+            }
+        });
+    }
+
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+}
@@ -9,7 +9,9 @@ import usac.cunoc.bpmn.dto.user.*;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
 import usac.cunoc.bpmn.service.EncryptionService;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import usac.cunoc.bpmn.service.UserService;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,11 +27,11 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserAddressRepository userAddressRepository;
     private final CreditCardRepository creditCardRepository;
-    private final CountryRepository countryRepository;
     private final CardBrandRepository cardBrandRepository;
     private final GenderRepository genderRepository;
     private final PasswordEncoder passwordEncoder;
     private final EncryptionService encryptionService;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Override
     public UserProfileResponseDto getUserProfile(Integer userId) {
@@ -77,7 +79,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("No se pueden agregar más de 5 direcciones por usuario");
         }
 
-        Country country = countryRepository.findById(request.getCountry_id())
+        Country country = referenceDataRegistry.findById(Country.class, request.getCountry_id())
                 .orElseThrow(() -> new RuntimeException("País no encontrado"));
 
         // Handle default flags - if this is the first address, make it default
@@ -128,7 +130,7 @@ public class UserServiceImpl implements UserService {
         UserAddress address = userAddressRepository.findByIdAndUser(addressId, user)
                 .orElseThrow(() -> new RuntimeException("Dirección no encontrada"));
 
-        Country country = countryRepository.findById(request.getCountry_id())
+        Country country = referenceDataRegistry.findById(Country.class, request.getCountry_id())
                 .orElseThrow(() -> new RuntimeException("País no encontrado"));
 
         // Handle default flags
@@ -220,14 +222,17 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public List<CreditCardResponseDto> getUserCreditCards(Integer userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         List<CreditCard> cards = creditCardRepository.findByUserAndIsActiveTrueOrderByCreatedAtDesc(user);
-        return cards.stream()
-                .map(this::mapToCreditCardResponse)
-                .collect(Collectors.toList());
+
+        // Cards still in the old encryption format are written back on read
+        cards.forEach(this::reencryptIfNeeded);
+
+        return mapToCreditCardResponses(cards);
     }
 
     @Override
@@ -323,15 +328,55 @@ public class UserServiceImpl implements UserService {
     }
 
     private CreditCardResponseDto mapToCreditCardResponse(CreditCard card) {
-        CreditCardResponseDto.CardBrandDto brandDto = new CreditCardResponseDto.CardBrandDto(
-                card.getCardBrand().getId(), card.getCardBrand().getName(), card.getCardBrand().getLogoUrl());
-
-        return new CreditCardResponseDto(
-                card.getId(), card.getLastFourDigits(), brandDto,
-                encryptionService.decrypt(card.getCardholderNameEncrypted()),
-                encryptionService.decrypt(card.getExpiryMonthEncrypted()),
-                encryptionService.decrypt(card.getExpiryYearEncrypted()),
-                card.getIsDefault(), card.getIsActive(), card.getCreatedAt());
+        return mapToCreditCardResponses(List.of(card)).get(0);
+    }
+
+    /**
+     * Map cards to responses, decrypting the displayed fields of every card
+     * in one batch
+     */
+    private List<CreditCardResponseDto> mapToCreditCardResponses(List<CreditCard> cards) {
+        List<String> encrypted = new ArrayList<>(cards.size() * 3);
+        for (CreditCard card : cards) {
+            encrypted.add(card.getCardholderNameEncrypted());
+            encrypted.add(card.getExpiryMonthEncrypted());
+            encrypted.add(card.getExpiryYearEncrypted());
+        }
+        List<String> decrypted = encryptionService.decryptAll(encrypted);
+
+        List<CreditCardResponseDto> responses = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            CreditCard card = cards.get(i);
+            CreditCardResponseDto.CardBrandDto brandDto = new CreditCardResponseDto.CardBrandDto(
+                    card.getCardBrand().getId(), card.getCardBrand().getName(), card.getCardBrand().getLogoUrl());
+
+            responses.add(new CreditCardResponseDto(
+                    card.getId(), card.getLastFourDigits(), brandDto,
+                    decrypted.get(i * 3),
+                    decrypted.get(i * 3 + 1),
+                    decrypted.get(i * 3 + 2),
+                    card.getIsDefault(), card.getIsActive(), card.getCreatedAt()));
+        }
+        return responses;
+    }
+
+    /**
+     * Encrypt again every field of a card stored in an older format; the
+     * managed entity is flushed with the transaction
+     */
+    private void reencryptIfNeeded(CreditCard card) {
+        card.setCardNumberEncrypted(reencrypt(card.getCardNumberEncrypted()));
+        card.setCardholderNameEncrypted(reencrypt(card.getCardholderNameEncrypted()));
+        card.setExpiryMonthEncrypted(reencrypt(card.getExpiryMonthEncrypted()));
+        card.setExpiryYearEncrypted(reencrypt(card.getExpiryYearEncrypted()));
+        card.setCvvEncrypted(reencrypt(card.getCvvEncrypted()));
+    }
+
+    private String reencrypt(String encryptedData) {
+        if (!encryptionService.needsReencryption(encryptedData)) {
+            return encryptedData;
+        }
+        return encryptionService.encrypt(encryptionService.decrypt(encryptedData));
     }
 
     private void validateCardExpiryDate(String month, String year) {
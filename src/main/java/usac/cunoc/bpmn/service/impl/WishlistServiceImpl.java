@@ -8,9 +8,13 @@ import usac.cunoc.bpmn.dto.common.CurrencyDto;
 import usac.cunoc.bpmn.dto.wishlist.*;
 import usac.cunoc.bpmn.entity.*;
 import usac.cunoc.bpmn.repository.*;
+import usac.cunoc.bpmn.service.ArticleTypeService;
+import usac.cunoc.bpmn.service.BusinessNumberGenerator;
+import usac.cunoc.bpmn.service.ReferenceDataRegistry;
 import usac.cunoc.bpmn.service.WishlistService;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -28,12 +32,10 @@ public class WishlistServiceImpl implements WishlistService {
     private final WishlistItemRepository wishlistItemRepository;
     private final AnalogArticleRepository analogArticleRepository;
     private final UserRepository userRepository;
-    private final VinylRepository vinylRepository;
-    private final CassetteRepository cassetteRepository;
-    private final CdRepository cdRepository;
     private final PaymentRepository paymentRepository;
-    private final PaymentMethodRepository paymentMethodRepository;
-    private final PaymentStatusRepository paymentStatusRepository;
+    private final ArticleTypeService articleTypeService;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final BusinessNumberGenerator businessNumberGenerator;
 
     @Override
     @Transactional(readOnly = true)
@@ -50,9 +52,15 @@ public class WishlistServiceImpl implements WishlistService {
         // Get wishlist items with details
         List<WishlistItem> items = wishlistItemRepository.findByWishlistIdWithDetails(wishlist.getId());
 
+        // Resolve article types for all items in one query
+        Map<Integer, String> articleTypes = articleTypeService.resolveTypes(items.stream()
+                .map(item -> item.getAnalogArticle().getId())
+                .collect(Collectors.toList()));
+
         // Map to DTOs
         List<WishlistResponseDto.WishlistItemDto> itemDtos = items.stream()
-                .map(this::mapToWishlistItemDto)
+                .map(item -> mapToWishlistItemDto(item,
+                        articleTypes.getOrDefault(item.getAnalogArticle().getId(), "unknown")))
                 .collect(Collectors.toList());
 
         return new WishlistResponseDto(
@@ -158,16 +166,16 @@ public class WishlistServiceImpl implements WishlistService {
         }
 
         // Validate payment method
-        PaymentMethod paymentMethod = paymentMethodRepository.findById(request.getPayment_method_id())
+        PaymentMethod paymentMethod = referenceDataRegistry.findById(PaymentMethod.class, request.getPayment_method_id())
                 .orElseThrow(() -> new RuntimeException("Método de pago no encontrado"));
 
         // Get pending payment status
-        PaymentStatus pendingStatus = paymentStatusRepository.findByName("Pendiente")
+        PaymentStatus pendingStatus = referenceDataRegistry.findByName(PaymentStatus.class, "Pendiente")
                 .orElseThrow(() -> new RuntimeException("Estado de pago 'Pendiente' no encontrado"));
 
         // Create preorder payment
         Payment payment = new Payment();
-        payment.setPaymentNumber(generatePaymentNumber());
+        payment.setPaymentNumber(businessNumberGenerator.nextPreorderNumber());
         payment.setPaymentMethod(paymentMethod);
         payment.setPaymentStatus(pendingStatus);
         payment.setCurrency(article.getCurrency());
@@ -221,7 +229,7 @@ public class WishlistServiceImpl implements WishlistService {
     /**
      * Map WishlistItem entity to DTO with all required details
      */
-    private WishlistResponseDto.WishlistItemDto mapToWishlistItemDto(WishlistItem item) {
+    private WishlistResponseDto.WishlistItemDto mapToWishlistItemDto(WishlistItem item, String articleType) {
         AnalogArticle article = item.getAnalogArticle();
 
         // Create article DTO
@@ -229,7 +237,7 @@ public class WishlistServiceImpl implements WishlistService {
                 article.getId(),
                 article.getTitle(),
                 new WishlistResponseDto.ArtistDto(article.getArtist().getId(), article.getArtist().getName()),
-                determineArticleType(article),
+                articleType,
                 article.getPrice(),
                 new CurrencyDto(article.getCurrency().getCode(), article.getCurrency().getSymbol()),
                 article.getImageUrl(),
@@ -244,27 +252,4 @@ public class WishlistServiceImpl implements WishlistService {
                 item.getNotificationSent(),
                 item.getCreatedAt());
     }
-
-    /**
-     * Determine article type by checking related tables
-     */
-    private String determineArticleType(AnalogArticle article) {
-        if (vinylRepository.existsByAnalogArticleId(article.getId())) {
-            return "vinyl";
-        } else if (cassetteRepository.existsByAnalogArticleId(article.getId())) {
-            return "cassette";
-        } else if (cdRepository.existsByAnalogArticleId(article.getId())) {
-            return "cd";
-        }
-        return "unknown";
-    }
-
-    /**
-     * Generate unique payment number
-     */
-    private String generatePaymentNumber() {
-        String timestamp = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomPart = java.util.UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return "PREORDER-" + timestamp + "-" + randomPart;
-    }
 }
\ No newline at end of file
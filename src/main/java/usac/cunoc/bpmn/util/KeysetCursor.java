@@ -0,0 +1,108 @@
+package usac.cunoc.bpmn.util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination. Encodes the sort key, the value
+ * of the sort column and the row ID of the last item returned, so the next
+ * page can continue with a "WHERE (sort, id) after (value, id)" predicate
+ * instead of an OFFSET scan.
+ *
+ * A row whose sort column is NULL is encoded with a marker instead of the
+ * value; the seek predicates must then continue within the NULL group.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+
+    private final String sortKey;
+    private final String value;
+    private final Integer id;
+
+    /**
+     * Encode the position of the last returned row
+     */
+    public static String encode(String sortKey, Object value, Integer id) {
+        String rawValue;
+        if (value == null) {
+            rawValue = NULL_VALUE;
+        } else if (value instanceof BigDecimal) {
+            rawValue = ((BigDecimal) value).toPlainString();
+        } else {
+            rawValue = value.toString();
+        }
+        String raw = sortKey + SEPARATOR + rawValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor received from the client. Returns null for an empty cursor
+     * (first page) and rejects cursors issued for a different sort order.
+     */
+    public static KeysetCursor decode(String cursor, String expectedSortKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String rawValue = raw.substring(first + 1, last);
+            KeysetCursor decoded = new KeysetCursor(
+                    raw.substring(0, first),
+                    NULL_VALUE.equals(rawValue) ? null : rawValue,
+                    Integer.valueOf(raw.substring(last + 1)));
+            if (!decoded.sortKey.equals(expectedSortKey)) {
+                throw new RuntimeException("El cursor no corresponde al ordenamiento solicitado");
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor de paginación inválido");
+        }
+    }
+
+    public LocalDateTime getValueAsDateTime() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginación inválido");
+        }
+    }
+
+    public BigDecimal getValueAsDecimal() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginación inválido");
+        }
+    }
+
+    public Integer getValueAsInteger() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -1,3 +1,6 @@
+-- Trigram matching for typo-tolerant catalog search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- User types catalog
 CREATE TABLE user_type (
     id SERIAL PRIMARY KEY,
@@ -286,6 +289,14 @@ CREATE TABLE analog_article (
     total_sold INTEGER DEFAULT 0,
     average_rating DECIMAL(3,2) DEFAULT 0.00,
     total_ratings INTEGER DEFAULT 0,
+    rating_sum INTEGER DEFAULT 0, -- Maintained by trigger: sum of all rating values
+    rating_count_1 INTEGER DEFAULT 0, -- Maintained by trigger: 1-star ratings
+    rating_count_2 INTEGER DEFAULT 0, -- Maintained by trigger: 2-star ratings
+    rating_count_3 INTEGER DEFAULT 0, -- Maintained by trigger: 3-star ratings
+    rating_count_4 INTEGER DEFAULT 0, -- Maintained by trigger: 4-star ratings
+    rating_count_5 INTEGER DEFAULT 0, -- Maintained by trigger: 5-star ratings
+    search_vector TSVECTOR, -- Maintained by trigger: title, artist, genre, description
+    search_text TEXT, -- Maintained by trigger: lowercased title and artist for trigram matching
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT chk_preorder_dates CHECK (
@@ -430,6 +441,7 @@ CREATE TABLE "order" (
     shipping_address_id INTEGER NOT NULL REFERENCES user_address(id),
     billing_address_id INTEGER NOT NULL REFERENCES user_address(id),
     notes TEXT,
+    idempotency_key VARCHAR(100), -- Idempotency-Key of the checkout request that created it
     shipped_at TIMESTAMP,
     delivered_at TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -455,6 +467,10 @@ CREATE TABLE order_item (
     )
 );
 
+-- Order item and stock reservation IDs are handed out in blocks of 50 so
+-- checkout can batch their inserts
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
+
 -- Payments
 CREATE TABLE payment (
     id SERIAL PRIMARY KEY,
@@ -473,6 +489,21 @@ CREATE TABLE payment (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Payment outbox: accepted payments waiting for settlement (charge, invoice
+-- and order status change), worked off by the settlement workers
+CREATE TABLE payment_outbox (
+    id SERIAL PRIMARY KEY,
+    payment_id INTEGER NOT NULL REFERENCES payment(id),
+    order_id INTEGER NOT NULL REFERENCES "order"(id),
+    credit_card_id INTEGER REFERENCES credit_card(id),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'DONE', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
 -- Invoices
 CREATE TABLE invoice (
     id SERIAL PRIMARY KEY,
@@ -490,6 +521,23 @@ CREATE TABLE invoice (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Daily sales rollup of delivered orders (status 'Entregado'), by order
+-- creation day, article type and genre. Maintained by triggers.sql.
+-- Order-level measures are counted on a single row of each order
+-- (order_count, order_total) and of each order and type (type_order_count),
+-- so they add up exactly across types, genres and days
+CREATE TABLE daily_sales_fact (
+    sale_date DATE NOT NULL,
+    article_type VARCHAR(20) NOT NULL, -- vinyl, cassette, cd or unknown
+    music_genre_id INTEGER NOT NULL REFERENCES music_genre(id),
+    order_count INTEGER NOT NULL DEFAULT 0,
+    type_order_count INTEGER NOT NULL DEFAULT 0,
+    order_total DECIMAL(12,2) NOT NULL DEFAULT 0,
+    items_sold INTEGER NOT NULL DEFAULT 0,
+    item_sales DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_date, article_type, music_genre_id)
+);
+
 -- Wishlist
 CREATE TABLE wishlist (
     id SERIAL PRIMARY KEY,
@@ -626,6 +674,20 @@ CREATE TABLE stock_movement (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Stock reservations: time-limited holds on article stock taken at checkout,
+-- consumed when the order is paid and released on cancel or expiry
+CREATE TABLE stock_reservation (
+    id SERIAL PRIMARY KEY,
+    analog_article_id INTEGER NOT NULL REFERENCES analog_article(id),
+    order_id INTEGER NOT NULL REFERENCES "order"(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(order_id, analog_article_id)
+);
+
+ALTER SEQUENCE stock_reservation_id_seq INCREMENT BY 50;
+
 -- User notifications
 CREATE TABLE user_notification (
     id SERIAL PRIMARY KEY,
@@ -642,6 +704,31 @@ CREATE TABLE user_notification (
     read_at TIMESTAMP
 );
 
+-- Catalog listing read model: one flat row per article for public browsing
+-- (maintained by triggers from analog_article and the format tables)
+CREATE TABLE catalog_listing (
+    article_id INTEGER PRIMARY KEY REFERENCES analog_article(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'unknown', -- 'vinyl', 'cassette', 'cd'
+    artist_id INTEGER NOT NULL,
+    artist_name VARCHAR(255),
+    music_genre_id INTEGER NOT NULL,
+    genre_name VARCHAR(100),
+    currency_id INTEGER NOT NULL,
+    currency_code CHAR(3),
+    currency_symbol VARCHAR(10),
+    price DECIMAL(10,2) NOT NULL,
+    image_url VARCHAR(500),
+    stock_quantity INTEGER NOT NULL DEFAULT 0,
+    is_available BOOLEAN DEFAULT true,
+    is_preorder BOOLEAN DEFAULT false,
+    average_rating DECIMAL(3,2) DEFAULT 0.00,
+    total_ratings INTEGER DEFAULT 0,
+    total_sold INTEGER DEFAULT 0,
+    created_at TIMESTAMP,
+    refreshed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- User indexes
 CREATE INDEX idx_user_email ON "user"(email);
 CREATE INDEX idx_user_username ON "user"(username);
@@ -658,6 +745,19 @@ CREATE INDEX idx_analog_article_stock ON analog_article(stock_quantity);
 CREATE INDEX idx_analog_article_rating ON analog_article(average_rating);
 CREATE INDEX idx_analog_article_sales ON analog_article(total_sold);
 CREATE INDEX idx_analog_article_price ON analog_article(price);
+CREATE INDEX idx_analog_article_search_vector ON analog_article USING GIN (search_vector);
+CREATE INDEX idx_analog_article_search_text_trgm ON analog_article USING GIN (search_text gin_trgm_ops);
+
+-- Catalog listing indexes (browsing only shows available articles; one per sort option)
+CREATE INDEX idx_catalog_listing_newest ON catalog_listing(created_at DESC, article_id DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_price ON catalog_listing(price, article_id) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_rating ON catalog_listing(average_rating DESC, article_id DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_sales ON catalog_listing(total_sold DESC, article_id DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_title ON catalog_listing(title, article_id) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_type ON catalog_listing(type, created_at DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_genre ON catalog_listing(music_genre_id, created_at DESC, article_id DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_artist ON catalog_listing(artist_id, created_at DESC, article_id DESC) WHERE is_available = true;
+CREATE INDEX idx_catalog_listing_genre_price ON catalog_listing(music_genre_id, price, article_id) WHERE is_available = true;
 
 -- Order indexes
 CREATE INDEX idx_order_user ON "order"(user_id);
@@ -665,6 +765,7 @@ CREATE INDEX idx_order_status ON "order"(order_status_id);
 CREATE INDEX idx_order_date ON "order"(created_at);
 CREATE INDEX idx_order_number ON "order"(order_number);
 CREATE INDEX idx_order_total ON "order"(total_amount);
+CREATE UNIQUE INDEX idx_order_idempotency_key ON "order"(user_id, idempotency_key) WHERE idempotency_key IS NOT NULL;
 
 -- Event indexes
 CREATE INDEX idx_event_datetime ON event(start_datetime);
@@ -675,6 +776,7 @@ CREATE INDEX idx_event_article ON event(analog_article_id);
 CREATE INDEX idx_article_comment_article ON article_comment(analog_article_id);
 CREATE INDEX idx_article_comment_user ON article_comment(user_id);
 CREATE INDEX idx_article_comment_status ON article_comment(comment_status_id);
+CREATE INDEX idx_article_comment_parent ON article_comment(parent_comment_id, created_at);
 
 -- Rating indexes
 CREATE INDEX idx_article_rating_article ON article_rating(analog_article_id);
@@ -686,6 +788,15 @@ CREATE INDEX idx_stock_movement_article ON stock_movement(analog_article_id);
 CREATE INDEX idx_stock_movement_type ON stock_movement(movement_type_id);
 CREATE INDEX idx_stock_movement_date ON stock_movement(created_at);
 
+-- Stock reservation indexes
+CREATE INDEX idx_stock_reservation_article ON stock_reservation(analog_article_id, expires_at);
+CREATE INDEX idx_stock_reservation_expires ON stock_reservation(expires_at);
+
+-- Payment outbox indexes
+CREATE INDEX idx_payment_outbox_due ON payment_outbox(available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_payment_outbox_payment ON payment_outbox(payment_id);
+CREATE INDEX idx_payment_outbox_order ON payment_outbox(order_id) WHERE status = 'PENDING';
+
 -- Notification indexes
 CREATE INDEX idx_notification_user ON user_notification(user_id);
 CREATE INDEX idx_notification_unread ON user_notification(user_id, is_read);
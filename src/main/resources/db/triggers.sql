@@ -166,31 +166,41 @@ CREATE TRIGGER trigger_update_cart_prices
     FOR EACH ROW
     EXECUTE FUNCTION update_cart_prices();
 
--- Function: Update cart totals when items are modified
+-- Procedure: Recompute a cart's totals with a single aggregate over its items
+CREATE OR REPLACE PROCEDURE refresh_cart_totals(p_cart_id INTEGER)
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE shopping_cart
+    SET (total_items, subtotal, updated_at) = (
+        SELECT COALESCE(SUM(quantity), 0),
+               COALESCE(SUM(quantity * unit_price - discount_applied), 0),
+               CURRENT_TIMESTAMP
+        FROM shopping_cart_item
+        WHERE shopping_cart_id = p_cart_id
+    )
+    WHERE id = p_cart_id;
+END;
+$$;
+
+-- Function: Update cart totals when items are modified. Batch cart updates set
+-- bpmn.defer_cart_totals for their transaction and call refresh_cart_totals
+-- once at the end instead of once per row
 CREATE OR REPLACE FUNCTION update_cart_totals()
 RETURNS TRIGGER AS $$
 DECLARE
     cart_id INTEGER;
 BEGIN
+    IF current_setting('bpmn.defer_cart_totals', true) = 'on' THEN
+        RETURN COALESCE(NEW, OLD);
+    END IF;
+
     IF TG_OP = 'DELETE' THEN
         cart_id := OLD.shopping_cart_id;
     ELSE
         cart_id := NEW.shopping_cart_id;
     END IF;
     
-    UPDATE shopping_cart 
-    SET total_items = (
-        SELECT COALESCE(SUM(quantity), 0)
-        FROM shopping_cart_item 
-        WHERE shopping_cart_id = cart_id
-    ),
-    subtotal = (
-        SELECT COALESCE(SUM(quantity * unit_price - discount_applied), 0)
-        FROM shopping_cart_item 
-        WHERE shopping_cart_id = cart_id
-    ),
-    updated_at = CURRENT_TIMESTAMP
-    WHERE id = cart_id;
+    CALL refresh_cart_totals(cart_id);
     
     RETURN COALESCE(NEW, OLD);
 END;
@@ -201,32 +211,65 @@ CREATE TRIGGER trigger_update_cart_totals
     FOR EACH ROW
     EXECUTE FUNCTION update_cart_totals();
 
--- Fixed trigger
-CREATE OR REPLACE FUNCTION update_article_rating()
-RETURNS TRIGGER AS $$
+-- Procedure: Empty a cart in one call - the per-row totals trigger is
+-- suspended for the delete and the totals are reset once
+CREATE OR REPLACE PROCEDURE clear_cart(p_cart_id INTEGER)
+LANGUAGE plpgsql AS $$
 DECLARE
-    target_article_id INTEGER;
-    calculated_avg_rating DECIMAL(3,2);
-    calculated_total_ratings INTEGER;
+    previous_setting TEXT := current_setting('bpmn.defer_cart_totals', true);
+BEGIN
+    PERFORM set_config('bpmn.defer_cart_totals', 'on', true);
+    DELETE FROM shopping_cart_item WHERE shopping_cart_id = p_cart_id;
+    PERFORM set_config('bpmn.defer_cart_totals', COALESCE(previous_setting, 'off'), true);
+
+    UPDATE shopping_cart
+    SET total_items = 0, subtotal = 0, updated_at = CURRENT_TIMESTAMP
+    WHERE id = p_cart_id;
+END;
+$$;
+
+-- Function: Apply a single rating delta to the article's rating counters
+-- (p_sign = 1 adds the rating, p_sign = -1 removes it). total_ratings and
+-- average_rating are derived from the per-star counters, so they stay exact
+-- without re-aggregating article_rating
+CREATE OR REPLACE FUNCTION apply_article_rating_delta(p_article_id INTEGER, p_rating INTEGER, p_sign INTEGER)
+RETURNS VOID AS $$
 BEGIN
-    IF TG_OP = 'DELETE' THEN
-        target_article_id := OLD.analog_article_id;
-    ELSE
-        target_article_id := NEW.analog_article_id;
-    END IF;
-    
-    SELECT 
-        ROUND(AVG(rating)::DECIMAL, 2),
-        COUNT(*)
-    INTO calculated_avg_rating, calculated_total_ratings
-    FROM article_rating 
-    WHERE analog_article_id = target_article_id;
-    
     UPDATE analog_article 
-    SET average_rating = COALESCE(calculated_avg_rating, 0.00),
-        total_ratings = COALESCE(calculated_total_ratings, 0),
+    SET total_ratings = COALESCE(rating_count_1, 0) + COALESCE(rating_count_2, 0) + COALESCE(rating_count_3, 0)
+            + COALESCE(rating_count_4, 0) + COALESCE(rating_count_5, 0) + p_sign,
+        rating_sum = COALESCE(rating_sum, 0) + p_sign * p_rating,
+        rating_count_1 = COALESCE(rating_count_1, 0) + CASE WHEN p_rating = 1 THEN p_sign ELSE 0 END,
+        rating_count_2 = COALESCE(rating_count_2, 0) + CASE WHEN p_rating = 2 THEN p_sign ELSE 0 END,
+        rating_count_3 = COALESCE(rating_count_3, 0) + CASE WHEN p_rating = 3 THEN p_sign ELSE 0 END,
+        rating_count_4 = COALESCE(rating_count_4, 0) + CASE WHEN p_rating = 4 THEN p_sign ELSE 0 END,
+        rating_count_5 = COALESCE(rating_count_5, 0) + CASE WHEN p_rating = 5 THEN p_sign ELSE 0 END,
+        average_rating = COALESCE(ROUND(
+            (COALESCE(rating_sum, 0) + p_sign * p_rating)::DECIMAL
+                / NULLIF(COALESCE(rating_count_1, 0) + COALESCE(rating_count_2, 0) + COALESCE(rating_count_3, 0)
+                    + COALESCE(rating_count_4, 0) + COALESCE(rating_count_5, 0) + p_sign, 0), 2), 0.00),
         updated_at = CURRENT_TIMESTAMP
-    WHERE id = target_article_id;
+    WHERE id = p_article_id;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Fixed trigger: O(1) counter deltas instead of re-aggregating all ratings
+CREATE OR REPLACE FUNCTION update_article_rating()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND OLD.rating = NEW.rating
+       AND OLD.analog_article_id = NEW.analog_article_id THEN
+        RETURN NEW;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_article_rating_delta(OLD.analog_article_id, OLD.rating, -1);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_article_rating_delta(NEW.analog_article_id, NEW.rating, 1);
+    END IF;
     
     RETURN COALESCE(NEW, OLD);
 END;
@@ -238,6 +281,32 @@ CREATE TRIGGER trigger_update_article_rating
     FOR EACH ROW
     EXECUTE FUNCTION update_article_rating();
 
+-- Backfill rating counters for ratings recorded before the counters existed
+UPDATE analog_article aa
+SET total_ratings = stats.total,
+    rating_sum = stats.rating_sum,
+    rating_count_1 = stats.c1,
+    rating_count_2 = stats.c2,
+    rating_count_3 = stats.c3,
+    rating_count_4 = stats.c4,
+    rating_count_5 = stats.c5,
+    average_rating = ROUND(stats.rating_sum::DECIMAL / stats.total, 2)
+FROM (
+    SELECT analog_article_id,
+           COUNT(*) AS total,
+           SUM(rating) AS rating_sum,
+           COUNT(*) FILTER (WHERE rating = 1) AS c1,
+           COUNT(*) FILTER (WHERE rating = 2) AS c2,
+           COUNT(*) FILTER (WHERE rating = 3) AS c3,
+           COUNT(*) FILTER (WHERE rating = 4) AS c4,
+           COUNT(*) FILTER (WHERE rating = 5) AS c5
+    FROM article_rating
+    GROUP BY analog_article_id
+) stats
+WHERE aa.id = stats.analog_article_id
+  AND (COALESCE(aa.rating_count_1, 0) + COALESCE(aa.rating_count_2, 0) + COALESCE(aa.rating_count_3, 0)
+       + COALESCE(aa.rating_count_4, 0) + COALESCE(aa.rating_count_5, 0)) <> stats.total;
+
 -- Function: Update user statistics when order is delivered
 CREATE OR REPLACE FUNCTION update_user_stats_on_order()
 RETURNS TRIGGER AS $$
@@ -256,6 +325,14 @@ BEGIN
         WHERE oi.order_id = NEW.id 
         AND analog_article.id = oi.analog_article_id;
     END IF;
+
+    -- Daily sales rollup: add the order when it is delivered, take it back
+    -- out if it leaves that status
+    IF NEW.order_status_id = 4 AND OLD.order_status_id IS DISTINCT FROM 4 THEN
+        PERFORM apply_order_daily_sales(NEW.id, 1);
+    ELSIF OLD.order_status_id = 4 AND NEW.order_status_id IS DISTINCT FROM 4 THEN
+        PERFORM apply_order_daily_sales(NEW.id, -1);
+    END IF;
     
     RETURN NEW;
 END;
@@ -265,7 +342,7 @@ $$ LANGUAGE plpgsql;
 CREATE TRIGGER trigger_update_user_stats
     AFTER UPDATE OF order_status_id ON "order"
     FOR EACH ROW
-    WHEN (NEW.order_status_id = 4)
+    WHEN (NEW.order_status_id = 4 OR OLD.order_status_id = 4)
     EXECUTE FUNCTION update_user_stats_on_order();
 
 -- Function: Reduce stock when order moves to processing
@@ -480,6 +557,327 @@ CREATE TRIGGER trigger_validate_stock_movement_reference
     FOR EACH ROW
     EXECUTE FUNCTION validate_stock_movement_reference();
 
+-- =============================================
+-- FULL-TEXT CATALOG SEARCH
+-- =============================================
+
+-- Function: Build the search document of an article (title, artist, genre, description)
+CREATE OR REPLACE FUNCTION update_article_search_document()
+RETURNS TRIGGER AS $$
+DECLARE
+    artist_name VARCHAR(255);
+    genre_name VARCHAR(100);
+BEGIN
+    SELECT name INTO artist_name FROM artist WHERE id = NEW.artist_id;
+    SELECT name INTO genre_name FROM music_genre WHERE id = NEW.music_genre_id;
+
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', COALESCE(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('simple', COALESCE(artist_name, '')), 'A') ||
+        setweight(to_tsvector('simple', COALESCE(genre_name, '')), 'B') ||
+        setweight(to_tsvector('simple', COALESCE(NEW.description, '')), 'C');
+    NEW.search_text := LOWER(CONCAT_WS(' ', NEW.title, artist_name));
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_update_article_search_document
+    BEFORE INSERT OR UPDATE OF title, description, artist_id, music_genre_id ON analog_article
+    FOR EACH ROW
+    EXECUTE FUNCTION update_article_search_document();
+
+-- Function: Rebuild article search documents when an artist or genre is renamed
+CREATE OR REPLACE FUNCTION refresh_article_search_on_rename()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- Touching the title re-fires trigger_update_article_search_document
+    IF TG_TABLE_NAME = 'artist' THEN
+        UPDATE analog_article SET title = title WHERE artist_id = NEW.id;
+    ELSE
+        UPDATE analog_article SET title = title WHERE music_genre_id = NEW.id;
+    END IF;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_refresh_search_on_artist_rename
+    AFTER UPDATE OF name ON artist
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION refresh_article_search_on_rename();
+
+CREATE TRIGGER trigger_refresh_search_on_genre_rename
+    AFTER UPDATE OF name ON music_genre
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION refresh_article_search_on_rename();
+
+-- Backfill search documents for articles created before the trigger existed
+UPDATE analog_article SET title = title WHERE search_vector IS NULL;
+
+-- =============================================
+-- CATALOG LISTING READ MODEL
+-- =============================================
+
+-- Function: Rebuild the catalog_listing row of one article. Stock movements,
+-- rating deltas, sales totals and admin edits all end up as an UPDATE on
+-- analog_article, so refreshing from there keeps the listing current
+CREATE OR REPLACE FUNCTION refresh_catalog_listing(p_article_id INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO catalog_listing (
+        article_id, title, type, artist_id, artist_name, music_genre_id, genre_name,
+        currency_id, currency_code, currency_symbol, price, image_url, stock_quantity,
+        is_available, is_preorder, average_rating, total_ratings, total_sold,
+        created_at, refreshed_at
+    )
+    SELECT
+        aa.id,
+        aa.title,
+        CASE WHEN EXISTS (SELECT 1 FROM vinyl v WHERE v.analog_article_id = aa.id) THEN 'vinyl'
+             WHEN EXISTS (SELECT 1 FROM cassette c WHERE c.analog_article_id = aa.id) THEN 'cassette'
+             WHEN EXISTS (SELECT 1 FROM cd WHERE cd.analog_article_id = aa.id) THEN 'cd'
+             ELSE 'unknown' END,
+        aa.artist_id,
+        a.name,
+        aa.music_genre_id,
+        mg.name,
+        aa.currency_id,
+        cur.code,
+        cur.symbol,
+        aa.price,
+        aa.image_url,
+        aa.stock_quantity,
+        aa.is_available,
+        aa.is_preorder,
+        aa.average_rating,
+        aa.total_ratings,
+        aa.total_sold,
+        aa.created_at,
+        CURRENT_TIMESTAMP
+    FROM analog_article aa
+    JOIN artist a ON a.id = aa.artist_id
+    JOIN music_genre mg ON mg.id = aa.music_genre_id
+    JOIN currency cur ON cur.id = aa.currency_id
+    WHERE aa.id = p_article_id
+    ON CONFLICT (article_id) DO UPDATE SET
+        title = EXCLUDED.title,
+        type = EXCLUDED.type,
+        artist_id = EXCLUDED.artist_id,
+        artist_name = EXCLUDED.artist_name,
+        music_genre_id = EXCLUDED.music_genre_id,
+        genre_name = EXCLUDED.genre_name,
+        currency_id = EXCLUDED.currency_id,
+        currency_code = EXCLUDED.currency_code,
+        currency_symbol = EXCLUDED.currency_symbol,
+        price = EXCLUDED.price,
+        image_url = EXCLUDED.image_url,
+        stock_quantity = EXCLUDED.stock_quantity,
+        is_available = EXCLUDED.is_available,
+        is_preorder = EXCLUDED.is_preorder,
+        average_rating = EXCLUDED.average_rating,
+        total_ratings = EXCLUDED.total_ratings,
+        total_sold = EXCLUDED.total_sold,
+        created_at = EXCLUDED.created_at,
+        refreshed_at = EXCLUDED.refreshed_at;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Function: Refresh the listing row of the article that was inserted or changed
+CREATE OR REPLACE FUNCTION sync_catalog_listing_from_article()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_catalog_listing(NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Artist/genre renames touch analog_article (see refresh_article_search_on_rename),
+-- so they reach the listing through this trigger as well
+CREATE TRIGGER trigger_sync_catalog_listing
+    AFTER INSERT OR UPDATE ON analog_article
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_catalog_listing_from_article();
+
+-- Function: Refresh the listing type when a format row is added or removed
+CREATE OR REPLACE FUNCTION sync_catalog_listing_type()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM refresh_catalog_listing(OLD.analog_article_id);
+        RETURN OLD;
+    END IF;
+
+    PERFORM refresh_catalog_listing(NEW.analog_article_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_sync_catalog_listing_vinyl
+    AFTER INSERT OR DELETE ON vinyl
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_catalog_listing_type();
+
+CREATE TRIGGER trigger_sync_catalog_listing_cassette
+    AFTER INSERT OR DELETE ON cassette
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_catalog_listing_type();
+
+CREATE TRIGGER trigger_sync_catalog_listing_cd
+    AFTER INSERT OR DELETE ON cd
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_catalog_listing_type();
+
+-- Function: Propagate currency code/symbol changes to the listing
+CREATE OR REPLACE FUNCTION sync_catalog_listing_currency()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE catalog_listing
+    SET currency_code = NEW.code,
+        currency_symbol = NEW.symbol,
+        refreshed_at = CURRENT_TIMESTAMP
+    WHERE currency_id = NEW.id;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_sync_catalog_listing_currency
+    AFTER UPDATE OF code, symbol ON currency
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_catalog_listing_currency();
+
+-- Backfill listing rows for articles created before the read model existed
+SELECT refresh_catalog_listing(aa.id)
+FROM analog_article aa
+WHERE NOT EXISTS (SELECT 1 FROM catalog_listing cl WHERE cl.article_id = aa.id);
+
+-- =============================================
+-- DAILY SALES ROLLUP
+-- =============================================
+
+-- Sales of each order by article type and genre, keyed by order creation day
+CREATE OR REPLACE VIEW daily_sales_order_line AS
+SELECT
+    o.id AS order_id,
+    o.order_status_id,
+    o.created_at::DATE AS sale_date,
+    o.total_amount AS order_total,
+    CASE
+        WHEN v.id IS NOT NULL THEN 'vinyl'
+        WHEN c.id IS NOT NULL THEN 'cassette'
+        WHEN cd.id IS NOT NULL THEN 'cd'
+        ELSE 'unknown'
+    END AS article_type,
+    aa.music_genre_id,
+    SUM(oi.quantity)::INTEGER AS items_sold,
+    SUM(oi.total_price) AS item_sales
+FROM "order" o
+JOIN order_item oi ON oi.order_id = o.id
+JOIN analog_article aa ON aa.id = oi.analog_article_id
+LEFT JOIN vinyl v ON v.analog_article_id = aa.id
+LEFT JOIN cassette c ON c.analog_article_id = aa.id
+LEFT JOIN cd ON cd.analog_article_id = aa.id
+GROUP BY o.id, o.order_status_id, o.created_at::DATE, o.total_amount, article_type, aa.music_genre_id;
+
+-- Function: Add one order to daily_sales_fact (p_sign = 1) or take it out
+-- (p_sign = -1). The order-level measures go to the first line of the
+-- order, type_order_count to the first line of each type
+CREATE OR REPLACE FUNCTION apply_order_daily_sales(p_order_id INTEGER, p_sign INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO daily_sales_fact AS f (
+        sale_date, article_type, music_genre_id, order_count, type_order_count,
+        order_total, items_sold, item_sales
+    )
+    SELECT
+        l.sale_date,
+        l.article_type,
+        l.music_genre_id,
+        p_sign * CASE WHEN l.order_rank = 1 THEN 1 ELSE 0 END,
+        p_sign * CASE WHEN l.type_rank = 1 THEN 1 ELSE 0 END,
+        p_sign * CASE WHEN l.order_rank = 1 THEN l.order_total ELSE 0 END,
+        p_sign * l.items_sold,
+        p_sign * l.item_sales
+    FROM (
+        SELECT
+            ln.*,
+            ROW_NUMBER() OVER (ORDER BY ln.article_type, ln.music_genre_id) AS order_rank,
+            ROW_NUMBER() OVER (PARTITION BY ln.article_type ORDER BY ln.music_genre_id) AS type_rank
+        FROM daily_sales_order_line ln
+        WHERE ln.order_id = p_order_id
+    ) l
+    ON CONFLICT (sale_date, article_type, music_genre_id) DO UPDATE
+    SET order_count = f.order_count + EXCLUDED.order_count,
+        type_order_count = f.type_order_count + EXCLUDED.type_order_count,
+        order_total = f.order_total + EXCLUDED.order_total,
+        items_sold = f.items_sold + EXCLUDED.items_sold,
+        item_sales = f.item_sales + EXCLUDED.item_sales;
+
+    -- Drop the rows that only held this order
+    IF p_sign < 0 THEN
+        DELETE FROM daily_sales_fact f
+        USING daily_sales_order_line ln
+        WHERE ln.order_id = p_order_id
+        AND f.sale_date = ln.sale_date
+        AND f.article_type = ln.article_type
+        AND f.music_genre_id = ln.music_genre_id
+        AND f.order_count = 0 AND f.type_order_count = 0 AND f.items_sold = 0;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Function: Rebuild daily_sales_fact for a range of days from the delivered
+-- orders created in it; returns the number of rows written. Status changes
+-- wait on the table lock, so none is lost or counted twice
+CREATE OR REPLACE FUNCTION refresh_daily_sales_fact(p_start_date DATE, p_end_date DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    v_rows INTEGER;
+BEGIN
+    LOCK TABLE daily_sales_fact IN SHARE ROW EXCLUSIVE MODE;
+
+    DELETE FROM daily_sales_fact
+    WHERE sale_date BETWEEN p_start_date AND p_end_date;
+
+    INSERT INTO daily_sales_fact (
+        sale_date, article_type, music_genre_id, order_count, type_order_count,
+        order_total, items_sold, item_sales
+    )
+    SELECT
+        l.sale_date,
+        l.article_type,
+        l.music_genre_id,
+        SUM(CASE WHEN l.order_rank = 1 THEN 1 ELSE 0 END),
+        SUM(CASE WHEN l.type_rank = 1 THEN 1 ELSE 0 END),
+        SUM(CASE WHEN l.order_rank = 1 THEN l.order_total ELSE 0 END),
+        SUM(l.items_sold),
+        SUM(l.item_sales)
+    FROM (
+        SELECT
+            ln.*,
+            ROW_NUMBER() OVER (PARTITION BY ln.order_id
+                ORDER BY ln.article_type, ln.music_genre_id) AS order_rank,
+            ROW_NUMBER() OVER (PARTITION BY ln.order_id, ln.article_type
+                ORDER BY ln.music_genre_id) AS type_rank
+        FROM daily_sales_order_line ln
+        WHERE ln.order_status_id = 4 -- 'Entregado'
+        AND ln.sale_date BETWEEN p_start_date AND p_end_date
+    ) l
+    GROUP BY l.sale_date, l.article_type, l.music_genre_id;
+
+    GET DIAGNOSTICS v_rows = ROW_COUNT;
+    RETURN v_rows;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Backfill the rollup with orders delivered before the trigger existed
+SELECT refresh_daily_sales_fact(MIN(created_at)::DATE, MAX(created_at)::DATE)
+FROM "order"
+WHERE order_status_id = 4;
+
 -- =============================================
 -- REPORTING FUNCTIONS
 -- =============================================
@@ -572,4 +970,27 @@ CREATE INDEX IF NOT EXISTS idx_event_participants ON event(current_participants,
 CREATE INDEX IF NOT EXISTS idx_vinyl_limited_edition ON vinyl(remaining_limited_stock) WHERE is_limited_edition = true;
 CREATE INDEX IF NOT EXISTS idx_stock_movement_validation ON stock_movement(movement_reference_type_id, reference_id);
 CREATE INDEX IF NOT EXISTS idx_comment_status_deleted ON article_comment(comment_status_id) WHERE comment_status_id = 2;
-CREATE INDEX IF NOT EXISTS idx_order_status_processing ON "order"(order_status_id, user_id) WHERE order_status_id IN (1, 2);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_order_status_processing ON "order"(order_status_id, user_id) WHERE order_status_id IN (1, 2);
+
+-- Catalog access paths: every public query filters on is_available = true plus
+-- optional genre/artist/price and sorts by created_at, price, average_rating,
+-- total_sold or title. Partial composites match those combinations
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_newest ON analog_article(created_at DESC, id DESC) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_price ON analog_article(price, id) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_rating ON analog_article(average_rating DESC, total_ratings DESC) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_sales ON analog_article(total_sold DESC, id DESC) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_title ON analog_article(title, id) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_genre ON analog_article(music_genre_id, created_at DESC) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_artist ON analog_article(artist_id, created_at DESC) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_analog_article_avail_genre_price ON analog_article(music_genre_id, price) WHERE is_available = true;
+
+-- Order access paths: user order history (keyset by created_at, id), the
+-- order detail item and payment lookups and the order_item joins used by
+-- sales reports
+CREATE INDEX IF NOT EXISTS idx_order_user_created ON "order"(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_order_item_order ON order_item(order_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_article ON order_item(analog_article_id);
+CREATE INDEX IF NOT EXISTS idx_payment_order ON payment(order_id);
+
+-- Invoice export: invoices issued in a date range
+CREATE INDEX IF NOT EXISTS idx_invoice_issue_date ON invoice(issue_date, id);
\ No newline at end of file
@@ -0,0 +1,31 @@
+package usac.cunoc.bpmn;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * Datasource for tests that need a Postgres seeded with bpmn.sql, triggers.sql
+ * and insertion_test.sql. The URL comes from EXPLAIN_DB_URL (tests are skipped
+ * without it); user and password default to postgres.
+ */
+public final class SeededDatabase {
+
+	public static final String URL_VARIABLE = "EXPLAIN_DB_URL";
+
+	private SeededDatabase() {
+	}
+
+	/**
+	 * Point the test context at the seeded database, for use from a
+	 * @DynamicPropertySource method
+	 */
+	public static void register(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv(URL_VARIABLE));
+		registry.add("spring.datasource.username", () -> envOrDefault("EXPLAIN_DB_USERNAME", "postgres"));
+		registry.add("spring.datasource.password", () -> envOrDefault("EXPLAIN_DB_PASSWORD", "postgres"));
+	}
+
+	private static String envOrDefault(String name, String defaultValue) {
+		String value = System.getenv(name);
+		return value != null ? value : defaultValue;
+	}
+}
@@ -0,0 +1,290 @@
+package usac.cunoc.bpmn.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.SeededDatabase;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan regression harness - runs EXPLAIN on the SQL of every @Query in
+ * the catalog, catalog listing, order, report and comment repositories and fails when a plan falls back
+ * to a sequential scan.
+ *
+ * Sequential scans are disabled for the EXPLAIN session, so a remaining
+ * "Seq Scan" node means no index can serve that access path (small seed data
+ * would otherwise always favor sequential scans).
+ *
+ * Needs a Postgres seeded with bpmn.sql, triggers.sql and insertion_test.sql:
+ * EXPLAIN_DB_URL=jdbc:postgresql://localhost:5432/bpmn mvn test -Dtest=QueryPlanRegressionTest
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DB_URL", matches = ".+")
+class QueryPlanRegressionTest {
+
+	private static final List<Class<?>> REPOSITORIES = List.of(
+			AnalogArticleRepository.class,
+			CatalogListingRepository.class,
+			OrderRepository.class,
+			AdminReportsRepository.class,
+			ArticleCommentRepository.class);
+
+	/**
+	 * Sample values for named query parameters; anything else is derived from its type
+	 */
+	private static final Map<String, Object> SAMPLE_PARAMS = Map.ofEntries(
+			Map.entry("tsQuery", "abbey:*"),
+			Map.entry("searchLower", "abbey"),
+			Map.entry("type", "vinyl"),
+			Map.entry("sortKey", "relevance"),
+			Map.entry("status", "Pendiente"),
+			Map.entry("groupBy", "daily"),
+			Map.entry("startDate", LocalDateTime.now().minusDays(30)),
+			Map.entry("endDate", LocalDateTime.now()));
+
+	private static final List<CapturedStatement> CAPTURED = new ArrayList<>();
+	private static boolean capturing;
+
+	@DynamicPropertySource
+	static void explainDatabase(DynamicPropertyRegistry registry) {
+		SeededDatabase.register(registry);
+	}
+
+	@Autowired
+	private org.springframework.context.ApplicationContext context;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void repositoryQueriesUseIndexes() throws Exception {
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+		List<String> failures = new ArrayList<>();
+		for (Class<?> repositoryType : REPOSITORIES) {
+			Object repository = context.getBean(repositoryType);
+
+			for (Method method : repositoryType.getDeclaredMethods()) {
+				if (!method.isAnnotationPresent(Query.class) || method.isAnnotationPresent(Modifying.class)) {
+					continue;
+				}
+
+				String name = repositoryType.getSimpleName() + "." + method.getName();
+				List<CapturedStatement> statements = captureStatements(repository, method, name, failures);
+
+				for (CapturedStatement statement : statements) {
+					for (String relation : findSeqScans(explain(statement))) {
+						failures.add(name + ": sequential scan on " + relation);
+					}
+				}
+			}
+		}
+
+		assertTrue(failures.isEmpty(), "Query plan regressions:\n" + String.join("\n", failures));
+	}
+
+	private List<CapturedStatement> captureStatements(Object repository, Method method, String name,
+			List<String> failures) {
+		CAPTURED.clear();
+		// A failing query must not abort the transaction for the remaining ones
+		jdbcTemplate.execute("SAVEPOINT explain_query");
+		capturing = true;
+		try {
+			method.invoke(repository, sampleArguments(method));
+			entityManager.clear();
+		} catch (InvocationTargetException e) {
+			jdbcTemplate.execute("ROLLBACK TO SAVEPOINT explain_query");
+			entityManager.clear();
+			failures.add(name + ": query failed - " + e.getTargetException().getMessage());
+		} catch (IllegalAccessException e) {
+			failures.add(name + ": cannot invoke - " + e.getMessage());
+		} finally {
+			capturing = false;
+		}
+		return new ArrayList<>(CAPTURED);
+	}
+
+	private Object[] sampleArguments(Method method) {
+		Parameter[] parameters = method.getParameters();
+		Object[] arguments = new Object[parameters.length];
+
+		for (int i = 0; i < parameters.length; i++) {
+			Param param = parameters[i].getAnnotation(Param.class);
+			Class<?> type = parameters[i].getType();
+
+			if (param != null && SAMPLE_PARAMS.containsKey(param.value())) {
+				arguments[i] = SAMPLE_PARAMS.get(param.value());
+			} else if (Pageable.class.isAssignableFrom(type)) {
+				arguments[i] = PageRequest.of(0, 10);
+			} else if (type == Integer.class || type == int.class) {
+				arguments[i] = 1;
+			} else if (type == Long.class || type == long.class) {
+				arguments[i] = 1L;
+			} else if (type == BigDecimal.class) {
+				arguments[i] = BigDecimal.valueOf(100);
+			} else if (type == String.class) {
+				arguments[i] = "a";
+			} else if (type == Boolean.class || type == boolean.class) {
+				arguments[i] = true;
+			} else if (type == LocalDateTime.class) {
+				arguments[i] = LocalDateTime.now();
+			} else if (type == LocalDate.class) {
+				arguments[i] = LocalDate.now();
+			} else if (Collection.class.isAssignableFrom(type)) {
+				arguments[i] = List.of(1, 2, 3);
+			} else if (type.isAnnotationPresent(Entity.class)) {
+				arguments[i] = entityManager.getReference(type, 1);
+			} else {
+				throw new IllegalStateException("No sample value for " + type + " in " + method);
+			}
+		}
+		return arguments;
+	}
+
+	/**
+	 * Re-run a captured statement under EXPLAIN with the same bound values
+	 */
+	private JsonNode explain(CapturedStatement statement) throws Exception {
+		String plan = jdbcTemplate.execute((Connection connection) -> {
+			try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+				for (BoundValue value : statement.values()) {
+					value.setter().invoke(explain, value.args());
+				}
+				try (ResultSet resultSet = explain.executeQuery()) {
+					resultSet.next();
+					return resultSet.getString(1);
+				}
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Cannot bind values for EXPLAIN", e);
+			}
+		});
+		return objectMapper.readTree(plan);
+	}
+
+	private List<String> findSeqScans(JsonNode node) {
+		List<String> relations = new ArrayList<>();
+		if (node.isArray()) {
+			node.forEach(child -> relations.addAll(findSeqScans(child)));
+		} else if (node.isObject()) {
+			if ("Seq Scan".equals(node.path("Node Type").asText())) {
+				relations.add(node.path("Relation Name").asText());
+			}
+			node.elements().forEachRemaining(child -> relations.addAll(findSeqScans(child)));
+		}
+		return relations;
+	}
+
+	private record BoundValue(Method setter, Object[] args) {
+	}
+
+	private record CapturedStatement(String sql, List<BoundValue> values) {
+	}
+
+	/**
+	 * Wraps the DataSource so SELECT statements issued by repositories are
+	 * recorded together with their bound values
+	 */
+	@TestConfiguration
+	static class StatementCaptureConfig {
+
+		@Bean
+		static BeanPostProcessor statementCapturingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class },
+							(proxy, method, args) -> {
+								Object result = invokeTarget(dataSource, method, args);
+								return result instanceof Connection connection ? wrapConnection(connection) : result;
+							});
+				}
+			};
+		}
+
+		private static Connection wrapConnection(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						Object result = invokeTarget(connection, method, args);
+						if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+							return wrapStatement(statement, (String) args[0]);
+						}
+						return result;
+					});
+		}
+
+		private static PreparedStatement wrapStatement(PreparedStatement statement, String sql) {
+			List<BoundValue> values = new ArrayList<>();
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+						if (method.getName().startsWith("set") && args != null && args.length >= 2
+								&& args[0] instanceof Integer) {
+							values.add(new BoundValue(method, args));
+						} else if (method.getName().equals("executeQuery") && (args == null || args.length == 0)
+								&& capturing && isQuery(sql)) {
+							Object resultSet = invokeTarget(statement, method, args);
+							CAPTURED.add(new CapturedStatement(sql, List.copyOf(values)));
+							return resultSet;
+						}
+						return invokeTarget(statement, method, args);
+					});
+		}
+
+		/**
+		 * Reads to EXPLAIN, including CTE queries (WITH ... SELECT)
+		 */
+		private static boolean isQuery(String sql) {
+			String normalized = sql.trim().toLowerCase();
+			return normalized.startsWith("select") || normalized.startsWith("with");
+		}
+
+		private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package usac.cunoc.bpmn.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import usac.cunoc.bpmn.config.BusinessNumberProperties;
+import usac.cunoc.bpmn.service.impl.BusinessNumberGeneratorImpl;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Business number microbenchmark - times the generator against the previous
+ * timestamp + UUID numbers on a single thread and checks that numbers from
+ * several threads and two nodes never collide and keep the
+ * PREFIX-yyyyMMddHHmmss-XXXXXXXX format.
+ *
+ * mvn test -Dtest=BusinessNumberGeneratorBenchmarkTest
+ */
+@Slf4j
+class BusinessNumberGeneratorBenchmarkTest {
+
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 1_000_000;
+	private static final int THREADS = 8;
+	private static final int NUMBERS_PER_THREAD = 100_000;
+
+	@Test
+	void benchmarkAgainstTimestampAndUuid() {
+		BusinessNumberGenerator generator = generator(1);
+
+		double generatorNanos = nanosPerNumber(generator::nextOrderNumber);
+		double legacyNanos = nanosPerNumber(BusinessNumberGeneratorBenchmarkTest::legacyOrderNumber);
+		log.info("Order number: generator {} ns, timestamp + UUID {} ns",
+				String.format("%.1f", generatorNanos), String.format("%.1f", legacyNanos));
+
+		assertTrue(generator.nextOrderNumber().matches("ORD-\\d{14}-[0-9A-F]{8}"));
+		assertTrue(generator.nextPaymentNumber().matches("PAY-\\d{14}-[0-9A-F]{8}"));
+		assertTrue(generator.nextPreorderNumber().matches("PREORDER-\\d{14}-[0-9A-F]{8}"));
+		assertTrue(generator.nextInvoiceNumber().matches("INV-\\d{14}-[0-9A-F]{8}"));
+	}
+
+	@Test
+	void numbersAreUniqueAcrossThreadsAndNodes() throws Exception {
+		List<BusinessNumberGenerator> nodes = List.of(generator(1), generator(2));
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Callable<List<String>>> tasks = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				BusinessNumberGenerator generator = nodes.get(t % nodes.size());
+				tasks.add(() -> {
+					List<String> numbers = new ArrayList<>(NUMBERS_PER_THREAD);
+					for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+						numbers.add(generator.nextPaymentNumber());
+					}
+					return numbers;
+				});
+			}
+
+			Set<String> unique = new HashSet<>();
+			for (Future<List<String>> result : executor.invokeAll(tasks)) {
+				List<String> numbers = result.get();
+				for (int i = 1; i < numbers.size(); i++) {
+					assertTrue(numbers.get(i - 1).compareTo(numbers.get(i)) < 0,
+							"Numbers of one thread must increase");
+				}
+				unique.addAll(numbers);
+			}
+			assertEquals(THREADS * NUMBERS_PER_THREAD, unique.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static BusinessNumberGenerator generator(int nodeId) {
+		BusinessNumberProperties properties = new BusinessNumberProperties();
+		properties.setNodeId(nodeId);
+		return new BusinessNumberGeneratorImpl(properties);
+	}
+
+	private static double nanosPerNumber(Supplier<String> numbers) {
+		int sink = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			sink += numbers.get().length();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += numbers.get().length();
+		}
+		long nanos = System.nanoTime() - start;
+		assertTrue(sink > 0);
+		return (double) nanos / ITERATIONS;
+	}
+
+	/**
+	 * Order number as it was built before the generator
+	 */
+	private static String legacyOrderNumber() {
+		String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+		String randomPart = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+		return "ORD-" + timestamp + "-" + randomPart;
+	}
+}
@@ -0,0 +1,109 @@
+package usac.cunoc.bpmn.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.SeededDatabase;
+import usac.cunoc.bpmn.dto.cart.AddCartItemRequestDto;
+import usac.cunoc.bpmn.dto.cart.CartResponseDto;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Statement count regression test for GET /api/v1/cart - reading a cart must
+ * take the same number of SQL statements whatever its size.
+ *
+ * Uses the database cart store so every read goes to Postgres: the cart, its
+ * items, their catalog_listing rows and their promotions.
+ *
+ * Needs the same seeded Postgres as QueryPlanRegressionTest:
+ * EXPLAIN_DB_URL=jdbc:postgresql://localhost:5432/bpmn mvn test -Dtest=CartReadQueryCountTest
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"app.cart.store=database",
+		"app.payments.poll-interval=1h" })
+@Transactional
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DB_URL", matches = ".+")
+class CartReadQueryCountTest {
+
+	private static final long EXPECTED_STATEMENTS = 4;
+
+	@DynamicPropertySource
+	static void testDatabase(DynamicPropertyRegistry registry) {
+		SeededDatabase.register(registry);
+	}
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void cartReadTakesFixedNumberOfStatements() {
+		Integer userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM \"user\"", Integer.class);
+		List<Integer> articleIds = jdbcTemplate.queryForList(
+				"SELECT id FROM analog_article WHERE is_available AND stock_quantity > 0 ORDER BY id LIMIT 6",
+				Integer.class);
+
+		cartService.clearCart(userId);
+		cartService.addItemToCart(userId, new AddCartItemRequestDto(articleIds.get(0), 1));
+		assignPromotions(userId);
+		long singleItemStatements = countCartReadStatements(userId, 1);
+
+		articleIds.stream().skip(1)
+				.forEach(articleId -> cartService.addItemToCart(userId, new AddCartItemRequestDto(articleId, 1)));
+		assignPromotions(userId);
+		long manyItemsStatements = countCartReadStatements(userId, articleIds.size());
+
+		assertEquals(EXPECTED_STATEMENTS, singleItemStatements, "Statements for a cart with one item");
+		assertEquals(EXPECTED_STATEMENTS, manyItemsStatements,
+				"Statements for a cart with " + articleIds.size() + " items");
+	}
+
+	/**
+	 * Spread the seeded promotions over the cart items so promotion type and
+	 * genre are part of the read
+	 */
+	private void assignPromotions(Integer userId) {
+		jdbcTemplate.update("""
+				UPDATE shopping_cart_item sci
+				SET cd_promotion_id = (
+				    SELECT cp.id FROM cd_promotion cp ORDER BY cp.id
+				    OFFSET sci.id % (SELECT COUNT(*) FROM cd_promotion) LIMIT 1)
+				WHERE sci.shopping_cart_id = (SELECT id FROM shopping_cart WHERE user_id = ?)
+				""", userId);
+	}
+
+	private long countCartReadStatements(Integer userId, int expectedItems) {
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		CartResponseDto cart = cartService.getCart(userId);
+
+		assertEquals(expectedItems, cart.getItems().size());
+		cart.getItems().forEach(item -> assertNotNull(item.getPromotion().getPromotion_type().getName()));
+		return statistics.getPrepareStatementCount();
+	}
+}
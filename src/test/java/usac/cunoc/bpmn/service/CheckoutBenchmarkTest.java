@@ -0,0 +1,125 @@
+package usac.cunoc.bpmn.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import usac.cunoc.bpmn.SeededDatabase;
+import usac.cunoc.bpmn.dto.cart.AddCartItemRequestDto;
+import usac.cunoc.bpmn.dto.order.CreateOrderRequestDto;
+import usac.cunoc.bpmn.dto.order.CreateOrderResponseDto;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checkout benchmark - times POST /api/v1/orders against cart size and checks
+ * that checkout takes the same number of SQL statements whatever the number
+ * of cart lines (batched order item inserts, single-call cart clear).
+ *
+ * Every checkout runs inside the test transaction and is rolled back. The
+ * checkouts of one run stay within one order_item_id_seq block (50 IDs) so
+ * no sequence refill is counted.
+ *
+ * Needs the same seeded Postgres as QueryPlanRegressionTest:
+ * EXPLAIN_DB_URL=jdbc:postgresql://localhost:5432/bpmn mvn test -Dtest=CheckoutBenchmarkTest
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"app.cart.store=database",
+		"app.payments.poll-interval=1h" })
+@Slf4j
+@Transactional
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DB_URL", matches = ".+")
+class CheckoutBenchmarkTest {
+
+	private static final int ITERATIONS = 3;
+
+	@DynamicPropertySource
+	static void testDatabase(DynamicPropertyRegistry registry) {
+		SeededDatabase.register(registry);
+	}
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void checkoutTakesFixedNumberOfStatements() {
+		Integer userId = jdbcTemplate.queryForObject(
+				"SELECT MIN(user_id) FROM user_address", Integer.class);
+		Integer addressId = jdbcTemplate.queryForObject(
+				"SELECT MIN(id) FROM user_address WHERE user_id = ?", Integer.class, userId);
+		Integer paymentMethodId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM payment_method", Integer.class);
+		List<Integer> articleIds = jdbcTemplate.queryForList(
+				"SELECT id FROM analog_article WHERE is_available AND stock_quantity >= 10 ORDER BY id LIMIT 8",
+				Integer.class);
+		CreateOrderRequestDto request = new CreateOrderRequestDto(addressId, addressId, paymentMethodId, null,
+				"checkout benchmark");
+
+		// Warm up the connection, statement caches and ID pools
+		checkout(userId, articleIds.subList(0, 1), request);
+
+		Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+		for (int cartSize : List.of(1, articleIds.size() / 2, articleIds.size())) {
+			List<Long> timings = new ArrayList<>();
+			for (int i = 0; i < ITERATIONS; i++) {
+				CheckoutRun run = checkout(userId, articleIds.subList(0, cartSize), request);
+				timings.add(run.nanos);
+				statementsBySize.merge(cartSize, run.statements, Math::max);
+			}
+			timings.sort(null);
+			log.info("Checkout of {} lines: median {} ms, {} statements", cartSize,
+					String.format("%.2f", timings.get(ITERATIONS / 2) / 1_000_000.0), statementsBySize.get(cartSize));
+		}
+
+		long singleLineStatements = statementsBySize.get(1);
+		statementsBySize.forEach((cartSize, statements) -> assertEquals(singleLineStatements, statements,
+				"Statements for a checkout of " + cartSize + " lines"));
+	}
+
+	private CheckoutRun checkout(Integer userId, List<Integer> articleIds, CreateOrderRequestDto request) {
+		cartService.clearCart(userId);
+		articleIds.forEach(articleId -> cartService.addItemToCart(userId, new AddCartItemRequestDto(articleId, 1)));
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		long start = System.nanoTime();
+		CreateOrderResponseDto order = orderService.createOrder(request, userId, UUID.randomUUID().toString());
+		entityManager.flush();
+		long nanos = System.nanoTime() - start;
+
+		assertEquals(articleIds.size(), order.getTotal_items());
+		return new CheckoutRun(nanos, statistics.getPrepareStatementCount());
+	}
+
+	private record CheckoutRun(long nanos, long statements) {
+	}
+}
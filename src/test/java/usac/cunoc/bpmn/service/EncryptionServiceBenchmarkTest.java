@@ -0,0 +1,189 @@
+package usac.cunoc.bpmn.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import usac.cunoc.bpmn.service.impl.EncryptionServiceImpl;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encryption microbenchmark - times card field decryption with the previous
+ * per-call AES/ECB implementation, the GCM engine one value at a time and
+ * decryptAll, and checks the GCM format: random IVs, tamper detection on
+ * block-aligned records and reading of values written by the previous
+ * implementation.
+ *
+ * mvn test -Dtest=EncryptionServiceBenchmarkTest
+ */
+@Slf4j
+class EncryptionServiceBenchmarkTest {
+
+	private static final String KEY = "benchmark-encryption-key";
+	private static final int CARDS = 50;
+	private static final int ROUNDS = 200;
+	private static final int WARMUP_ROUNDS = 100;
+
+	private EncryptionServiceImpl encryptionService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		encryptionService = new EncryptionServiceImpl();
+		ReflectionTestUtils.setField(encryptionService, "encryptionKey", KEY);
+		encryptionService.init();
+	}
+
+	@Test
+	void encryptsWithAuthenticatedVersionedRecords() {
+		String first = encryptionService.encrypt("John Doe");
+		String second = encryptionService.encrypt("John Doe");
+
+		assertNotEquals(first, second, "Each value must get its own IV");
+		assertEquals("John Doe", encryptionService.decrypt(first));
+		assertFalse(encryptionService.needsReencryption(first));
+		assertThrows(RuntimeException.class, () -> encryptionService.decrypt(tamper(first)));
+	}
+
+	@Test
+	void rejectsTamperedBlockAlignedRecords() {
+		// "2028" gives a 32-byte record (IV, 4 bytes, tag) and the card number
+		// a 16-byte ciphertext; both are whole AES blocks, so an ECB fallback
+		// would decrypt them instead of failing on padding
+		for (String value : List.of("2028", "4111111111111111")) {
+			String encrypted = encryptionService.encrypt(value);
+			assertEquals(value, encryptionService.decrypt(encrypted));
+			for (int i = 0; i < 32; i++) {
+				String tampered = tamper(encrypted);
+				assertThrows(RuntimeException.class, () -> encryptionService.decrypt(tampered));
+				assertThrows(RuntimeException.class, () -> encryptionService.decryptAll(List.of(tampered)));
+			}
+		}
+	}
+
+	@Test
+	void migratesLegacyValuesStartingWithByteOne() {
+		String value = null;
+		String legacy = null;
+		for (int i = 0; legacy == null; i++) {
+			String candidate = legacyEncrypt("CARDHOLDER " + i);
+			if (Base64.getDecoder().decode(candidate)[0] == 1) {
+				value = "CARDHOLDER " + i;
+				legacy = candidate;
+			}
+		}
+
+		assertTrue(encryptionService.needsReencryption(legacy));
+		assertEquals(value, encryptionService.decrypt(legacy));
+	}
+
+	@Test
+	void readsValuesWrittenByThePreviousImplementation() throws Exception {
+		for (String value : List.of("12", "2028", "JANE SMITH", "4111111111111111")) {
+			String legacy = legacyEncrypt(value);
+			assertTrue(encryptionService.needsReencryption(legacy));
+			assertEquals(value, encryptionService.decrypt(legacy));
+			assertEquals(List.of(value, value),
+					encryptionService.decryptAll(List.of(legacy, encryptionService.encrypt(value))));
+		}
+	}
+
+	@Test
+	void benchmarkCardListingDecryption() throws Exception {
+		List<String> legacyValues = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < CARDS; i++) {
+			for (String field : List.of("CARDHOLDER " + i, String.valueOf(1 + i % 12), String.valueOf(2026 + i % 5))) {
+				legacyValues.add(legacyEncrypt(field));
+				values.add(encryptionService.encrypt(field));
+			}
+		}
+
+		double legacyNanos = nanosPerValue(legacyValues.size(), () -> {
+			List<String> decrypted = new ArrayList<>();
+			for (String value : legacyValues) {
+				decrypted.add(legacyDecrypt(value));
+			}
+			return decrypted;
+		});
+		double singleNanos = nanosPerValue(values.size(), () -> {
+			List<String> decrypted = new ArrayList<>();
+			for (String value : values) {
+				decrypted.add(encryptionService.decrypt(value));
+			}
+			return decrypted;
+		});
+		double batchNanos = nanosPerValue(values.size(), () -> encryptionService.decryptAll(values));
+
+		log.info("Decrypt per value: ECB per call {} ns, GCM decrypt {} ns, GCM decryptAll {} ns",
+				String.format("%.0f", legacyNanos), String.format("%.0f", singleNanos),
+				String.format("%.0f", batchNanos));
+	}
+
+	/**
+	 * Flip one random bit of the IV, ciphertext or tag of a GCM value
+	 */
+	private static String tamper(String encrypted) {
+		String prefix = encrypted.substring(0, encrypted.indexOf(':') + 1);
+		byte[] record = Base64.getDecoder().decode(encrypted.substring(prefix.length()));
+		int bit = ThreadLocalRandom.current().nextInt(record.length * 8);
+		record[bit / 8] ^= (byte) (1 << (bit % 8));
+		return prefix + Base64.getEncoder().encodeToString(record);
+	}
+
+	private static double nanosPerValue(int values, Supplier<List<String>> round) {
+		int sink = 0;
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			sink += round.get().size();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			sink += round.get().size();
+		}
+		long nanos = System.nanoTime() - start;
+		assertTrue(sink > 0);
+		return (double) nanos / ((long) ROUNDS * values);
+	}
+
+	/**
+	 * Encryption as done before the GCM engine: key hashed and cipher
+	 * created on every call
+	 */
+	private static String legacyEncrypt(String data) {
+		try {
+			Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+			cipher.init(Cipher.ENCRYPT_MODE, legacyKey());
+			return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String legacyDecrypt(String encryptedData) {
+		try {
+			Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+			cipher.init(Cipher.DECRYPT_MODE, legacyKey());
+			return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedData)), StandardCharsets.UTF_8);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static SecretKeySpec legacyKey() throws Exception {
+		byte[] key = MessageDigest.getInstance("SHA-256").digest(KEY.getBytes(StandardCharsets.UTF_8));
+		return new SecretKeySpec(key, "AES");
+	}
+}